@@ -0,0 +1,135 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link BuffedReader} serving reads from an internal byte array that is refilled chunk by chunk.
+ * <br><br>
+ * Bulk little-endian reads decode whole elements straight out of the internal array, only an
+ * element straddling two chunks is assembled through a small scratch buffer.
+ */
+public abstract class AbstractBuffedReader implements BuffedReader {
+
+    private final byte[] scratch = new byte[Long.BYTES];
+
+    protected byte[] chunk;
+
+    protected int position;
+
+    protected int limit;
+
+    /**
+     * loads the next chunk into {@link #chunk} and resets {@link #position} and {@link #limit}.
+     *
+     * @throws EOFException if there is nothing left to read.
+     */
+    protected abstract void refill() throws IOException;
+
+    @Override
+    public int readBinary(final byte[] bytes) throws IOException {
+        return readBinary(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int readBinary(final byte[] bytes, final int offset, final int length) throws IOException {
+        for (int i = 0; i < length; ) {
+            if (position == limit) {
+                refill();
+            }
+
+            final int fillLength = Math.min(length - i, limit - position);
+            if (fillLength > 0) {
+                System.arraycopy(chunk, position, bytes, offset + i, fillLength);
+
+                i += fillLength;
+                this.position += fillLength;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public void skip(final long n) throws IOException {
+        for (long left = n; left > 0; ) {
+            if (position == limit) {
+                refill();
+            }
+
+            final int skipLength = (int) Math.min(left, limit - position);
+            this.position += skipLength;
+            left -= skipLength;
+        }
+    }
+
+    @Override
+    public void readShortsLE(final short[] dst, final int n) throws IOException {
+        readLE(Short.BYTES, n, (window, offset, count) -> window.asShortBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readIntsLE(final int[] dst, final int n) throws IOException {
+        readLE(Integer.BYTES, n, (window, offset, count) -> window.asIntBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readLongsLE(final long[] dst, final int n) throws IOException {
+        readLE(Long.BYTES, n, (window, offset, count) -> window.asLongBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readFloatsLE(final float[] dst, final int n) throws IOException {
+        readLE(Float.BYTES, n, (window, offset, count) -> window.asFloatBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readDoublesLE(final double[] dst, final int n) throws IOException {
+        readLE(Double.BYTES, n, (window, offset, count) -> window.asDoubleBuffer().get(dst, offset, count));
+    }
+
+    private void readLE(final int width, final int n, final WindowConsumer consumer) throws IOException {
+        for (int i = 0; i < n; ) {
+            if (position == limit) {
+                refill();
+            }
+
+            final int count = Math.min(n - i, (limit - position) / width);
+            if (count > 0) {
+                consumer.accept(window(chunk, position, count * width), i, count);
+                i += count;
+                this.position += count * width;
+            } else {
+                // the next element straddles two chunks
+                readBinary(scratch, 0, width);
+                consumer.accept(window(scratch, 0, width), i, 1);
+                i++;
+            }
+        }
+    }
+
+    private static ByteBuffer window(final byte[] bytes, final int offset, final int length) {
+        return ByteBuffer.wrap(bytes, offset, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private interface WindowConsumer {
+
+        void accept(ByteBuffer window, int offset, int count);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link BuffedWriter} staging writes in a fixed-size internal byte array that is flushed
+ * downstream whenever it runs out of room.
+ * <br><br>
+ * Bulk little-endian writes encode whole runs of elements straight into the internal array.
+ * The array is flushed early when the next element does not fit, so elements never straddle
+ * two flushes.
+ */
+public abstract class AbstractBuffedWriter implements BuffedWriter {
+
+    protected final int capacity;
+
+    protected final byte[] writtenBuf;
+
+    protected int position;
+
+    protected AbstractBuffedWriter(final int capacity) {
+        this.capacity = capacity;
+        this.writtenBuf = new byte[capacity];
+    }
+
+    @Override
+    public void writeShortsLE(final short[] src, final int offset, final int length) throws IOException {
+        writeLE(Short.BYTES, offset, length, (window, off, count) -> window.asShortBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeIntsLE(final int[] src, final int offset, final int length) throws IOException {
+        writeLE(Integer.BYTES, offset, length, (window, off, count) -> window.asIntBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeLongsLE(final long[] src, final int offset, final int length) throws IOException {
+        writeLE(Long.BYTES, offset, length, (window, off, count) -> window.asLongBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeFloatsLE(final float[] src, final int offset, final int length) throws IOException {
+        writeLE(Float.BYTES, offset, length, (window, off, count) -> window.asFloatBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeDoublesLE(final double[] src, final int offset, final int length) throws IOException {
+        writeLE(Double.BYTES, offset, length, (window, off, count) -> window.asDoubleBuffer().put(src, off, count));
+    }
+
+    protected int remaining() {
+        return capacity - position;
+    }
+
+    private void writeLE(
+            final int width,
+            final int offset,
+            final int length,
+            final WindowConsumer consumer
+    ) throws IOException {
+        for (int i = 0; i < length; ) {
+            if (remaining() < width) {
+                flushToTarget(true);
+            }
+
+            final int count = Math.min(length - i, remaining() / width);
+            consumer.accept(
+                    ByteBuffer.wrap(writtenBuf, position, count * width).slice().order(ByteOrder.LITTLE_ENDIAN),
+                    offset + i,
+                    count
+            );
+            i += count;
+            this.position += count * width;
+        }
+
+        // never leave the buffer full, single byte writes rely on it
+        if (remaining() == 0) {
+            flushToTarget(true);
+        }
+    }
+
+    private interface WindowConsumer {
+
+        void accept(ByteBuffer window, int offset, int count);
+    }
+}
@@ -16,6 +16,8 @@
 package com.bytedance.bytehouse.buffer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * read and buffer.
@@ -34,4 +36,76 @@ public interface BuffedReader {
      * @return amount of bytes read.
      */
     int readBinary(byte[] bytes) throws IOException;
+
+    /**
+     * read exactly {@code length} bytes into the array starting at {@code offset}.
+     *
+     * @return amount of bytes read.
+     */
+    default int readBinary(byte[] bytes, int offset, int length) throws IOException {
+        if (offset == 0 && length == bytes.length) {
+            return readBinary(bytes);
+        }
+        final byte[] tmp = new byte[length];
+        readBinary(tmp);
+        System.arraycopy(tmp, 0, bytes, offset, length);
+        return length;
+    }
+
+    /**
+     * discard the next {@code n} bytes.
+     */
+    default void skip(long n) throws IOException {
+        final byte[] tmp = new byte[(int) Math.min(n, 8192)];
+        for (long left = n; left > 0; ) {
+            final int length = (int) Math.min(left, tmp.length);
+            readBinary(tmp, 0, length);
+            left -= length;
+        }
+    }
+
+    /**
+     * read {@code n} little-endian shorts into {@code dst}.
+     */
+    default void readShortsLE(short[] dst, int n) throws IOException {
+        final byte[] bytes = new byte[n * Short.BYTES];
+        readBinary(bytes);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(dst, 0, n);
+    }
+
+    /**
+     * read {@code n} little-endian ints into {@code dst}.
+     */
+    default void readIntsLE(int[] dst, int n) throws IOException {
+        final byte[] bytes = new byte[n * Integer.BYTES];
+        readBinary(bytes);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(dst, 0, n);
+    }
+
+    /**
+     * read {@code n} little-endian longs into {@code dst}.
+     */
+    default void readLongsLE(long[] dst, int n) throws IOException {
+        final byte[] bytes = new byte[n * Long.BYTES];
+        readBinary(bytes);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(dst, 0, n);
+    }
+
+    /**
+     * read {@code n} little-endian floats into {@code dst}.
+     */
+    default void readFloatsLE(float[] dst, int n) throws IOException {
+        final byte[] bytes = new byte[n * Float.BYTES];
+        readBinary(bytes);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(dst, 0, n);
+    }
+
+    /**
+     * read {@code n} little-endian doubles into {@code dst}.
+     */
+    default void readDoublesLE(double[] dst, int n) throws IOException {
+        final byte[] bytes = new byte[n * Double.BYTES];
+        readBinary(bytes);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(dst, 0, n);
+    }
 }
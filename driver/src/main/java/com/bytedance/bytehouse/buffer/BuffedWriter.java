@@ -16,12 +16,19 @@
 package com.bytedance.bytehouse.buffer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * a writer that writes to a buffer.
  */
 public interface BuffedWriter {
 
+    /**
+     * elements encoded per intermediate array by the default bulk writes.
+     */
+    int BULK_CHUNK_ELEMENTS = 1024;
+
     /**
      * Write a single byte into the buffer.
      */
@@ -46,4 +53,74 @@ public interface BuffedWriter {
      * flush the content of the buffer into underlying storage.
      */
     void flushToTarget(boolean force) throws IOException;
+
+    /**
+     * write {@code length} shorts of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    default void writeShortsLE(short[] src, int offset, int length) throws IOException {
+        final int chunk = Math.min(length, BULK_CHUNK_ELEMENTS);
+        final byte[] bytes = new byte[chunk * Short.BYTES];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < length; i += chunk) {
+            final int count = Math.min(chunk, length - i);
+            buffer.asShortBuffer().put(src, offset + i, count);
+            writeBinary(bytes, 0, count * Short.BYTES);
+        }
+    }
+
+    /**
+     * write {@code length} ints of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    default void writeIntsLE(int[] src, int offset, int length) throws IOException {
+        final int chunk = Math.min(length, BULK_CHUNK_ELEMENTS);
+        final byte[] bytes = new byte[chunk * Integer.BYTES];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < length; i += chunk) {
+            final int count = Math.min(chunk, length - i);
+            buffer.asIntBuffer().put(src, offset + i, count);
+            writeBinary(bytes, 0, count * Integer.BYTES);
+        }
+    }
+
+    /**
+     * write {@code length} longs of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    default void writeLongsLE(long[] src, int offset, int length) throws IOException {
+        final int chunk = Math.min(length, BULK_CHUNK_ELEMENTS);
+        final byte[] bytes = new byte[chunk * Long.BYTES];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < length; i += chunk) {
+            final int count = Math.min(chunk, length - i);
+            buffer.asLongBuffer().put(src, offset + i, count);
+            writeBinary(bytes, 0, count * Long.BYTES);
+        }
+    }
+
+    /**
+     * write {@code length} floats of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    default void writeFloatsLE(float[] src, int offset, int length) throws IOException {
+        final int chunk = Math.min(length, BULK_CHUNK_ELEMENTS);
+        final byte[] bytes = new byte[chunk * Float.BYTES];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < length; i += chunk) {
+            final int count = Math.min(chunk, length - i);
+            buffer.asFloatBuffer().put(src, offset + i, count);
+            writeBinary(bytes, 0, count * Float.BYTES);
+        }
+    }
+
+    /**
+     * write {@code length} doubles of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    default void writeDoublesLE(double[] src, int offset, int length) throws IOException {
+        final int chunk = Math.min(length, BULK_CHUNK_ELEMENTS);
+        final byte[] bytes = new byte[chunk * Double.BYTES];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < length; i += chunk) {
+            final int count = Math.min(chunk, length - i);
+            buffer.asDoubleBuffer().put(src, offset + i, count);
+            writeBinary(bytes, 0, count * Double.BYTES);
+        }
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * {@link BuffedReader} over a range of a byte array, the array is not copied.
+ */
+public class ByteArrayReader extends AbstractBuffedReader {
+
+    public ByteArrayReader(final byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    public ByteArrayReader(final byte[] bytes, final int offset, final int length) {
+        this.chunk = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    @Override
+    public int readBinary() throws IOException {
+        if (position == limit) {
+            refill();
+        }
+
+        return chunk[position++] & 0xFF;
+    }
+
+    /**
+     * @return bytes left to read.
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    /**
+     * writes the bytes left to read to {@code writer} without copying them first.
+     */
+    public void transferTo(final BuffedWriter writer) throws IOException {
+        writer.writeBinary(chunk, position, limit - position);
+        position = limit;
+    }
+
+    @Override
+    protected void refill() throws IOException {
+        throw new EOFException("Attempt to read past the end of the byte array");
+    }
+}
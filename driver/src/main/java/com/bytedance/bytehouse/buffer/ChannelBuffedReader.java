@@ -0,0 +1,162 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import javax.annotation.Nullable;
+
+/**
+ * {@link BuffedReader} reading from a {@link SocketChannelTransport} into a direct buffer leased
+ * from a {@link DirectBufferPool}.
+ * <br><br>
+ * The buffer is only held while it has unread bytes: it goes back to the pool as soon as it is
+ * drained, so a connection waiting for the server does not pin any buffer memory.
+ */
+public class ChannelBuffedReader implements BuffedReader {
+
+    private final SocketChannelTransport transport;
+
+    private final DirectBufferPool pool;
+
+    private final int capacity;
+
+    // unread bytes between position and limit, null when drained
+    @Nullable
+    private ByteBuffer buffer;
+
+    public ChannelBuffedReader(
+            final SocketChannelTransport transport,
+            final DirectBufferPool pool,
+            final int capacity
+    ) {
+        this.transport = transport;
+        this.pool = pool;
+        this.capacity = capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBinary() throws IOException {
+        final int byt = fill(1).get() & 0xFF;
+        releaseIfDrained();
+        return byt;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBinary(final byte[] bytes) throws IOException {
+        return readBinary(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int readBinary(final byte[] bytes, final int offset, final int length) throws IOException {
+        for (int i = 0; i < length; ) {
+            final ByteBuffer buf = fill(1);
+            final int num = Math.min(length - i, buf.remaining());
+            buf.get(bytes, offset + i, num);
+            i += num;
+            releaseIfDrained();
+        }
+        return length;
+    }
+
+    @Override
+    public void skip(final long n) throws IOException {
+        for (long left = n; left > 0; ) {
+            final ByteBuffer buf = fill(1);
+            final int num = (int) Math.min(left, buf.remaining());
+            buf.position(buf.position() + num);
+            left -= num;
+            releaseIfDrained();
+        }
+    }
+
+    @Override
+    public void readShortsLE(final short[] dst, final int n) throws IOException {
+        readLE(Short.BYTES, n, (buf, offset, count) -> buf.asShortBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readIntsLE(final int[] dst, final int n) throws IOException {
+        readLE(Integer.BYTES, n, (buf, offset, count) -> buf.asIntBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readLongsLE(final long[] dst, final int n) throws IOException {
+        readLE(Long.BYTES, n, (buf, offset, count) -> buf.asLongBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readFloatsLE(final float[] dst, final int n) throws IOException {
+        readLE(Float.BYTES, n, (buf, offset, count) -> buf.asFloatBuffer().get(dst, offset, count));
+    }
+
+    @Override
+    public void readDoublesLE(final double[] dst, final int n) throws IOException {
+        readLE(Double.BYTES, n, (buf, offset, count) -> buf.asDoubleBuffer().get(dst, offset, count));
+    }
+
+    private void readLE(final int width, final int n, final BufferConsumer consumer) throws IOException {
+        for (int i = 0; i < n; ) {
+            final ByteBuffer buf = fill(width);
+            final int count = Math.min(n - i, buf.remaining() / width);
+            consumer.accept(buf, i, count);
+            buf.position(buf.position() + count * width);
+            i += count;
+            releaseIfDrained();
+        }
+    }
+
+    /**
+     * returns the buffer with at least {@code minBytes} unread bytes, reading from the channel if needed.
+     */
+    private ByteBuffer fill(final int minBytes) throws IOException {
+        if (buffer == null) {
+            buffer = pool.lease(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(0);
+        }
+        final ByteBuffer buf = buffer;
+        if (buf.remaining() < minBytes) {
+            buf.compact();
+            try {
+                while (buf.position() < minBytes) {
+                    transport.read(buf);
+                }
+            } finally {
+                buf.flip();
+            }
+        }
+        return buf;
+    }
+
+    private void releaseIfDrained() {
+        if (buffer != null && !buffer.hasRemaining()) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private interface BufferConsumer {
+
+        void accept(ByteBuffer buf, int offset, int count);
+    }
+}
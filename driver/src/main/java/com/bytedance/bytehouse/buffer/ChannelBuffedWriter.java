@@ -0,0 +1,168 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import javax.annotation.Nullable;
+
+/**
+ * {@link BuffedWriter} staging writes in a direct buffer leased from a {@link DirectBufferPool}
+ * and writing it to a {@link SocketChannelTransport}.
+ * <br><br>
+ * The buffer is leased on the first write and goes back to the pool on
+ * {@link #flushToTarget(boolean)}, so an idle connection does not pin any buffer memory.
+ */
+public class ChannelBuffedWriter implements BuffedWriter {
+
+    private final SocketChannelTransport transport;
+
+    private final DirectBufferPool pool;
+
+    private final int capacity;
+
+    // bytes staged so far are between 0 and position, null when nothing is staged
+    @Nullable
+    private ByteBuffer buffer;
+
+    public ChannelBuffedWriter(
+            final SocketChannelTransport transport,
+            final DirectBufferPool pool,
+            final int capacity
+    ) {
+        this.transport = transport;
+        this.pool = pool;
+        this.capacity = capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(final byte byt) throws IOException {
+        room(1).put(byt);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(final byte[] bytes) throws IOException {
+        writeBinary(bytes, 0, bytes.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBinary(
+            final byte[] bytes,
+            final int offset,
+            final int length
+    ) throws IOException {
+        for (int i = 0; i < length; ) {
+            final ByteBuffer buf = room(1);
+            final int num = Math.min(length - i, buf.remaining());
+            buf.put(bytes, offset + i, num);
+            i += num;
+        }
+    }
+
+    @Override
+    public void writeBinaryNow(final byte[] bytes) throws IOException {
+        flushToTarget(true);
+        transport.writeFully(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public void writeShortsLE(final short[] src, final int offset, final int length) throws IOException {
+        writeLE(Short.BYTES, offset, length, (buf, off, count) -> buf.asShortBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeIntsLE(final int[] src, final int offset, final int length) throws IOException {
+        writeLE(Integer.BYTES, offset, length, (buf, off, count) -> buf.asIntBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeLongsLE(final long[] src, final int offset, final int length) throws IOException {
+        writeLE(Long.BYTES, offset, length, (buf, off, count) -> buf.asLongBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeFloatsLE(final float[] src, final int offset, final int length) throws IOException {
+        writeLE(Float.BYTES, offset, length, (buf, off, count) -> buf.asFloatBuffer().put(src, off, count));
+    }
+
+    @Override
+    public void writeDoublesLE(final double[] src, final int offset, final int length) throws IOException {
+        writeLE(Double.BYTES, offset, length, (buf, off, count) -> buf.asDoubleBuffer().put(src, off, count));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flushToTarget(final boolean force) throws IOException {
+        final ByteBuffer buf = buffer;
+        if (buf == null) {
+            return;
+        }
+        buffer = null;
+        try {
+            buf.flip();
+            transport.writeFully(buf);
+        } finally {
+            pool.release(buf);
+        }
+    }
+
+    private void writeLE(
+            final int width,
+            final int offset,
+            final int length,
+            final BufferConsumer consumer
+    ) throws IOException {
+        for (int i = 0; i < length; ) {
+            final ByteBuffer buf = room(width);
+            final int count = Math.min(length - i, buf.remaining() / width);
+            consumer.accept(buf, offset + i, count);
+            buf.position(buf.position() + count * width);
+            i += count;
+        }
+    }
+
+    /**
+     * returns the buffer with room for at least {@code minBytes}, writing out staged bytes if needed.
+     */
+    private ByteBuffer room(final int minBytes) throws IOException {
+        if (buffer != null && buffer.remaining() < minBytes) {
+            buffer.flip();
+            transport.writeFully(buffer);
+            buffer.clear();
+        }
+        if (buffer == null) {
+            buffer = pool.lease(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffer;
+    }
+
+    private interface BufferConsumer {
+
+        void accept(ByteBuffer buf, int offset, int count);
+    }
+}
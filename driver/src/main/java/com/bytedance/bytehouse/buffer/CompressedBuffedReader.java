@@ -18,30 +18,38 @@ package com.bytedance.bytehouse.buffer;
 import com.bytedance.bytehouse.misc.BytesHelper;
 import io.airlift.compress.Decompressor;
 import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
 import java.io.IOException;
 
 import static com.bytedance.bytehouse.settings.BHConstants.CHECKSUM_LENGTH;
 import static com.bytedance.bytehouse.settings.BHConstants.COMPRESSION_HEADER_LENGTH;
 
 /**
- * {@link CompressedBuffedReader} supporting LZ4 fast compression.
+ * {@link CompressedBuffedReader} supporting LZ4 and ZSTD compressed as well as uncompressed frames.
  */
-public class CompressedBuffedReader implements BuffedReader, BytesHelper {
+public class CompressedBuffedReader extends AbstractBuffedReader implements BytesHelper {
 
     /* @formatter:off */
     private static final int NONE = 0x02;
 
     private static final int LZ4 = 0x82;
 
+    private static final int ZSTD = 0x90;
+
     private final BuffedReader buf;
 
     private final Decompressor lz4Decompressor = new Lz4Decompressor();
 
-    private int position;
+    private final Decompressor zstdDecompressor = new ZstdDecompressor();
+
+    // checksum followed by the compression header of the current frame
+    private final byte[] frameHeader = new byte[CHECKSUM_LENGTH + COMPRESSION_HEADER_LENGTH];
 
-    private int capacity;
+    // grow-only, holds the compressed payload of the current frame
+    private byte[] compressed = new byte[0];
 
-    private byte[] decompressed;
+    // grow-only, serves as chunk once decompressed
+    private byte[] decompressed = new byte[0];
 
     /**
      * constructor.
@@ -52,97 +60,144 @@ public class CompressedBuffedReader implements BuffedReader, BytesHelper {
 
     @Override
     public int readBinary() throws IOException {
-        if (position == capacity) {
-            decompressed = readCompressedData();
-            this.position = 0;
-            this.capacity = decompressed.length;
+        if (position == limit) {
+            refill();
         }
 
-        return decompressed[position++];
+        return chunk[position++];
     }
+    /* @formatter:on */
 
     @Override
-    public int readBinary(final byte[] bytes) throws IOException {
-        int i = 0;
-        while (i < bytes.length) {
-            if (position == capacity) {
-                decompressed = readCompressedData();
-                this.position = 0;
-                this.capacity = decompressed.length;
-            }
-
-            final int padding = bytes.length - i;
-            final int fillLength = Math.min(padding, capacity - position);
-
-            if (fillLength > 0) {
-                System.arraycopy(decompressed, position, bytes, i, fillLength);
+    protected void refill() throws IOException {
+        this.limit = readCompressedData();
+        this.chunk = decompressed;
+        this.position = 0;
+    }
 
-                i += fillLength;
-                this.position += fillLength;
+    /**
+     * skips {@code n} decompressed bytes. Frames lying entirely inside the skipped range are
+     * stepped over in the underlying reader without being decompressed.
+     */
+    @Override
+    public void skip(final long n) throws IOException {
+        long left = n;
+        final int buffered = limit - position;
+        if (left <= buffered) {
+            this.position += (int) left;
+            return;
+        }
+        left -= buffered;
+        this.position = limit;
+
+        while (left > 0) {
+            readFrameHeader();
+            final int decompressedSize = getIntLE(frameHeader, CHECKSUM_LENGTH + 5);
+            if (decompressedSize <= left) {
+                skipFrame(decompressedSize);
+                left -= decompressedSize;
+                continue;
             }
+            this.limit = decompressFrame();
+            this.chunk = decompressed;
+            this.position = (int) left;
+            left = 0;
         }
-        return bytes.length;
     }
-    /* @formatter:on */
-
-    private byte[] readCompressedData() throws IOException {
-        //TODO: validate checksum
-        buf.readBinary(new byte[CHECKSUM_LENGTH]);
 
-        final byte[] compressedHeader = new byte[COMPRESSION_HEADER_LENGTH];
+    /**
+     * decompresses the next frame into {@link #decompressed}.
+     *
+     * @return the decompressed size.
+     */
+    private int readCompressedData() throws IOException {
+        readFrameHeader();
+        return decompressFrame();
+    }
 
-        if (buf.readBinary(compressedHeader) != COMPRESSION_HEADER_LENGTH) {
+    private void readFrameHeader() throws IOException {
+        //TODO: validate checksum
+        if (buf.readBinary(frameHeader) != frameHeader.length) {
             throw new IOException("Invalid compression header");
         }
+    }
+
+    private void skipFrame(final int decompressedSize) throws IOException {
+        final int method = frameHeader[CHECKSUM_LENGTH] & 0x0FF;
+        if (method == NONE) {
+            buf.skip(decompressedSize);
+        } else {
+            buf.skip(getIntLE(frameHeader, CHECKSUM_LENGTH + 1) - COMPRESSION_HEADER_LENGTH);
+        }
+    }
 
-        final int method = compressedHeader[0] & 0x0FF;
-        final int compressedSize = getIntLE(compressedHeader, 1);
-        final int decompressedSize = getIntLE(compressedHeader, 5);
+    /**
+     * decompresses the frame whose header is in {@link #frameHeader} into {@link #decompressed}.
+     *
+     * @return the decompressed size.
+     */
+    private int decompressFrame() throws IOException {
+        final int method = frameHeader[CHECKSUM_LENGTH] & 0x0FF;
+        final int compressedSize = getIntLE(frameHeader, CHECKSUM_LENGTH + 1);
+        final int decompressedSize = getIntLE(frameHeader, CHECKSUM_LENGTH + 5);
+
+        if (decompressed.length < decompressedSize) {
+            decompressed = new byte[decompressedSize];
+        }
 
         switch (method) {
             case LZ4:
-                return readLZ4CompressedData(
+                decompress(
+                        lz4Decompressor,
                         compressedSize - COMPRESSION_HEADER_LENGTH,
-                        decompressedSize
+                        decompressedSize,
+                        "LZ4"
+                );
+                return decompressedSize;
+            case ZSTD:
+                decompress(
+                        zstdDecompressor,
+                        compressedSize - COMPRESSION_HEADER_LENGTH,
+                        decompressedSize,
+                        "ZSTD"
                 );
+                return decompressedSize;
             case NONE:
-                return readNoneCompressedData(decompressedSize);
+                readNoneCompressedData(decompressedSize);
+                return decompressedSize;
             default:
                 throw new UnsupportedOperationException("Unknown compression magic code: "
                         + method);
         }
     }
 
-    private byte[] readNoneCompressedData(final int size) throws IOException {
-        final byte[] decompressed = new byte[size];
-
-        if (buf.readBinary(decompressed) != size) {
+    private void readNoneCompressedData(final int size) throws IOException {
+        if (buf.readBinary(decompressed, 0, size) != size) {
             throw new IOException("Cannot decompress use None method.");
         }
-
-        return decompressed;
     }
 
-    private byte[] readLZ4CompressedData(
+    private void decompress(
+            final Decompressor decompressor,
             final int compressedSize,
-            final int decompressedSize
+            final int decompressedSize,
+            final String methodName
     ) throws IOException {
-        final byte[] compressed = new byte[compressedSize];
-        if (buf.readBinary(compressed) == compressedSize) {
-            final byte[] decompressed = new byte[decompressedSize];
-
-            if (lz4Decompressor.decompress(
-                    compressed,
-                    0,
-                    compressedSize,
-                    decompressed,
-                    0,
-                    decompressedSize
-            ) == decompressedSize) {
-                return decompressed;
-            }
+        if (compressed.length < compressedSize) {
+            compressed = new byte[compressedSize];
+        }
+        if (buf.readBinary(compressed, 0, compressedSize) == compressedSize
+                && decompressor.decompress(
+                        compressed,
+                        0,
+                        compressedSize,
+                        decompressed,
+                        0,
+                        decompressedSize
+                ) == decompressedSize) {
+            return;
         }
 
-        throw new IOException("Cannot decompress use LZ4 method.");
+        throw new IOException("Cannot decompress use " + methodName + " method.");
     }
 }
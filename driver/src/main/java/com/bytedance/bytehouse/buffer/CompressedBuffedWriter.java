@@ -17,9 +17,12 @@ package com.bytedance.bytehouse.buffer;
 
 import com.bytedance.bytehouse.misc.BytesHelper;
 import com.bytedance.bytehouse.misc.ByteHouseCityHashUtils;
+import com.bytedance.bytehouse.settings.CompressionMethod;
 import io.airlift.compress.Compressor;
 import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.zstd.ZstdCompressor;
 import java.io.IOException;
+import javax.annotation.Nullable;
 
 import static com.bytedance.bytehouse.settings.BHConstants.CHECKSUM_LENGTH;
 import static com.bytedance.bytehouse.settings.BHConstants.COMPRESSION_HEADER_LENGTH;
@@ -27,28 +30,55 @@ import static com.bytedance.bytehouse.settings.BHConstants.COMPRESSION_HEADER_LE
 /**
  * {@link CompressedBuffedWriter} writes in a compressed format
  */
-public class CompressedBuffedWriter implements BuffedWriter, BytesHelper {
-
-    private final int capacity;
-
-    private final byte[] writtenBuf;
+public class CompressedBuffedWriter extends AbstractBuffedWriter implements BytesHelper {
 
     private final BuffedWriter writer;
 
-    private final Compressor lz4Compressor = new Lz4Compressor();
+    private final CompressionMethod method;
 
-    // no longer in use
-    //private final Compressor zstdCompressor = new ZstdCompressor();
+    // null for CompressionMethod.NONE
+    @Nullable
+    private final Compressor compressor;
 
-    private int position;
+    private final long[] checksum = new long[2];
+
+    // grow-only, holds checksum, header and compressed payload of a frame
+    private byte[] compressedBuffer = new byte[0];
 
     /**
      * Constructor.
      */
     public CompressedBuffedWriter(final int capacity, final BuffedWriter writer) {
-        this.capacity = capacity;
-        this.writtenBuf = new byte[capacity];
+        this(capacity, writer, CompressionMethod.LZ4);
+    }
+
+    /**
+     * Constructor.
+     * <br><br>
+     * {@link CompressionMethod#LZ4HC} frames are produced by the LZ4 fast compressor, aircompressor
+     * has no high compression mode. ZSTD frames use the default level of aircompressor.
+     */
+    public CompressedBuffedWriter(
+            final int capacity,
+            final BuffedWriter writer,
+            final CompressionMethod method
+    ) {
+        super(capacity);
         this.writer = writer;
+        this.method = method;
+        this.compressor = createCompressor(method);
+    }
+
+    @Nullable
+    private static Compressor createCompressor(final CompressionMethod method) {
+        switch (method) {
+            case NONE:
+                return null;
+            case ZSTD:
+                return new ZstdCompressor();
+            default:
+                return new Lz4Compressor();
+        }
     }
 
     /**
@@ -107,55 +137,34 @@ public class CompressedBuffedWriter implements BuffedWriter, BytesHelper {
     @Override
     public void flushToTarget(final boolean force) throws IOException {
         if (position > 0 && (force || !hasRemaining())) {
-            final int maxLen = lz4Compressor.maxCompressedLength(position);
-
-            final byte[] compressedBuffer =
-                    new byte[maxLen + COMPRESSION_HEADER_LENGTH + CHECKSUM_LENGTH];
-            final int res = lz4Compressor.compress(
-                    writtenBuf,
-                    0,
-                    position,
-                    compressedBuffer,
-                    COMPRESSION_HEADER_LENGTH + CHECKSUM_LENGTH,
-                    compressedBuffer.length
-            );
-
-            compressedBuffer[CHECKSUM_LENGTH] = (byte) (0x82 & 0xFF);
+            final int maxLen = (compressor == null ? position : compressor.maxCompressedLength(position))
+                    + COMPRESSION_HEADER_LENGTH + CHECKSUM_LENGTH;
+            if (compressedBuffer.length < maxLen) {
+                compressedBuffer = new byte[maxLen];
+            }
+            final int res;
+            if (compressor == null) {
+                System.arraycopy(writtenBuf, 0, compressedBuffer, COMPRESSION_HEADER_LENGTH + CHECKSUM_LENGTH, position);
+                res = position;
+            } else {
+                res = compressor.compress(
+                        writtenBuf,
+                        0,
+                        position,
+                        compressedBuffer,
+                        COMPRESSION_HEADER_LENGTH + CHECKSUM_LENGTH,
+                        compressedBuffer.length - COMPRESSION_HEADER_LENGTH - CHECKSUM_LENGTH
+                );
+            }
+
             final int compressedSize = res + COMPRESSION_HEADER_LENGTH;
-            System.arraycopy(
-                    getBytesLE(compressedSize),
-                    0,
-                    compressedBuffer,
-                    CHECKSUM_LENGTH + 1,
-                    Integer.BYTES
-            );
-            System.arraycopy(
-                    getBytesLE(position),
-                    0,
-                    compressedBuffer,
-                    CHECKSUM_LENGTH + Integer.BYTES + 1,
-                    Integer.BYTES
-            );
-
-            final long[] checksum = ByteHouseCityHashUtils.cityHash128(
-                    compressedBuffer,
-                    CHECKSUM_LENGTH,
-                    compressedSize
-            );
-            System.arraycopy(
-                    getBytesLE(checksum[0]),
-                    0,
-                    compressedBuffer,
-                    0,
-                    Long.BYTES
-            );
-            System.arraycopy(
-                    getBytesLE(checksum[1]),
-                    0,
-                    compressedBuffer,
-                    Long.BYTES,
-                    Long.BYTES
-            );
+            compressedBuffer[CHECKSUM_LENGTH] = (byte) (method.getMethodByte() & 0xFF);
+            setIntLE(compressedBuffer, CHECKSUM_LENGTH + 1, compressedSize);
+            setIntLE(compressedBuffer, CHECKSUM_LENGTH + Integer.BYTES + 1, position);
+
+            ByteHouseCityHashUtils.cityHash128(compressedBuffer, CHECKSUM_LENGTH, compressedSize, checksum);
+            setLongLE(compressedBuffer, 0, checksum[0]);
+            setLongLE(compressedBuffer, Long.BYTES, checksum[1]);
 
             writer.writeBinary(compressedBuffer, 0, compressedSize + CHECKSUM_LENGTH);
             position = 0;
@@ -165,8 +174,4 @@ public class CompressedBuffedWriter implements BuffedWriter, BytesHelper {
     private boolean hasRemaining() {
         return position < capacity;
     }
-
-    private int remaining() {
-        return capacity - position;
-    }
 }
@@ -0,0 +1,114 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Pool of direct {@link ByteBuffer}s shared by all connections, in power of two size classes.
+ * <br><br>
+ * A lease is rounded up to the next size class, requests above the largest class are
+ * allocated on demand and dropped on release. Each class keeps at most a fixed number of bytes
+ * of free buffers, extra buffers are left to the garbage collector.
+ */
+@ThreadSafe
+public final class DirectBufferPool {
+
+    public static final DirectBufferPool SHARED = new DirectBufferPool(4 * 1024 * 1024, 32 * 1024 * 1024);
+
+    private static final int MIN_CLASS_SHIFT = 12;
+
+    private final int maxClassBytes;
+
+    private final int maxRetainedBytesPerClass;
+
+    private final List<Queue<ByteBuffer>> free;
+
+    private final AtomicInteger[] freeCount;
+
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(final int maxClassBytes, final int maxRetainedBytesPerClass) {
+        this.maxClassBytes = classBytes(sizeClass(maxClassBytes));
+        this.maxRetainedBytesPerClass = maxRetainedBytesPerClass;
+        final int classes = sizeClass(this.maxClassBytes) + 1;
+        this.free = new ArrayList<>(classes);
+        this.freeCount = new AtomicInteger[classes];
+        for (int i = 0; i < classes; i++) {
+            free.add(new ConcurrentLinkedQueue<>());
+            freeCount[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * returns a cleared, big-endian direct buffer of at least {@code minCapacity} bytes.
+     */
+    public ByteBuffer lease(final int minCapacity) {
+        if (minCapacity > maxClassBytes) {
+            return ByteBuffer.allocateDirect(minCapacity);
+        }
+        final int sizeClass = sizeClass(minCapacity);
+        final ByteBuffer buffer = free.get(sizeClass).poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(classBytes(sizeClass));
+        }
+        freeCount[sizeClass].decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * hands a leased buffer back, it must not be used afterwards.
+     */
+    public void release(final ByteBuffer buffer) {
+        final int capacity = buffer.capacity();
+        if (!buffer.isDirect() || capacity > maxClassBytes || Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        final int sizeClass = sizeClass(capacity);
+        if (classBytes(sizeClass) != capacity) {
+            return;
+        }
+        if (freeCount[sizeClass].incrementAndGet() * (long) capacity > maxRetainedBytesPerClass) {
+            freeCount[sizeClass].decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        free.get(sizeClass).offer(buffer);
+    }
+
+    /**
+     * number of free buffers of the size class serving {@code capacity}.
+     */
+    int freeBuffers(final int capacity) {
+        return freeCount[sizeClass(capacity)].get();
+    }
+
+    private static int sizeClass(final int capacity) {
+        final int shift = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+        return Math.max(shift - MIN_CLASS_SHIFT, 0);
+    }
+
+    private static int classBytes(final int sizeClass) {
+        return 1 << (sizeClass + MIN_CLASS_SHIFT);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link BuffedReader} that keeps a copy of everything read through it.
+ * <br><br>
+ * Used to cut a byte range out of a stream while walking it, e.g. the data of one column, so it
+ * can be decoded later or on another thread through a {@link ByteArrayReader}.
+ */
+public class RecordingBuffedReader implements BuffedReader {
+
+    private final BuffedReader delegate;
+
+    private byte[] recorded;
+
+    private int size;
+
+    public RecordingBuffedReader(final BuffedReader delegate, final int initialCapacity) {
+        this.delegate = delegate;
+        this.recorded = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    @Override
+    public int readBinary() throws IOException {
+        final int byt = delegate.readBinary();
+        ensureCapacity(1);
+        recorded[size++] = (byte) byt;
+        return byt;
+    }
+
+    @Override
+    public int readBinary(final byte[] bytes) throws IOException {
+        return readBinary(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int readBinary(final byte[] bytes, final int offset, final int length) throws IOException {
+        record(length);
+        System.arraycopy(recorded, size - length, bytes, offset, length);
+        return length;
+    }
+
+    @Override
+    public void skip(final long n) throws IOException {
+        record(Math.toIntExact(n));
+    }
+
+    /**
+     * @return a reader over the bytes recorded so far.
+     */
+    public ByteArrayReader recorded() {
+        return new ByteArrayReader(recorded, 0, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void record(final int length) throws IOException {
+        ensureCapacity(length);
+        delegate.readBinary(recorded, size, length);
+        size += length;
+    }
+
+    private void ensureCapacity(final int length) {
+        if (recorded.length - size < length) {
+            recorded = Arrays.copyOf(recorded, Math.max(recorded.length * 2, size + length));
+        }
+    }
+}
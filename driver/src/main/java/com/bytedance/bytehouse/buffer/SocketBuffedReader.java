@@ -28,18 +28,12 @@ import java.net.Socket;
  * array and use the array to serve downstream. It will only fetch from inputStream
  * again if the internal buffer runs out.
  */
-public class SocketBuffedReader implements BuffedReader {
+public class SocketBuffedReader extends AbstractBuffedReader {
 
     private final int capacity;
 
-    private final byte[] buf;
-
     private final InputStream in;
 
-    private int limit;
-
-    private int position;
-
     /**
      * constructor.
      */
@@ -47,7 +41,10 @@ public class SocketBuffedReader implements BuffedReader {
         this(socket.getInputStream(), BHConstants.SOCKET_RECV_BUFFER_BYTES);
     }
 
-    SocketBuffedReader(
+    /**
+     * reads from any stream, e.g. a file, in chunks of {@code capacity} bytes.
+     */
+    public SocketBuffedReader(
             final InputStream in,
             final int capacity
     ) {
@@ -56,7 +53,7 @@ public class SocketBuffedReader implements BuffedReader {
         this.capacity = capacity;
 
         this.in = in;
-        this.buf = new byte[capacity];
+        this.chunk = new byte[capacity];
     }
 
     /**
@@ -64,45 +61,19 @@ public class SocketBuffedReader implements BuffedReader {
      */
     @Override
     public int readBinary() throws IOException {
-        if (!remaining() && !refill()) {
-            throw new EOFException("Attempt to read after eof.");
+        if (position == limit) {
+            refill();
         }
 
-        return buf[position++] & 0xFF;
+        return chunk[position++] & 0xFF;
     }
 
-    /**
-     * {@inheritDoc}
-     */
     @Override
-    public int readBinary(final byte[] bytes) throws IOException {
-        for (int i = 0; i < bytes.length; ) {
-            if (!remaining() && !refill()) {
-                throw new EOFException("Attempt to read after eof.");
-            }
-
-            final int pending = bytes.length - i;
-            final int fillLength = Math.min(pending, limit - position);
-
-            if (fillLength > 0) {
-                System.arraycopy(buf, position, bytes, i, fillLength);
-
-                i += fillLength;
-                this.position += fillLength;
-            }
-        }
-        return bytes.length;
-    }
-
-    private boolean remaining() {
-        return position < limit;
-    }
-
-    private boolean refill() throws IOException {
-        if (!remaining() && (limit = in.read(buf, 0, capacity)) <= 0) {
+    protected void refill() throws IOException {
+        if ((limit = in.read(chunk, 0, capacity)) <= 0) {
+            limit = 0;
             throw new EOFException("Attempt to read after eof.");
         }
         position = 0;
-        return true;
     }
 }
@@ -23,12 +23,9 @@ import java.net.Socket;
 /**
  * {@link SocketBuffedWriter} directly writes into the outputStream of the socket.
  */
-public class SocketBuffedWriter implements BuffedWriter {
+public class SocketBuffedWriter extends AbstractBuffedWriter {
 
     private final OutputStream out;
-    private final int capacity;
-    private final byte[] writtenBuf;
-    private int position;
 
     /**
      * constructor.
@@ -38,10 +35,16 @@ public class SocketBuffedWriter implements BuffedWriter {
     }
 
     public SocketBuffedWriter(final int capacity, final Socket socket) throws IOException {
-        this.capacity = capacity;
+        super(capacity);
         this.out = socket.getOutputStream();
-        this.writtenBuf = new byte[capacity];
-        this.position = 0;
+    }
+
+    /**
+     * writer over any {@link OutputStream}, e.g. the file a result is exported to.
+     */
+    public SocketBuffedWriter(final int capacity, final OutputStream out) {
+        super(capacity);
+        this.out = out;
     }
 
     /**
@@ -104,8 +107,4 @@ public class SocketBuffedWriter implements BuffedWriter {
         out.flush();
         this.position = 0;
     }
-
-    private int remaining() {
-        return capacity - position;
-    }
 }
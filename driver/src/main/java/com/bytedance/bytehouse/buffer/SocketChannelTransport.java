@@ -0,0 +1,118 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking reads and writes over a non-blocking {@link SocketChannel}.
+ * <br><br>
+ * The channel is switched to non-blocking mode so that waiting for it can honour the
+ * SO_TIMEOUT of its socket, which plain channel reads ignore. Closing the transport closes
+ * the channel.
+ */
+public class SocketChannelTransport implements Closeable {
+
+    private final SocketChannel channel;
+
+    private final Selector readSelector;
+
+    private final Selector writeSelector;
+
+    public SocketChannelTransport(final SocketChannel channel) throws IOException {
+        this.channel = channel;
+        channel.configureBlocking(false);
+        this.readSelector = Selector.open();
+        this.writeSelector = Selector.open();
+        channel.register(readSelector, SelectionKey.OP_READ);
+        channel.register(writeSelector, SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * reads at least one byte into {@code dst}, which must have room left.
+     *
+     * @return number of bytes read.
+     * @throws EOFException           if the server closed the connection.
+     * @throws SocketTimeoutException if nothing arrived within SO_TIMEOUT.
+     */
+    public int read(final ByteBuffer dst) throws IOException {
+        final long deadline = deadline();
+        while (true) {
+            final int n = channel.read(dst);
+            if (n > 0) {
+                return n;
+            }
+            if (n < 0) {
+                throw new EOFException("Attempt to read after eof.");
+            }
+            await(readSelector, deadline, "Read timed out");
+        }
+    }
+
+    /**
+     * writes all remaining bytes of {@code src}.
+     *
+     * @throws SocketTimeoutException if the socket accepted nothing within SO_TIMEOUT.
+     */
+    public void writeFully(final ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            if (channel.write(src) == 0) {
+                await(writeSelector, deadline(), "Write timed out");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            readSelector.close();
+            writeSelector.close();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // 0 means no timeout
+    private long deadline() throws IOException {
+        final int timeoutMillis = channel.socket().getSoTimeout();
+        return timeoutMillis == 0 ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    private static void await(
+            final Selector selector,
+            final long deadline,
+            final String timeoutMessage
+    ) throws IOException {
+        if (deadline == 0) {
+            selector.select();
+        } else {
+            final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new SocketTimeoutException(timeoutMessage);
+            }
+            selector.select(remainingMillis);
+        }
+        selector.selectedKeys().clear();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.client;
+
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.BlockSettings;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.data.IDataType;
+import com.bytedance.bytehouse.misc.LRUCache;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Per-session cache of the header (sample) block returned by the server for an insert query,
+ * held by the {@link NativeContext} of the session.
+ * <br><br>
+ * The server still sends the header for every insert, but on a cache hit the driver does not
+ * wait for it before handing out a {@link Block} to fill: the header is read and checked against
+ * the cached structure right before the first data block is sent. Building the {@link Block}
+ * from a cached entry only allocates fresh columns, the data types are not parsed again.
+ */
+@ThreadSafe
+public class InsertSampleBlockCache {
+
+    private static final int MAX_ENTRIES = 128;
+
+    private final LRUCache<String, Entry> cache = new LRUCache<>(MAX_ENTRIES);
+
+    /**
+     * key of an insert query: the database plus the query with its whitespace normalized.
+     */
+    public static String key(final String database, final String insertQuery) {
+        return database + '\0' + insertQuery.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * returns a new empty {@link Block} with the cached structure, or null if there is no live entry.
+     */
+    @Nullable
+    public Block newBlock(final String key) {
+        final Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos > 0) {
+            cache.remove(key);
+            return null;
+        }
+        return entry.newBlock();
+    }
+
+    public void put(final String key, final Block sampleBlock, final Duration ttl) throws SQLException {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        cache.put(key, new Entry(sampleBlock, System.nanoTime() + ttl.toNanos()));
+    }
+
+    /**
+     * true if {@code header} has the same columns as the cached entry.
+     */
+    public boolean matches(final String key, final Block header) throws SQLException {
+        final Entry entry = cache.get(key);
+        return entry != null && entry.matches(header);
+    }
+
+    public void invalidate(final String key) {
+        cache.remove(key);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static final class Entry {
+
+        private final String[] names;
+
+        private final IDataType<?, ?>[] types;
+
+        private final BlockSettings settings;
+
+        private final long expiresAtNanos;
+
+        private Entry(final Block sampleBlock, final long expiresAtNanos) throws SQLException {
+            this.names = new String[sampleBlock.columnCnt()];
+            this.types = new IDataType<?, ?>[sampleBlock.columnCnt()];
+            for (int i = 0; i < names.length; i++) {
+                final IColumn column = sampleBlock.getColumn(i);
+                names[i] = column.name();
+                types[i] = column.type();
+            }
+            this.settings = sampleBlock.settings();
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private Block newBlock() {
+            final IColumn[] columns = new IColumn[names.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = ColumnFactoryUtils.createEmptyColumn(names[i], types[i]);
+            }
+            return new Block(0, columns, settings);
+        }
+
+        private boolean matches(final Block header) throws SQLException {
+            if (header.columnCnt() != names.length) {
+                return false;
+            }
+            for (int i = 0; i < names.length; i++) {
+                final IColumn column = header.getColumn(i);
+                if (!names[i].equals(column.name()) || !types[i].name().equals(column.type().name())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -15,14 +15,21 @@
  */
 package com.bytedance.bytehouse.client;
 
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.buffer.ChannelBuffedReader;
+import com.bytedance.bytehouse.buffer.ChannelBuffedWriter;
+import com.bytedance.bytehouse.buffer.DirectBufferPool;
 import com.bytedance.bytehouse.buffer.SocketBuffedReader;
 import com.bytedance.bytehouse.buffer.SocketBuffedWriter;
+import com.bytedance.bytehouse.buffer.SocketChannelTransport;
 import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.BlockSettings;
 import com.bytedance.bytehouse.log.Logger;
 import com.bytedance.bytehouse.log.LoggerFactoryUtils;
 import com.bytedance.bytehouse.misc.AKSKTokenGeneratorWithJWT;
 import com.bytedance.bytehouse.misc.ValidateUtils;
 import com.bytedance.bytehouse.protocol.AKSKHelloRequest;
+import com.bytedance.bytehouse.protocol.CancelRequest;
 import com.bytedance.bytehouse.protocol.DataRequest;
 import com.bytedance.bytehouse.protocol.DataResponse;
 import com.bytedance.bytehouse.protocol.EOFStreamResponse;
@@ -31,20 +38,24 @@ import com.bytedance.bytehouse.protocol.HelloResponse;
 import com.bytedance.bytehouse.protocol.PingRequest;
 import com.bytedance.bytehouse.protocol.PongResponse;
 import com.bytedance.bytehouse.protocol.QueryRequest;
+import com.bytedance.bytehouse.protocol.RawDataRequest;
 import com.bytedance.bytehouse.protocol.Request;
 import com.bytedance.bytehouse.protocol.Response;
 import com.bytedance.bytehouse.serde.BinaryDeserializer;
 import com.bytedance.bytehouse.serde.BinarySerializer;
 import com.bytedance.bytehouse.settings.BHConstants;
 import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import com.bytedance.bytehouse.settings.CompressionMethod;
 import com.bytedance.bytehouse.settings.SettingKey;
 import com.bytedance.bytehouse.stream.ByteHouseQueryResult;
 import com.bytedance.bytehouse.stream.QueryResult;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.channels.SocketChannel;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -52,6 +63,8 @@ import java.security.cert.X509Certificate;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLSocket;
@@ -77,15 +90,42 @@ public class NativeClient implements AutoCloseable {
 
     private final BinaryDeserializer deserializer;
 
+    // closes the channel and its selectors when the nio transport is used
+    @Nullable
+    private final Closeable transport;
+
+    private final long connectedNanos;
+
+    // System.nanoTime() of the last request or response that went through without an I/O error
+    private volatile long lastIoNanos;
+
+    // set once an I/O error left the stream in an unknown state
+    private volatile boolean broken;
+
+    // a cancel may be sent from another thread while the owner reads responses
+    private final ReentrantLock sendLock = new ReentrantLock();
+
     public NativeClient(
             final Socket socket,
             final BinarySerializer serializer,
             final BinaryDeserializer deserializer
+    ) {
+        this(socket, serializer, deserializer, null);
+    }
+
+    public NativeClient(
+            final Socket socket,
+            final BinarySerializer serializer,
+            final BinaryDeserializer deserializer,
+            @Nullable final Closeable transport
     ) {
         this.socket = socket;
+        this.transport = transport;
         this.address = socket.getLocalSocketAddress();
         this.serializer = serializer;
         this.deserializer = deserializer;
+        this.connectedNanos = System.nanoTime();
+        this.lastIoNanos = connectedNanos;
     }
 
     public static NativeClient connect(final ByteHouseConfig configure) throws SQLException {
@@ -94,7 +134,9 @@ public class NativeClient implements AutoCloseable {
                     configure.host(), configure.port()
             );
 
-            final Socket socket = obtainSocket(configure);
+            // the nio transport has no TLS support, secure connections always use socket streams
+            final boolean nio = configure.nioTransport() && !configure.secure();
+            final Socket socket = nio ? SocketChannel.open().socket() : obtainSocket(configure);
             socket.setTcpNoDelay(configure.tcpNoDelay());
             socket.setSendBufferSize(BHConstants.SOCKET_SEND_BUFFER_BYTES);
             socket.setReceiveBufferSize(BHConstants.SOCKET_RECV_BUFFER_BYTES);
@@ -105,10 +147,25 @@ public class NativeClient implements AutoCloseable {
             // exchanged during the connection should be compressed. enableCompression can be changed via method
             // setEnableCompression()
             final boolean enableCompression = configure.enableCompression();
+            final CompressionMethod compressionMethod = CompressionMethod.fromString(configure.compressionMethod());
+
+            if (nio) {
+                final SocketChannelTransport transport = new SocketChannelTransport(socket.getChannel());
+                return new NativeClient(
+                        socket,
+                        new BinarySerializer(new ChannelBuffedWriter(
+                                transport, DirectBufferPool.SHARED, BHConstants.SOCKET_SEND_BUFFER_BYTES
+                        ), enableCompression, compressionMethod),
+                        new BinaryDeserializer(new ChannelBuffedReader(
+                                transport, DirectBufferPool.SHARED, BHConstants.SOCKET_RECV_BUFFER_BYTES
+                        ), enableCompression),
+                        transport
+                );
+            }
 
             return new NativeClient(
                     socket,
-                    new BinarySerializer(new SocketBuffedWriter(socket), enableCompression),
+                    new BinarySerializer(new SocketBuffedWriter(socket), enableCompression, compressionMethod),
                     new BinaryDeserializer(new SocketBuffedReader(socket), enableCompression)
             );
         } catch (Exception ex) {
@@ -185,6 +242,27 @@ public class NativeClient implements AutoCloseable {
         return address;
     }
 
+    /**
+     * time since this client was created.
+     */
+    public Duration age() {
+        return Duration.ofNanos(System.nanoTime() - connectedNanos);
+    }
+
+    /**
+     * time since the last request or response that went through without an I/O error.
+     */
+    public Duration idleTime() {
+        return Duration.ofNanos(System.nanoTime() - lastIoNanos);
+    }
+
+    /**
+     * true if an I/O error happened on this connection, it can't be used any more.
+     */
+    public boolean isBroken() {
+        return broken || socket.isClosed();
+    }
+
     public boolean ping(
             final Duration soTimeout,
             final ServerContext info
@@ -267,10 +345,25 @@ public class NativeClient implements AutoCloseable {
         );
     }
 
+    /**
+     * asks the server to stop the running query, safe to call while another thread receives
+     * its responses.
+     */
+    public void sendCancel() throws SQLException {
+        sendRequest(CancelRequest.INSTANCE);
+    }
+
     public void sendData(final Block data) throws SQLException {
         sendRequest(new DataRequest("", data));
     }
 
+    /**
+     * sends a block serialized in Native format as is.
+     */
+    public void sendRawData(final BlockSettings settings, final ByteArrayReader data) throws SQLException {
+        sendRequest(new RawDataRequest("", settings, data));
+    }
+
     public HelloResponse receiveHello(
             final Duration soTimeout,
             final ServerContext info
@@ -296,7 +389,17 @@ public class NativeClient implements AutoCloseable {
             final Duration soTimeout,
             final ServerContext info
     ) {
-        return new ByteHouseQueryResult(() -> receiveResponse(soTimeout, info));
+        return new ByteHouseQueryResult(new ByteHouseQueryResult.ResponseSource() {
+            @Override
+            public Response receive(final Response.DataMode mode) throws SQLException {
+                return receiveResponse(soTimeout, info, mode);
+            }
+
+            @Override
+            public void cancel() throws SQLException {
+                sendCancel();
+            }
+        });
     }
 
     public void silentDisconnect() {
@@ -315,6 +418,9 @@ public class NativeClient implements AutoCloseable {
             }
             LOG.trace("flush and close socket");
             serializer.flushToTarget(true);
+            if (transport != null) {
+                transport.close();
+            }
             socket.close();
         } catch (IOException ex) {
             throw new SQLException(ex);
@@ -333,25 +439,40 @@ public class NativeClient implements AutoCloseable {
     }
 
     private void sendRequest(final Request request) throws SQLException {
+        sendLock.lock();
         try {
             LOG.trace("send request: {}", request.type());
             request.writeTo(serializer);
             serializer.flushToTarget(true);
+            lastIoNanos = System.nanoTime();
         } catch (IOException ex) {
+            broken = true;
             throw new SQLException(ex);
+        } finally {
+            sendLock.unlock();
         }
     }
 
     private Response receiveResponse(
             final Duration soTimeout,
             final ServerContext info
+    ) throws SQLException {
+        return receiveResponse(soTimeout, info, Response.DataMode.DECODE);
+    }
+
+    private Response receiveResponse(
+            final Duration soTimeout,
+            final ServerContext info,
+            final Response.DataMode mode
     ) throws SQLException {
         try {
             socket.setSoTimeout(((int) soTimeout.toMillis()));
-            final Response response = Response.readFrom(deserializer, info);
+            final Response response = Response.readFrom(deserializer, info, mode);
             LOG.trace("recv response: {}", response.type());
+            lastIoNanos = System.nanoTime();
             return response;
         } catch (IOException ex) {
+            broken = true;
             throw new SQLException(ex);
         }
     }
@@ -15,13 +15,16 @@
  */
 package com.bytedance.bytehouse.client;
 
-import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * A Context binding the client's identity({@link ClientContext}) and the server's identity
  * ({@link ServerContext}) with a bridge ({@link NativeClient}).
+ * <br><br>
+ * It also holds the {@link InsertSampleBlockCache} of the session, so the cache lives as long
+ * as the server connection, including across borrows from a connection pool.
  */
-@Immutable
+@ThreadSafe
 public class NativeContext {
 
     private final ClientContext clientCtx;
@@ -30,6 +33,8 @@ public class NativeContext {
 
     private final NativeClient nativeClient;
 
+    private final InsertSampleBlockCache sampleBlockCache = new InsertSampleBlockCache();
+
     public NativeContext(
             final ClientContext clientCtx,
             final ServerContext serverCtx,
@@ -51,4 +56,8 @@ public class NativeContext {
     public NativeClient nativeClient() {
         return nativeClient;
     }
+
+    public InsertSampleBlockCache sampleBlockCache() {
+        return sampleBlockCache;
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.bytedance.bytehouse.client;
 
+import com.bytedance.bytehouse.data.IDataType;
 import com.bytedance.bytehouse.misc.AKSKTokenGeneratorWithJWT;
 import com.bytedance.bytehouse.protocol.HelloResponse;
 import com.bytedance.bytehouse.settings.BHConstants;
@@ -24,12 +25,13 @@ import java.text.SimpleDateFormat;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.Locale;
-import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * A Context object describing who the server is
  */
-@Immutable
+@ThreadSafe
 public class ServerContext {
 
     private final long majorVersion;
@@ -46,6 +48,9 @@ public class ServerContext {
 
     private final ByteHouseConfig configure;
 
+    // column types seen on this connection, see memoizedType
+    private final ConcurrentHashMap<String, IDataType<?, ?>> typeMemo = new ConcurrentHashMap<>();
+
     private static final String DATE_FORMAT = "yyyyMMdd";
 
     public static final String SERVICE = "bytehouse";
@@ -159,4 +164,25 @@ public class ServerContext {
     public ByteHouseConfig getConfigure() {
         return configure;
     }
+
+    /**
+     * @return the {@link IDataType} parsed earlier on this connection for the type string, or null.
+     * <br><br>
+     * The same column types come back in every block header of a connection, this memo answers
+     * them without going to the cache shared by all connections in
+     * {@link com.bytedance.bytehouse.data.DataTypeFactory}.
+     */
+    public IDataType<?, ?> memoizedType(final String type) {
+        return typeMemo.get(type);
+    }
+
+    /**
+     * remembers the {@link IDataType} of a type string, up to
+     * {@link BHConstants#CONNECTION_TYPE_MEMO_SIZE} types per connection.
+     */
+    public void memoizeType(final String type, final IDataType<?, ?> dataType) {
+        if (typeMemo.size() < BHConstants.CONNECTION_TYPE_MEMO_SIZE) {
+            typeMemo.putIfAbsent(type, dataType);
+        }
+    }
 }
@@ -15,15 +15,21 @@
  */
 package com.bytedance.bytehouse.data;
 
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
 import com.bytedance.bytehouse.client.ServerContext;
 import com.bytedance.bytehouse.data.BlockSettings.Setting;
 import com.bytedance.bytehouse.misc.ValidateUtils;
 import com.bytedance.bytehouse.serde.BinaryDeserializer;
 import com.bytedance.bytehouse.serde.BinarySerializer;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * A {@link Block} is like a mini table with all the columns and a subset of the rows.
@@ -69,6 +75,13 @@ public class Block {
      * <br><br>
      * this method is used to deserialize a {@link com.bytedance.bytehouse.protocol.Response}
      * from the server into JVM representation.
+     * <br><br>
+     * blocks of at least {@link ByteHouseConfig#parallelDecodeThreshold()} cells are cut into
+     * per-column byte ranges on the calling thread, the columns are then decoded on
+     * {@link DecodePool#POOL}. With {@link ByteHouseConfig#lazyColumnDecode()} the byte ranges are
+     * kept in {@link ColumnLazy}s instead and decoded when first read. Fixed-width numeric columns
+     * are copied in bulk either way and are always decoded on the calling thread. Blocks without
+     * rows, e.g. insert headers that are written to, are always decoded.
      */
     public static Block readFrom(
             final BinaryDeserializer deserializer,
@@ -79,20 +92,96 @@ public class Block {
         final int columnCnt = (int) deserializer.readVarInt();
         final int rowCnt = (int) deserializer.readVarInt();
 
+        final ByteHouseConfig cfg = serverContext.getConfigure();
+        final boolean lazy = cfg.lazyColumnDecode() && rowCnt > 0;
+        final long threshold = cfg.parallelDecodeThreshold();
+        final boolean parallel = !lazy && threshold > 0 && columnCnt > 1
+                && (long) rowCnt * columnCnt >= threshold;
+
         final IColumn[] columns = new IColumn[columnCnt];
+        final ForkJoinTask<?>[] decodes = parallel ? new ForkJoinTask<?>[columnCnt] : null;
 
         for (int i = 0; i < columnCnt; i++) {
             final String name = deserializer.readUTF8StringBinary();
             final String type = deserializer.readUTF8StringBinary();
 
             final IDataType dataType = DataTypeFactory.get(type, serverContext);
-            final Object[] arr = dataType.deserializeBinaryBulk(rowCnt, deserializer);
-            columns[i] = ColumnFactoryUtils.createColumn(name, dataType, arr);
+            if ((lazy || parallel) && !ColumnFactoryUtils.isPrimitive(dataType)) {
+                deserializer.startRecording(rowCnt * 8);
+                dataType.skipBinaryBulk(rowCnt, deserializer);
+                final ByteArrayReader bytes = deserializer.stopRecording();
+                if (lazy) {
+                    columns[i] = new ColumnLazy(name, dataType, rowCnt, bytes);
+                    continue;
+                }
+
+                final BinaryDeserializer slice = new BinaryDeserializer(bytes);
+                final int idx = i;
+                decodes[i] = DecodePool.POOL.submit(() -> {
+                    columns[idx] = ColumnFactoryUtils.createColumn(name, dataType, rowCnt, slice);
+                    return null;
+                });
+            } else {
+                columns[i] = ColumnFactoryUtils.createColumn(name, dataType, rowCnt, deserializer);
+            }
         }
 
+        if (parallel) {
+            awaitDecodes(decodes);
+        }
         return new Block(rowCnt, columns, blockSettings);
     }
 
+    /**
+     * reads past a {@link Block} without materializing its columns, only lengths are decoded.
+     *
+     * @see IDataType#skipBinaryBulk
+     */
+    public static void skipFrom(
+            final BinaryDeserializer deserializer,
+            final ServerContext serverContext
+    ) throws IOException, SQLException {
+        BlockSettings.readFrom(deserializer);
+
+        final int columnCnt = (int) deserializer.readVarInt();
+        final int rowCnt = (int) deserializer.readVarInt();
+
+        for (int i = 0; i < columnCnt; i++) {
+            deserializer.readUTF8StringBinary();
+            final String type = deserializer.readUTF8StringBinary();
+
+            DataTypeFactory.get(type, serverContext).skipBinaryBulk(rowCnt, deserializer);
+        }
+    }
+
+    private static void awaitDecodes(final ForkJoinTask<?>[] decodes) throws IOException, SQLException {
+        Throwable failure = null;
+        for (final ForkJoinTask<?> decode : decodes) {
+            if (decode == null) {
+                continue;
+            }
+            try {
+                decode.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while decoding block", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof SQLException) {
+            throw (SQLException) failure;
+        }
+        if (failure != null) {
+            throw new SQLException("Failed to decode block", failure);
+        }
+    }
+
     /**
      * Factory method to create an empty {@link Block}.
      */
@@ -112,6 +201,10 @@ public class Block {
         return columns.length;
     }
 
+    public BlockSettings settings() {
+        return settings;
+    }
+
     public void appendRow() throws SQLException {
         int i = 0;
         try {
@@ -128,11 +221,35 @@ public class Block {
         }
     }
 
+    /**
+     * account for {@code rows} rows that were written column by column instead of
+     * through {@link #appendRow()}.
+     */
+    public void appendRows(final int rows) {
+        rowCnt += rows;
+    }
+
     public void reuseBlock() {
         this.rowCnt = 0;
         this.reuseWriteBuffer();
     }
 
+    /**
+     * @return a block with the same columns, settings and constants of the VALUES clause but no
+     * rows, ready to be written.
+     */
+    public Block emptyCopy() {
+        final IColumn[] copies = new IColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            copies[i] = ColumnFactoryUtils.createEmptyColumn(columns[i].name(), columns[i].type());
+        }
+        final Block copy = new Block(0, copies, settings);
+        System.arraycopy(rowData, 0, copy.rowData, 0, rowData.length);
+        System.arraycopy(placeholderIndexes, 0, copy.placeholderIndexes, 0, placeholderIndexes.length);
+        copy.initWriteBuffer();
+        return copy;
+    }
+
     public void setObject(
             final int columnIdx,
             final Object object
@@ -208,4 +325,22 @@ public class Block {
             column.reuseColumnWriterBuffer();
         }
     }
+
+    /**
+     * pool shared by all connections for decoding columns of large blocks.
+     */
+    private static final class DecodePool {
+
+        static final ForkJoinPool POOL = new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    final ForkJoinWorkerThread thread =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("bytehouse-decode-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null,
+                false
+        );
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import com.bytedance.bytehouse.data.type.DataTypeUInt8;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link ColumnPrimitive} backed by a byte array, used for Int8 and UInt8.
+ */
+public class ColumnByte extends ColumnPrimitive {
+
+    private final boolean unsigned;
+
+    private byte[] data;
+
+    public ColumnByte(final String name, final IDataType<?, ?> type, final byte[] data) {
+        super(name, type, data.length);
+        this.unsigned = type instanceof DataTypeUInt8;
+        this.data = data;
+    }
+
+    @Override
+    public Object value(final int idx) {
+        return unsigned ? (Object) (short) (data[idx] & 0xFF) : (Object) data[idx];
+    }
+
+    @Override
+    public long longValue(final int idx) {
+        return unsigned ? data[idx] & 0xFF : data[idx];
+    }
+
+    @Override
+    public double doubleValue(final int idx) {
+        return longValue(idx);
+    }
+
+    @Override
+    public void clear() {
+        data = new byte[0];
+        rows = 0;
+    }
+
+    @Override
+    protected void reserve(final int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, grow(data.length, capacity));
+        }
+    }
+
+    @Override
+    protected void setLong(final int idx, final long value) {
+        data[idx] = (byte) value;
+    }
+
+    @Override
+    protected void setDouble(final int idx, final double value) {
+        data[idx] = (byte) value;
+    }
+
+    @Override
+    protected void append(final Object object) {
+        if (rows == data.length) {
+            data = Arrays.copyOf(data, grow(rows));
+        }
+        data[rows] = ((Number) object).byteValue();
+    }
+
+    @Override
+    protected void writeValues(final BinarySerializer serializer) throws IOException {
+        serializer.writeBytes(data, 0, rows);
+    }
+}
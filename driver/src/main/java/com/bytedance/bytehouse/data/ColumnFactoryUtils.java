@@ -15,11 +15,25 @@
  */
 package com.bytedance.bytehouse.data;
 
+import com.bytedance.bytehouse.data.type.DataTypeFloat32;
+import com.bytedance.bytehouse.data.type.DataTypeFloat64;
+import com.bytedance.bytehouse.data.type.DataTypeInt16;
+import com.bytedance.bytehouse.data.type.DataTypeInt32;
+import com.bytedance.bytehouse.data.type.DataTypeInt64;
+import com.bytedance.bytehouse.data.type.DataTypeInt8;
+import com.bytedance.bytehouse.data.type.DataTypeUInt16;
+import com.bytedance.bytehouse.data.type.DataTypeUInt32;
+import com.bytedance.bytehouse.data.type.DataTypeUInt64;
+import com.bytedance.bytehouse.data.type.DataTypeUInt8;
 import com.bytedance.bytehouse.data.type.complex.DataTypeArray;
 import com.bytedance.bytehouse.data.type.complex.DataTypeLowCardinality;
 import com.bytedance.bytehouse.data.type.complex.DataTypeMap;
 import com.bytedance.bytehouse.data.type.complex.DataTypeNullable;
 import com.bytedance.bytehouse.data.type.complex.DataTypeTuple;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import java.io.IOException;
+import java.sql.SQLException;
+import javax.annotation.Nullable;
 
 public class ColumnFactoryUtils {
 
@@ -41,4 +55,104 @@ public class ColumnFactoryUtils {
 
         return new Column(name, type, values);
     }
+
+    /**
+     * true if the type is a fixed-width numeric type, i.e. one held in a {@link ColumnPrimitive}.
+     */
+    public static boolean isPrimitive(final IDataType<?, ?> type) {
+        return type instanceof DataTypeInt8 || type instanceof DataTypeUInt8
+                || type instanceof DataTypeInt16 || type instanceof DataTypeUInt16
+                || type instanceof DataTypeInt32 || type instanceof DataTypeUInt32
+                || type instanceof DataTypeInt64 || type instanceof DataTypeUInt64
+                || type instanceof DataTypeFloat32 || type instanceof DataTypeFloat64;
+    }
+
+    /**
+     * Creates an empty {@link ColumnPrimitive} to be written to, or returns null if the type
+     * is not a fixed-width numeric type.
+     */
+    @Nullable
+    public static ColumnPrimitive createPrimitiveColumn(final String name, final IDataType<?, ?> type) {
+        if (type instanceof DataTypeInt8 || type instanceof DataTypeUInt8) {
+            return new ColumnByte(name, type, new byte[0]);
+        }
+        if (type instanceof DataTypeInt16 || type instanceof DataTypeUInt16) {
+            return new ColumnShort(name, type, new short[0]);
+        }
+        if (type instanceof DataTypeInt32 || type instanceof DataTypeUInt32) {
+            return new ColumnInt(name, type, new int[0]);
+        }
+        if (type instanceof DataTypeInt64 || type instanceof DataTypeUInt64) {
+            return new ColumnLong(name, type, new long[0]);
+        }
+        if (type instanceof DataTypeFloat32) {
+            return new ColumnFloat(name, type, new float[0]);
+        }
+        if (type instanceof DataTypeFloat64) {
+            return new ColumnDouble(name, type, new double[0]);
+        }
+        return null;
+    }
+
+    /**
+     * Creates an empty column to be written to.
+     */
+    public static IColumn createEmptyColumn(final String name, final IDataType<?, ?> type) {
+        final ColumnPrimitive column = createPrimitiveColumn(name, type);
+        return column != null ? column : createColumn(name, type, type.allocate(0));
+    }
+
+    /**
+     * Reads {@code rows} values of the given type from the deserializer and wraps them in a column.
+     * <br><br>
+     * Fixed-width numeric types are decoded into a {@link ColumnPrimitive}, LowCardinality into a
+     * {@link ColumnLowCardinality} keeping its dictionary, all other types go through
+     * {@link IDataType#deserializeBinaryBulk}.
+     */
+    public static IColumn createColumn(
+            final String name,
+            final IDataType<?, ?> type,
+            final int rows,
+            final BinaryDeserializer deserializer
+    ) throws IOException, SQLException {
+        if (type instanceof DataTypeInt8 || type instanceof DataTypeUInt8) {
+            return new ColumnByte(name, type, deserializer.readBytes(rows));
+        }
+
+        if (type instanceof DataTypeInt16 || type instanceof DataTypeUInt16) {
+            final short[] data = new short[rows];
+            deserializer.readShortsLE(data, rows);
+            return new ColumnShort(name, type, data);
+        }
+
+        if (type instanceof DataTypeInt32 || type instanceof DataTypeUInt32) {
+            final int[] data = new int[rows];
+            deserializer.readIntsLE(data, rows);
+            return new ColumnInt(name, type, data);
+        }
+
+        if (type instanceof DataTypeInt64 || type instanceof DataTypeUInt64) {
+            final long[] data = new long[rows];
+            deserializer.readLongsLE(data, rows);
+            return new ColumnLong(name, type, data);
+        }
+
+        if (type instanceof DataTypeFloat32) {
+            final float[] data = new float[rows];
+            deserializer.readFloatsLE(data, rows);
+            return new ColumnFloat(name, type, data);
+        }
+
+        if (type instanceof DataTypeFloat64) {
+            final double[] data = new double[rows];
+            deserializer.readDoublesLE(data, rows);
+            return new ColumnDouble(name, type, data);
+        }
+
+        if (type instanceof DataTypeLowCardinality) {
+            return ((DataTypeLowCardinality) type).deserializeColumn(name, rows, deserializer);
+        }
+
+        return createColumn(name, type, type.deserializeBinaryBulk(rows, deserializer));
+    }
 }
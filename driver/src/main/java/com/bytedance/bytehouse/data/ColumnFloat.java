@@ -0,0 +1,89 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link ColumnPrimitive} backed by a float array, used for Float32.
+ */
+public class ColumnFloat extends ColumnPrimitive {
+
+    private float[] data;
+
+    public ColumnFloat(final String name, final IDataType<?, ?> type, final float[] data) {
+        super(name, type, data.length);
+        this.data = data;
+    }
+
+    @Override
+    public Object value(final int idx) {
+        return data[idx];
+    }
+
+    @Override
+    public int intValue(final int idx) {
+        return (int) data[idx];
+    }
+
+    @Override
+    public long longValue(final int idx) {
+        return (long) data[idx];
+    }
+
+    @Override
+    public double doubleValue(final int idx) {
+        return data[idx];
+    }
+
+    @Override
+    public void clear() {
+        data = new float[0];
+        rows = 0;
+    }
+
+    @Override
+    protected void reserve(final int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, grow(data.length, capacity));
+        }
+    }
+
+    @Override
+    protected void setLong(final int idx, final long value) {
+        data[idx] = value;
+    }
+
+    @Override
+    protected void setDouble(final int idx, final double value) {
+        data[idx] = (float) value;
+    }
+
+    @Override
+    protected void append(final Object object) {
+        if (rows == data.length) {
+            data = Arrays.copyOf(data, grow(rows));
+        }
+        data[rows] = ((Number) object).floatValue();
+    }
+
+    @Override
+    protected void writeValues(final BinarySerializer serializer) throws IOException {
+        serializer.writeFloatsLE(data, 0, rows);
+    }
+}
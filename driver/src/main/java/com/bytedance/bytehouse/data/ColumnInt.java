@@ -0,0 +1,101 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import com.bytedance.bytehouse.data.type.DataTypeUInt32;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link ColumnPrimitive} backed by an int array, used for Int32 and UInt32.
+ * UInt32 keeps the raw 32 bits and is widened to its unsigned value by the getters.
+ */
+public class ColumnInt extends ColumnPrimitive {
+
+    private final boolean unsigned;
+
+    private int[] data;
+
+    public ColumnInt(final String name, final IDataType<?, ?> type, final int[] data) {
+        super(name, type, data.length);
+        this.unsigned = type instanceof DataTypeUInt32;
+        this.data = data;
+    }
+
+    @Override
+    public Object value(final int idx) {
+        return unsigned ? (Object) (data[idx] & 0xFFFFFFFFL) : (Object) data[idx];
+    }
+
+    @Override
+    public int intValue(final int idx) {
+        return data[idx];
+    }
+
+    @Override
+    public long longValue(final int idx) {
+        return unsigned ? data[idx] & 0xFFFFFFFFL : data[idx];
+    }
+
+    @Override
+    public double doubleValue(final int idx) {
+        return longValue(idx);
+    }
+
+    @Override
+    public void clear() {
+        data = new int[0];
+        rows = 0;
+    }
+
+    @Override
+    protected void reserve(final int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, grow(data.length, capacity));
+        }
+    }
+
+    @Override
+    protected void setLong(final int idx, final long value) {
+        data[idx] = (int) value;
+    }
+
+    @Override
+    protected void setDouble(final int idx, final double value) {
+        data[idx] = (int) value;
+    }
+
+    @Override
+    public void appendInts(final int[] src, final int offset, final int length) {
+        reserve(rows + length);
+        System.arraycopy(src, offset, data, rows, length);
+        rows += length;
+    }
+
+    @Override
+    protected void append(final Object object) {
+        if (rows == data.length) {
+            data = Arrays.copyOf(data, grow(rows));
+        }
+        data[rows] = ((Number) object).intValue();
+    }
+
+    @Override
+    protected void writeValues(final BinarySerializer serializer) throws IOException {
+        serializer.writeIntsLE(data, 0, rows);
+    }
+}
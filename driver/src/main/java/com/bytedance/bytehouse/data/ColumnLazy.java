@@ -0,0 +1,139 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.exception.ByteHouseClientException;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.io.IOException;
+import java.sql.SQLException;
+import javax.annotation.Nullable;
+
+/**
+ * Read-only column holding the raw bytes of a received column, decoded on first access.
+ * <br><br>
+ * Columns of a result that are never read cost only walking their lengths once, the bytes are
+ * released after decoding.
+ */
+public class ColumnLazy implements IColumn {
+
+    private final String name;
+
+    private final IDataType<?, ?> type;
+
+    private final int rows;
+
+    @Nullable
+    private ByteArrayReader bytes;
+
+    @Nullable
+    private volatile IColumn column;
+
+    public ColumnLazy(
+            final String name,
+            final IDataType<?, ?> type,
+            final int rows,
+            final ByteArrayReader bytes
+    ) {
+        this.name = name;
+        this.type = type;
+        this.rows = rows;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return whether the column has been decoded.
+     */
+    public boolean isDecoded() {
+        return column != null;
+    }
+
+    /**
+     * decodes the column if it has not been decoded yet.
+     *
+     * @return the decoded column.
+     */
+    public IColumn decoded() {
+        IColumn decoded = column;
+        if (decoded == null) {
+            synchronized (this) {
+                decoded = column;
+                if (decoded == null) {
+                    try {
+                        decoded = ColumnFactoryUtils.createColumn(
+                                name, type, rows, new BinaryDeserializer(bytes));
+                    } catch (IOException | SQLException e) {
+                        throw new ByteHouseClientException("Failed to decode column " + name, e);
+                    }
+                    bytes = null;
+                    column = decoded;
+                }
+            }
+        }
+        return decoded;
+    }
+
+    @Override
+    public boolean isExported() {
+        return name != null;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public IDataType<?, ?> type() {
+        return type;
+    }
+
+    @Override
+    public Object value(final int idx) {
+        return decoded().value(idx);
+    }
+
+    @Override
+    public void write(final Object object) throws IOException, SQLException {
+        decoded().write(object);
+    }
+
+    @Override
+    public void flushToSerializer(final BinarySerializer serializer, final boolean now) throws IOException, SQLException {
+        decoded().flushToSerializer(serializer, now);
+    }
+
+    @Override
+    public void clear() {
+        decoded().clear();
+    }
+
+    @Override
+    public ColumnWriterBuffer getColumnWriterBuffer() {
+        return decoded().getColumnWriterBuffer();
+    }
+
+    @Override
+    public void setColumnWriterBuffer(final ColumnWriterBuffer buffer) {
+        decoded().setColumnWriterBuffer(buffer);
+    }
+
+    @Override
+    public void reuseColumnWriterBuffer() {
+        decoded().reuseColumnWriterBuffer();
+    }
+}
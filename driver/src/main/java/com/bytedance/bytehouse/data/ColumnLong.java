@@ -0,0 +1,105 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import com.bytedance.bytehouse.data.type.DataTypeUInt64;
+import com.bytedance.bytehouse.misc.BytesHelper;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * {@link ColumnPrimitive} backed by a long array, used for Int64 and UInt64.
+ * <br><br>
+ * UInt64 keeps the raw 64 bits, so {@link #longValue(int)} matches
+ * {@link BigInteger#longValue()} and the {@link BigInteger} is only created by {@link #value(int)}.
+ */
+public class ColumnLong extends ColumnPrimitive implements BytesHelper {
+
+    private final boolean unsigned64;
+
+    private long[] data;
+
+    public ColumnLong(final String name, final IDataType<?, ?> type, final long[] data) {
+        super(name, type, data.length);
+        this.unsigned64 = type instanceof DataTypeUInt64;
+        this.data = data;
+    }
+
+    @Override
+    public Object value(final int idx) {
+        return unsigned64 ? new BigInteger(1, getBytes(data[idx])) : (Object) data[idx];
+    }
+
+    @Override
+    public long longValue(final int idx) {
+        return data[idx];
+    }
+
+    @Override
+    public double doubleValue(final int idx) {
+        final long value = data[idx];
+        if (!unsigned64 || value >= 0) {
+            return value;
+        }
+        // halve to fit a signed long, keeping the low bit so the result rounds the same way
+        return (double) ((value >>> 1) | (value & 1)) * 2.0;
+    }
+
+    @Override
+    public void clear() {
+        data = new long[0];
+        rows = 0;
+    }
+
+    @Override
+    protected void reserve(final int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, grow(data.length, capacity));
+        }
+    }
+
+    @Override
+    protected void setLong(final int idx, final long value) {
+        data[idx] = value;
+    }
+
+    @Override
+    protected void setDouble(final int idx, final double value) {
+        data[idx] = (long) value;
+    }
+
+    @Override
+    public void appendLongs(final long[] src, final int offset, final int length) {
+        reserve(rows + length);
+        System.arraycopy(src, offset, data, rows, length);
+        rows += length;
+    }
+
+    @Override
+    protected void append(final Object object) {
+        if (rows == data.length) {
+            data = Arrays.copyOf(data, grow(rows));
+        }
+        data[rows] = ((Number) object).longValue();
+    }
+
+    @Override
+    protected void writeValues(final BinarySerializer serializer) throws IOException {
+        serializer.writeLongsLE(data, 0, rows);
+    }
+}
@@ -27,14 +27,19 @@ import java.util.Map;
 
 /**
  * A custom Column class to be used with the Low Cardinality data type.
+ * <br><br>
+ * Columns read from the server keep the dictionary and one packed index per row, in a byte,
+ * short or int array depending on the width the server sent; {@link #value(int)} looks the row
+ * up in the dictionary.
  */
 public class ColumnLowCardinality extends AbstractColumn implements BytesHelper {
 
     private final static int HEADER_SIZE = 24;
 
+    // write side, created by the first write or flush so columns read from the server don't carry it
     private byte[] header;
 
-    private final IColumn keys;
+    private IColumn keys;
 
     private Map<Object, Integer> objectToIndex;
 
@@ -42,13 +47,72 @@ public class ColumnLowCardinality extends AbstractColumn implements BytesHelper
 
     private byte[] valueIndicesRaw; // stores the keys to the values
 
+    // read side: distinct values, and exactly one of the index arrays below
+    private Object[] dictionary;
+
+    private byte[] byteIndexes;
+
+    private short[] shortIndexes;
+
+    private int[] intIndexes;
+
     public ColumnLowCardinality(String name, DataTypeLowCardinality type, Object[] values) {
         super(name, type, values);
+    }
 
-        header = new byte[HEADER_SIZE];
-        keys = ColumnFactoryUtils.createColumn(null, type.getElemDataType(), null);
-        objectToIndex = new HashMap<>();
-        valueIndicesList = new ArrayList<>();
+    /**
+     * read column with UInt8 indexes.
+     */
+    public ColumnLowCardinality(String name, DataTypeLowCardinality type, Object[] dictionary, byte[] indexes) {
+        super(name, type, null);
+        this.dictionary = dictionary;
+        this.byteIndexes = indexes;
+    }
+
+    /**
+     * read column with UInt16 indexes.
+     */
+    public ColumnLowCardinality(String name, DataTypeLowCardinality type, Object[] dictionary, short[] indexes) {
+        super(name, type, null);
+        this.dictionary = dictionary;
+        this.shortIndexes = indexes;
+    }
+
+    /**
+     * read column with UInt32 or UInt64 indexes.
+     */
+    public ColumnLowCardinality(String name, DataTypeLowCardinality type, Object[] dictionary, int[] indexes) {
+        super(name, type, null);
+        this.dictionary = dictionary;
+        this.intIndexes = indexes;
+    }
+
+    @Override
+    public Object value(int idx) {
+        if (dictionary == null) {
+            return super.value(idx);
+        }
+        return dictionary[index(idx)];
+    }
+
+    /**
+     * @return the position in {@link #dictionary()} of the value of the row.
+     */
+    public int index(int row) {
+        if (byteIndexes != null) {
+            return byteIndexes[row] & 0xFF;
+        }
+        if (shortIndexes != null) {
+            return shortIndexes[row] & 0xFFFF;
+        }
+        return intIndexes[row];
+    }
+
+    /**
+     * @return the distinct values of a column read from the server, null for a column being written.
+     */
+    public Object[] dictionary() {
+        return dictionary;
     }
 
     /**
@@ -83,6 +147,7 @@ public class ColumnLowCardinality extends AbstractColumn implements BytesHelper
      */
     @Override
     public void write(Object object) throws IOException, SQLException {
+        initWriteState();
         if (!objectToIndex.containsKey(object)) {
             objectToIndex.put(object, objectToIndex.size());
             keys.write(object);
@@ -105,6 +170,7 @@ public class ColumnLowCardinality extends AbstractColumn implements BytesHelper
                 serializer.writeUTF8StringBinary(type.name());
             }
 
+            initWriteState();
             updateHeader();
             updateValueIndicesRaw();
 
@@ -118,31 +184,44 @@ public class ColumnLowCardinality extends AbstractColumn implements BytesHelper
         }
     }
 
+    private void initWriteState() {
+        if (keys != null) {
+            return;
+        }
+        header = new byte[HEADER_SIZE];
+        keys = ColumnFactoryUtils.createColumn(null, ((DataTypeLowCardinality) type).getElemDataType(), null);
+        if (buffer != null) {
+            keys.setColumnWriterBuffer(buffer);
+        }
+        objectToIndex = new HashMap<>();
+        valueIndicesList = new ArrayList<>();
+    }
+
     private void updateValueIndicesRaw() {
         int rowNum = valueIndicesList.size();
-        int idxSize = minIndexSize(objectToIndex.size());
-        valueIndicesRaw = new byte[rowNum * idxSize];
+        int width = DataTypeLowCardinality.indexByteSize((byte) (minIndexSize(objectToIndex.size()) - 1));
+        valueIndicesRaw = new byte[rowNum * width];
         for (int i = 0; i < rowNum; i++) {
-            putIndex(idxSize, valueIndicesList.get(i), i, valueIndicesRaw);
+            putIndex(width, valueIndicesList.get(i), i, valueIndicesRaw);
         }
     }
 
-    private void putIndex(int idxSize, int idx, int row, byte[] memory) {
-        switch (idxSize) {
+    private void putIndex(int width, int idx, int row, byte[] memory) {
+        switch (width) {
             case 1:
                 memory[row] = (byte) idx;
                 break;
             case 2:
-                setShortLE(memory, row * idxSize, idx);
-                break;
-            case 3:
-                setIntLE(memory, row * idxSize, idx);
+                setShortLE(memory, row * width, idx);
                 break;
             case 4:
-                setLongLE(memory, row * idxSize, idx);
+                setIntLE(memory, row * width, idx);
+                break;
+            case 8:
+                setLongLE(memory, row * width, idx);
                 break;
             default:
-                // Won't reach here since minIdxSize return a number only from 1-4
+                // Won't reach here since indexByteSize returns 1, 2, 4 or 8
                 throw new IllegalStateException("supposed unreachable execution path");
         }
     }
@@ -162,23 +241,33 @@ public class ColumnLowCardinality extends AbstractColumn implements BytesHelper
     @Override
     public void setColumnWriterBuffer(ColumnWriterBuffer buffer) {
         super.setColumnWriterBuffer(buffer);
-        keys.setColumnWriterBuffer(buffer);
+        if (keys != null) {
+            keys.setColumnWriterBuffer(buffer);
+        }
     }
 
     @Override
     public void reuseColumnWriterBuffer() {
         super.reuseColumnWriterBuffer();
-        keys.reuseColumnWriterBuffer();
-        objectToIndex.clear();
-        valueIndicesList.clear();
+        if (keys != null) {
+            keys.reuseColumnWriterBuffer();
+            objectToIndex.clear();
+            valueIndicesList.clear();
+        }
     }
 
     @Override
     public void clear() {
-        objectToIndex.clear();
-        keys.clear();
+        if (keys != null) {
+            objectToIndex.clear();
+            keys.clear();
+        }
     }
 
+    /**
+     * @return 1 to 4 for UInt8, UInt16, UInt32 and UInt64 indexes, one more than the index type
+     * written in the header.
+     */
     private int minIndexSize(int n) {
         int indexSize = 0;
 
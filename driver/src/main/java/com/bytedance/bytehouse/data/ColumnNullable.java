@@ -27,13 +27,14 @@ public class ColumnNullable extends AbstractColumn {
 
     private List<Byte> nullableSign;
 
-    // data represents nested column in ColumnArray
+    // data represents nested column, fixed-width numeric types keep their values in a ColumnPrimitive
     private final IColumn data;
 
     public ColumnNullable(String name, DataTypeNullable type, Object[] values) {
         super(name, type, values);
         nullableSign = new ArrayList<>();
-        data = ColumnFactoryUtils.createColumn(null, type.getNestedDataType(), null);
+        final ColumnPrimitive primitive = ColumnFactoryUtils.createPrimitiveColumn(null, type.getNestedDataType());
+        data = primitive != null ? primitive : ColumnFactoryUtils.createColumn(null, type.getNestedDataType(), null);
     }
 
     @Override
@@ -47,6 +48,19 @@ public class ColumnNullable extends AbstractColumn {
         }
     }
 
+    /**
+     * append {@code rows} null flags starting at {@code offset}, a null mask means no value is null.
+     */
+    void appendNullMask(@Nullable final boolean[] nulls, final int offset, final int rows) {
+        for (int row = 0; row < rows; row++) {
+            nullableSign.add(nulls != null && nulls[offset + row] ? (byte) 1 : (byte) 0);
+        }
+    }
+
+    IColumn nested() {
+        return data;
+    }
+
     @Override
     public void flushToSerializer(BinarySerializer serializer, boolean immediate) throws IOException {
         if (isExported()) {
@@ -62,8 +76,13 @@ public class ColumnNullable extends AbstractColumn {
             ((ColumnArray) data).flushOffsets(serializer);
         }
 
-        if (immediate)
+        // the values of a primitive nested column are not in the shared buffer, they follow
+        // the null map even when an enclosing column writes the buffer
+        if (data instanceof ColumnPrimitive) {
+            ((ColumnPrimitive) data).writeValues(serializer);
+        } else if (immediate) {
             buffer.writeTo(serializer);
+        }
     }
 
     @Override
@@ -0,0 +1,142 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * A {@link Column} whose values are kept in a primitive array instead of boxed objects,
+ * so that fixed-width numeric columns cost no heap object per cell.
+ * <br><br>
+ * {@link #value(int)} still returns the same boxed type as {@link IDataType#deserializeBinary},
+ * while the typed accessors let {@link com.bytedance.bytehouse.jdbc.ByteHouseResultSet}
+ * read the values without boxing.
+ * <br><br>
+ * On insert, written values are appended to the same primitive array and the whole array is
+ * encoded in one pass when the column is flushed, instead of serializing cell by cell.
+ */
+public abstract class ColumnPrimitive extends Column {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * number of rows held by this column.
+     */
+    protected int rows;
+
+    protected ColumnPrimitive(final String name, final IDataType<?, ?> type, final int rows) {
+        super(name, type, null);
+        this.rows = rows;
+    }
+
+    /**
+     * number of rows held by this column.
+     */
+    public int size() {
+        return rows;
+    }
+
+    public abstract long longValue(int idx);
+
+    public abstract double doubleValue(int idx);
+
+    public int intValue(final int idx) {
+        return (int) longValue(idx);
+    }
+
+    @Override
+    public void write(final Object object) throws IOException, SQLException {
+        append(object);
+        rows++;
+    }
+
+    @Override
+    public void flushToSerializer(final BinarySerializer serializer, final boolean now) throws IOException, SQLException {
+        super.flushToSerializer(serializer, false);
+
+        if (now) {
+            writeValues(serializer);
+        }
+    }
+
+    @Override
+    public void reuseColumnWriterBuffer() {
+        super.reuseColumnWriterBuffer();
+        this.rows = 0;
+    }
+
+    /**
+     * append {@code length} values of {@code src} starting at {@code offset}.
+     */
+    public void appendInts(final int[] src, final int offset, final int length) {
+        reserve(rows + length);
+        for (int i = 0; i < length; i++) {
+            setLong(rows + i, src[offset + i]);
+        }
+        rows += length;
+    }
+
+    /**
+     * append {@code length} values of {@code src} starting at {@code offset}.
+     */
+    public void appendLongs(final long[] src, final int offset, final int length) {
+        reserve(rows + length);
+        for (int i = 0; i < length; i++) {
+            setLong(rows + i, src[offset + i]);
+        }
+        rows += length;
+    }
+
+    /**
+     * append {@code length} values of {@code src} starting at {@code offset}.
+     */
+    public void appendDoubles(final double[] src, final int offset, final int length) {
+        reserve(rows + length);
+        for (int i = 0; i < length; i++) {
+            setDouble(rows + i, src[offset + i]);
+        }
+        rows += length;
+    }
+
+    /**
+     * make sure the primitive array can hold at least {@code capacity} values.
+     */
+    protected abstract void reserve(int capacity);
+
+    protected abstract void setLong(int idx, long value);
+
+    protected abstract void setDouble(int idx, double value);
+
+    /**
+     * store {@code object} at index {@link #rows}, growing the array if needed.
+     */
+    protected abstract void append(Object object);
+
+    /**
+     * encode the first {@link #rows} values into the serializer.
+     */
+    protected abstract void writeValues(BinarySerializer serializer) throws IOException;
+
+    protected static int grow(final int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity * 2);
+    }
+
+    protected static int grow(final int capacity, final int required) {
+        return Math.max(grow(capacity), required);
+    }
+}
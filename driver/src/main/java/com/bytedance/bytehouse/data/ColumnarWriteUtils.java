@@ -0,0 +1,146 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import com.bytedance.bytehouse.exception.ByteHouseSQLException;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.sql.SQLException;
+import javax.annotation.Nullable;
+
+/**
+ * Writes whole column arrays into the write buffers of an insert {@link Block}.
+ * <br><br>
+ * Fixed-width numeric columns, including their Nullable wrappers, are filled straight from the
+ * primitive arrays. Any other column type falls back to converting and writing cell by cell.
+ * <br><br>
+ * Writing is split in two steps so that a bad value cannot leave the columns of a block with
+ * different row counts: {@link #prepare} checks the null mask and converts every value that is
+ * not copied as is, then {@link Prepared#write} appends a range of rows. Callers are expected to
+ * prepare every column before writing any, and to call {@link Block#appendRows(int)} once every
+ * column has been written.
+ */
+public final class ColumnarWriteUtils {
+
+    private ColumnarWriteUtils() {
+    }
+
+    /**
+     * checks and converts the first {@code rows} values of a column.
+     *
+     * @param values an {@code int[]}, {@code long[]}, {@code double[]} or an array of objects
+     *               converted the same way as {@link java.sql.PreparedStatement#setObject(int, Object)}
+     *               values, e.g. {@code String[]} or {@code byte[][]}.
+     */
+    public static Prepared prepare(
+            final IColumn column,
+            final Object values,
+            @Nullable final boolean[] nulls,
+            final int rows,
+            final DataTypeConverter converter
+    ) throws SQLException {
+        final boolean primitiveValues = values instanceof int[] || values instanceof long[] || values instanceof double[];
+        if (!primitiveValues) {
+            final Object[] objects = (Object[]) values;
+            final Object[] converted = new Object[rows];
+            for (int row = 0; row < rows; row++) {
+                converted[row] = converter.convertJdbcToJava(column.type(), objects[row]);
+            }
+            return new Prepared(converted, null, false, false);
+        }
+
+        final IColumn target = column instanceof ColumnNullable ? ((ColumnNullable) column).nested() : column;
+        if (!(column instanceof ColumnNullable) && nulls != null) {
+            for (int row = 0; row < rows; row++) {
+                if (nulls[row]) {
+                    throw new ByteHouseSQLException(-1, "Column " + column.name() + " is not Nullable");
+                }
+            }
+        }
+        if (target instanceof ColumnPrimitive) {
+            return new Prepared(values, nulls, true, false);
+        }
+        final Object[] converted = new Object[rows];
+        for (int row = 0; row < rows; row++) {
+            converted[row] = converter.convertJdbcToJava(target.type(), Array.get(values, row));
+        }
+        return new Prepared(converted, nulls, true, false);
+    }
+
+    /**
+     * {@code rows} copies of a single value, already converted to the column's java type.
+     */
+    public static Prepared constant(@Nullable final Object value) {
+        return new Prepared(value, null, false, true);
+    }
+
+    /**
+     * values of one column, ready to be appended to the column or to a column of the same type.
+     */
+    public static final class Prepared {
+
+        // int[], long[], double[], converted Object[] or the constant itself
+        @Nullable
+        private final Object values;
+
+        @Nullable
+        private final boolean[] nulls;
+
+        // values go to the nested column of a Nullable, after the null mask
+        private final boolean masked;
+
+        private final boolean constant;
+
+        private Prepared(
+                @Nullable final Object values,
+                @Nullable final boolean[] nulls,
+                final boolean masked,
+                final boolean constant
+        ) {
+            this.values = values;
+            this.nulls = nulls;
+            this.masked = masked;
+            this.constant = constant;
+        }
+
+        /**
+         * append rows {@code offset} to {@code offset + rows} to {@code column}.
+         */
+        public void write(final IColumn column, final int offset, final int rows) throws IOException, SQLException {
+            IColumn target = column;
+            if (masked && column instanceof ColumnNullable) {
+                ((ColumnNullable) column).appendNullMask(nulls, offset, rows);
+                target = ((ColumnNullable) column).nested();
+            }
+            if (constant) {
+                for (int row = 0; row < rows; row++) {
+                    target.write(values);
+                }
+            } else if (values instanceof int[]) {
+                ((ColumnPrimitive) target).appendInts((int[]) values, offset, rows);
+            } else if (values instanceof long[]) {
+                ((ColumnPrimitive) target).appendLongs((long[]) values, offset, rows);
+            } else if (values instanceof double[]) {
+                ((ColumnPrimitive) target).appendDoubles((double[]) values, offset, rows);
+            } else {
+                final Object[] converted = (Object[]) values;
+                for (int row = 0; row < rows; row++) {
+                    target.write(converted[offset + row]);
+                }
+            }
+        }
+    }
+}
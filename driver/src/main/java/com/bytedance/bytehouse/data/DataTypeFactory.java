@@ -47,7 +47,7 @@ import com.bytedance.bytehouse.data.type.complex.DataTypeNothing;
 import com.bytedance.bytehouse.data.type.complex.DataTypeNullable;
 import com.bytedance.bytehouse.data.type.complex.DataTypeString;
 import com.bytedance.bytehouse.data.type.complex.DataTypeTuple;
-import com.bytedance.bytehouse.misc.LRUCache;
+import com.bytedance.bytehouse.misc.ConcurrentLRUCache;
 import com.bytedance.bytehouse.misc.SQLLexer;
 import com.bytedance.bytehouse.misc.ValidateUtils;
 import com.bytedance.bytehouse.settings.BHConstants;
@@ -61,8 +61,8 @@ import java.util.Map;
  */
 public final class DataTypeFactory {
 
-    private static final LRUCache<String, IDataType<?, ?>> DATA_TYPE_CACHE =
-            new LRUCache<>(BHConstants.DATA_TYPE_CACHE_SIZE);
+    private static final ConcurrentLRUCache<String, IDataType<?, ?>> DATA_TYPE_CACHE =
+            new ConcurrentLRUCache<>(BHConstants.DATA_TYPE_CACHE_SIZE);
 
     private static final Map<String, IDataType<?, ?>> DATA_TYPES = initialDataTypes();
 
@@ -72,22 +72,28 @@ public final class DataTypeFactory {
 
     /**
      * Parsing a subclass of {@link IDataType} from the string.
+     * <br><br>
+     * looks up the memo of the connection first, then the cache shared by all connections, and
+     * only parses the string when both miss.
      */
     public static IDataType<?, ?> get(
             final String type,
             final ServerContext serverContext
     ) throws SQLException {
-        IDataType<?, ?> dataType = DATA_TYPE_CACHE.get(type);
+        IDataType<?, ?> dataType = serverContext.memoizedType(type);
         if (dataType != null) {
-            DATA_TYPE_CACHE.put(type, dataType);
             return dataType;
         }
 
-        final SQLLexer lexer = new SQLLexer(0, type);
-        dataType = get(lexer, serverContext);
-        ValidateUtils.isTrue(lexer.eof());
+        dataType = DATA_TYPE_CACHE.get(type);
+        if (dataType == null) {
+            final SQLLexer lexer = new SQLLexer(0, type);
+            dataType = get(lexer, serverContext);
+            ValidateUtils.isTrue(lexer.eof());
 
-        DATA_TYPE_CACHE.put(type, dataType);
+            DATA_TYPE_CACHE.put(type, dataType);
+        }
+        serverContext.memoizeType(type, dataType);
         return dataType;
     }
 
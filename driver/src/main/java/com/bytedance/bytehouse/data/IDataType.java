@@ -188,6 +188,21 @@ public interface IDataType<CK, JDBC> extends Serializable {
         return data;
     }
 
+    /**
+     * Skips data from server (for entire column) without materializing it.
+     * <br><br>
+     * The default decodes and drops the values, types with a known layout override it to only
+     * walk lengths and skip bytes.
+     *
+     * @param rows         number of rows in column
+     * @param deserializer deserializer
+     * @throws SQLException general exception
+     * @throws IOException  exception when serializing
+     */
+    default void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws SQLException, IOException {
+        deserializeBinaryBulk(rows, deserializer);
+    }
+
     /**
      * Converts obj of JDBC type to CK java type.
      *
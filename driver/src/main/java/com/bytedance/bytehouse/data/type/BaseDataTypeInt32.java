@@ -15,6 +15,9 @@
  */
 package com.bytedance.bytehouse.data.type;
 
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.sql.Types;
 
 public interface BaseDataTypeInt32<CK, JDBC> extends BaseDataTypeInt<CK, JDBC> {
@@ -23,4 +26,9 @@ public interface BaseDataTypeInt32<CK, JDBC> extends BaseDataTypeInt<CK, JDBC> {
     default int sqlTypeId() {
         return Types.INTEGER;
     }
+
+    @Override
+    default void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Integer.BYTES);
+    }
 }
@@ -15,7 +15,10 @@
  */
 package com.bytedance.bytehouse.data.type;
 
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import java.io.IOException;
 import java.math.BigInteger;
+import java.sql.SQLException;
 import java.sql.Types;
 
 public interface BaseDataTypeInt64<CK, JDBC> extends BaseDataTypeInt<CK, JDBC> {
@@ -32,4 +35,9 @@ public interface BaseDataTypeInt64<CK, JDBC> extends BaseDataTypeInt<CK, JDBC> {
         }
         return b;
     }
+
+    @Override
+    default void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Long.BYTES);
+    }
 }
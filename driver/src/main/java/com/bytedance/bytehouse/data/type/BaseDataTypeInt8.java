@@ -15,6 +15,9 @@
  */
 package com.bytedance.bytehouse.data.type;
 
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.sql.Types;
 
 public interface BaseDataTypeInt8<CK, JDBC> extends BaseDataTypeInt<CK, JDBC> {
@@ -23,4 +26,9 @@ public interface BaseDataTypeInt8<CK, JDBC> extends BaseDataTypeInt<CK, JDBC> {
     default int sqlTypeId() {
         return Types.TINYINT;
     }
+
+    @Override
+    default void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes(rows);
+    }
 }
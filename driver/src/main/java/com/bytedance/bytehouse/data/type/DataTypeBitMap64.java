@@ -191,6 +191,13 @@ public class DataTypeBitMap64 implements IDataType<ByteHouseArray, Array>, Bytes
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        for (int row = 0; row < rows; row++) {
+            deserializer.skipBytes(deserializer.readVarInt());
+        }
+    }
+
     @Override
     public ByteHouseArray[] allocate(int rows) {
         return new ByteHouseArray[rows];
@@ -123,6 +123,11 @@ public class DataTypeDate implements IDataType<LocalDate, Date> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Short.BYTES);
+    }
+
     @Override
     public LocalDate[] allocate(int rows) {
         return new LocalDate[rows];
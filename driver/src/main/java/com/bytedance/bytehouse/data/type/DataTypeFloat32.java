@@ -94,13 +94,20 @@ public class DataTypeFloat32 implements IDataType<Float, Float> {
 
     @Override
     public Float[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        float[] floats = new float[rows];
+        deserializer.readFloatsLE(floats, rows);
         Float[] data = new Float[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = floats[row];
         }
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Float.BYTES);
+    }
+
     @Override
     public Float[] allocate(int rows) {
         return new Float[rows];
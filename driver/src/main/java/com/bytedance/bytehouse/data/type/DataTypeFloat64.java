@@ -95,13 +95,20 @@ public class DataTypeFloat64 implements IDataType<Double, Double> {
 
     @Override
     public Double[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        double[] doubles = new double[rows];
+        deserializer.readDoublesLE(doubles, rows);
         Double[] data = new Double[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = doubles[row];
         }
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Double.BYTES);
+    }
+
     @Override
     public Double[] allocate(int rows) {
         return new Double[rows];
@@ -94,6 +94,11 @@ public class DataTypeIPv4 implements IDataType<Long, Long> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Integer.BYTES);
+    }
+
     @Override
     public Long[] allocate(int rows) {
         return new Long[rows];
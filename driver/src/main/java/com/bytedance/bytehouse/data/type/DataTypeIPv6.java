@@ -142,6 +142,11 @@ public class DataTypeIPv6 implements IDataType<Inet6Address, String> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * 16);
+    }
+
     @Override
     public Inet6Address[] allocate(int rows) {
         return new Inet6Address[rows];
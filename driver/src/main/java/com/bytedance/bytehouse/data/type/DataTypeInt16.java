@@ -82,9 +82,11 @@ public class DataTypeInt16 implements BaseDataTypeInt16<Short, Short> {
 
     @Override
     public Short[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        short[] shorts = new short[rows];
+        deserializer.readShortsLE(shorts, rows);
         Short[] data = new Short[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = shorts[row];
         }
         return data;
     }
@@ -83,9 +83,11 @@ public class DataTypeInt32 implements BaseDataTypeInt32<Integer, Integer> {
 
     @Override
     public Integer[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        int[] ints = new int[rows];
+        deserializer.readIntsLE(ints, rows);
         Integer[] data = new Integer[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = ints[row];
         }
         return data;
     }
@@ -83,9 +83,11 @@ public class DataTypeInt64 implements BaseDataTypeInt64<Long, Long> {
 
     @Override
     public Long[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        long[] longs = new long[rows];
+        deserializer.readLongsLE(longs, rows);
         Long[] data = new Long[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = longs[row];
         }
         return data;
     }
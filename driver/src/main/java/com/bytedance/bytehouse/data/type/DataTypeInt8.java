@@ -82,9 +82,10 @@ public class DataTypeInt8 implements BaseDataTypeInt8<Byte, Byte> {
 
     @Override
     public Byte[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        byte[] bytes = deserializer.readBytes(rows);
         Byte[] data = new Byte[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = bytes[row];
         }
         return data;
     }
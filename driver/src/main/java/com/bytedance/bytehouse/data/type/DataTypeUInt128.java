@@ -100,6 +100,11 @@ public class DataTypeUInt128 implements BaseDataTypeInt64<BigInteger, BigInteger
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * 2 * Long.BYTES);
+    }
+
     @Override
     public BigInteger[] allocate(int rows) {
         return new BigInteger[rows];
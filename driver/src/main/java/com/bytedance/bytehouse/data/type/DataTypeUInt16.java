@@ -74,9 +74,11 @@ public class DataTypeUInt16 implements BaseDataTypeInt16<Integer, Integer> {
 
     @Override
     public Integer[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        short[] shorts = new short[rows];
+        deserializer.readShortsLE(shorts, rows);
         Integer[] data = new Integer[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = shorts[row] & 0xffff;
         }
         return data;
     }
@@ -104,6 +104,11 @@ public class DataTypeUInt256 implements BaseDataTypeInt64<BigInteger, BigInteger
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * 4 * Long.BYTES);
+    }
+
     @Override
     public BigInteger[] allocate(int rows) {
         return new BigInteger[rows];
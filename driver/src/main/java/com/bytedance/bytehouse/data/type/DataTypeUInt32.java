@@ -73,9 +73,11 @@ public class DataTypeUInt32 implements BaseDataTypeInt32<Long, Long> {
 
     @Override
     public Long[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        int[] ints = new int[rows];
+        deserializer.readIntsLE(ints, rows);
         Long[] data = new Long[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = 0xffffffffL & ints[row];
         }
         return data;
     }
@@ -88,9 +88,11 @@ public class DataTypeUInt64 implements BaseDataTypeInt64<BigInteger, BigInteger>
 
     @Override
     public BigInteger[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        long[] longs = new long[rows];
+        deserializer.readLongsLE(longs, rows);
         BigInteger[] data = new BigInteger[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = new BigInteger(1, getBytes(longs[row]));
         }
         return data;
     }
@@ -74,9 +74,10 @@ public class DataTypeUInt8 implements BaseDataTypeInt8<Short, Short> {
 
     @Override
     public Short[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        byte[] bytes = deserializer.readBytes(rows);
         Short[] data = new Short[rows];
         for (int row = 0; row < rows; row++) {
-            data[row] = this.deserializeBinary(deserializer);
+            data[row] = (short) (bytes[row] & 0xff);
         }
         return data;
     }
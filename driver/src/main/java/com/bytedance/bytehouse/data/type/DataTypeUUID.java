@@ -99,6 +99,11 @@ public class DataTypeUUID implements IDataType<UUID, String> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * 2 * Long.BYTES);
+    }
+
     @Override
     public UUID[] allocate(int rows) {
         return new UUID[rows];
@@ -149,6 +149,16 @@ public class DataTypeArray implements IDataType<ByteHouseArray, Array> {
         return arrays;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        if (rows == 0) {
+            return;
+        }
+        // only the last offset, the total number of elements, is needed
+        deserializer.skipBytes((long) (rows - 1) * Long.BYTES);
+        elemDataType.skipBinaryBulk(Math.toIntExact(deserializer.readLong()), deserializer);
+    }
+
     public IDataType getElemDataType() {
         return elemDataType;
     }
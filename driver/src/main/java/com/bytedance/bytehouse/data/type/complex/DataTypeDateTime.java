@@ -162,6 +162,11 @@ public class DataTypeDateTime implements IDataType<ZonedDateTime, Timestamp> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Integer.BYTES);
+    }
+
     @Override
     public ZonedDateTime[] allocate(int rows) {
         return new ZonedDateTime[rows];
@@ -183,6 +183,11 @@ public class DataTypeDateTime64 implements IDataType<ZonedDateTime, Timestamp> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Long.BYTES);
+    }
+
     @Override
     public ZonedDateTime[] allocate(int rows) {
         return new ZonedDateTime[rows];
@@ -227,6 +227,11 @@ public class DataTypeDecimal implements IDataType<BigDecimal, BigDecimal>, Bytes
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * (nobits / Byte.SIZE));
+    }
+
     @Override
     public BigDecimal[] allocate(int rows) {
         return new BigDecimal[rows];
@@ -146,6 +146,11 @@ public class DataTypeEnum16 implements IDataType<String, String> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * Short.BYTES);
+    }
+
     @Override
     public String[] allocate(int rows) {
         return new String[rows];
@@ -143,6 +143,11 @@ public class DataTypeEnum8 implements IDataType<String, String> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes(rows);
+    }
+
     @Override
     public String[] allocate(int rows) {
         return new String[rows];
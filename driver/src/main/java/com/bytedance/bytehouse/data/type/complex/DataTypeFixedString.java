@@ -154,6 +154,11 @@ public class DataTypeFixedString implements IDataType<CharSequence, String> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes((long) rows * n);
+    }
+
     @Override
     public CharSequence[] allocate(int rows) {
         return new CharSequence[rows];
@@ -15,10 +15,10 @@
  */
 package com.bytedance.bytehouse.data.type.complex;
 
+import com.bytedance.bytehouse.data.ColumnLowCardinality;
 import com.bytedance.bytehouse.data.DataTypeFactory;
 import com.bytedance.bytehouse.data.IDataType;
 import com.bytedance.bytehouse.exception.ByteHouseSQLException;
-import com.bytedance.bytehouse.misc.BytesHelper;
 import com.bytedance.bytehouse.misc.SQLLexer;
 import com.bytedance.bytehouse.misc.ValidateUtils;
 import com.bytedance.bytehouse.serde.BinaryDeserializer;
@@ -28,7 +28,13 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.time.ZoneId;
 
-public class DataTypeLowCardinality implements IDataType<Object, Object>, BytesHelper {
+/**
+ * LowCardinality(T): a dictionary of distinct values followed by one dictionary index per row.
+ * <br><br>
+ * Instances are shared by all connections through {@link DataTypeFactory}, so decoding keeps
+ * no state in the instance.
+ */
+public class DataTypeLowCardinality implements IDataType<Object, Object> {
 
     private final IDataType<?, ?> keys;
 
@@ -40,13 +46,8 @@ public class DataTypeLowCardinality implements IDataType<Object, Object>, BytesH
         return new DataTypeLowCardinality(elemDataType);
     };
 
-    private byte[] header;
-
-    private byte[] valueIndicesRaw;
-
     public DataTypeLowCardinality(IDataType<?, ?> elemDataType) {
         this.keys = elemDataType;
-        this.header = new byte[24];
     }
 
     @Override
@@ -99,64 +100,81 @@ public class DataTypeLowCardinality implements IDataType<Object, Object>, BytesH
     }
 
     @Override
-    public Object[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws SQLException {
-        try {
-            if (rows == 0) {
-                return new Object[0];
-            }
-
-            header = deserializer.readBytes(24);
-
-            final int numOfUniqueValues = (int) getLongLE(header, 16);
-            final Object[] uniqueValues = keys.deserializeBinaryBulk(numOfUniqueValues, deserializer);
-            final long numOfRows = deserializer.readLong();
-
-            int indexByteSize = 1;
-            switch (header[8]) {
-                case 1:
-                    indexByteSize = 2;
-                    break;
-                case 2:
-                    indexByteSize = 4;
-                    break;
-                case 3:
-                    indexByteSize = 8;
-                    break;
-            }
+    public Object[] deserializeBinaryBulk(int rows, BinaryDeserializer deserializer) throws SQLException, IOException {
+        final ColumnLowCardinality column = deserializeColumn(null, rows, deserializer);
+        final Object[] res = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            res[i] = column.value(i);
+        }
+        return res;
+    }
 
-            int numOfBytesToRead = (int) numOfRows * indexByteSize;
-            valueIndicesRaw = deserializer.readBytes(numOfBytesToRead);
-            final Object[] res = new Object[rows];
+    /**
+     * reads {@code rows} values into a column that keeps the dictionary and the indexes packed
+     * at the width the server sent, instead of one reference per row.
+     */
+    public ColumnLowCardinality deserializeColumn(
+            String name,
+            int rows,
+            BinaryDeserializer deserializer
+    ) throws SQLException, IOException {
+        if (rows == 0) {
+            return new ColumnLowCardinality(name, this, new Object[0], new byte[0]);
+        }
+        deserializer.readLong(); // version
+        final int indexByteSize = indexByteSize((byte) deserializer.readLong());
+        final Object[] dictionary = keys.deserializeBinaryBulk((int) deserializer.readLong(), deserializer);
+        final int numOfRows = (int) deserializer.readLong();
 
-            for (int i = 0; i < rows; i++) {
-                res[i] = uniqueValues[getIndex(indexByteSize, i)];
+        switch (indexByteSize) {
+            case 1:
+                return new ColumnLowCardinality(name, this, dictionary, deserializer.readBytes(numOfRows));
+            case 2: {
+                final short[] indexes = new short[numOfRows];
+                deserializer.readShortsLE(indexes, numOfRows);
+                return new ColumnLowCardinality(name, this, dictionary, indexes);
+            }
+            case 4: {
+                final int[] indexes = new int[numOfRows];
+                deserializer.readIntsLE(indexes, numOfRows);
+                return new ColumnLowCardinality(name, this, dictionary, indexes);
+            }
+            default: {
+                final int[] indexes = new int[numOfRows];
+                for (int i = 0; i < numOfRows; i++) {
+                    // a dictionary never holds more than Integer.MAX_VALUE values, an array could not
+                    indexes[i] = (int) deserializer.readLong();
+                }
+                return new ColumnLowCardinality(name, this, dictionary, indexes);
             }
-            return res;
-        } catch (Exception e) {
-            throw new SQLException(e);
         }
     }
 
-    private int getIndex(int indexByteSize, int row) {
-        switch (indexByteSize) {
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws SQLException, IOException {
+        if (rows == 0) {
+            return;
+        }
+        deserializer.readLong(); // version
+        final int indexByteSize = indexByteSize((byte) deserializer.readLong());
+        keys.skipBinaryBulk((int) deserializer.readLong(), deserializer);
+        deserializer.skipBytes(deserializer.readLong() * indexByteSize);
+    }
+
+    /**
+     * @return the width in bytes of the indexes for the index type in the low byte of the
+     * second header word: 0 is UInt8, 1 UInt16, 2 UInt32 and 3 UInt64.
+     */
+    public static int indexByteSize(byte indexType) {
+        switch (indexType) {
             case 1:
-                return getByteAsInt(valueIndicesRaw, row);
+                return 2;
             case 2:
-                return getShortAsIntLE(valueIndicesRaw, 2 * row);
-            case 4:
-                /*
-                 * The driver will crash if the number of unique values exceeds
-                 * 2147483647, because int is signed.
-                 */
-                return getIntLE(valueIndicesRaw, 4 * row);
-            case 8:
-                /*
-                 * The driver will crash if the number of unique values exceeds
-                 * 2147483647, because int is signed.
-                 */
-                return (int) getLongLE(valueIndicesRaw, 8 * row);
+                return 4;
+            case 3:
+                return 8;
             default:
-                throw new IllegalStateException("supposed unreachable execution path");
+                return 1;
         }
     }
 
@@ -177,6 +177,18 @@ public class DataTypeMap implements IDataType<Map, Object> {
         return maps;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        if (rows == 0) {
+            return;
+        }
+        // only the last offset, the total number of entries, is needed
+        deserializer.skipBytes((long) (rows - 1) * Long.BYTES);
+        final int size = Math.toIntExact(deserializer.readLong());
+        keyDataType.skipBinaryBulk(size, deserializer);
+        valueDataType.skipBinaryBulk(size, deserializer);
+    }
+
     @Override
     public Map convertJdbcToJavaType(Object obj, ZoneId tz) throws ByteHouseSQLException {
         if (obj instanceof Map) {
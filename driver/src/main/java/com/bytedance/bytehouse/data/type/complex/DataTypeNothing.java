@@ -111,6 +111,11 @@ public class DataTypeNothing implements IDataType<Byte, Object> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes(rows);
+    }
+
     @Override
     public Byte[] allocate(int rows) {
         return new Byte[rows];
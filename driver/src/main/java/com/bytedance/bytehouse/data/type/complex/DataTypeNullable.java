@@ -144,6 +144,12 @@ public class DataTypeNullable implements IDataType {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        deserializer.skipBytes(rows);
+        nestedDataType.skipBinaryBulk(rows, deserializer);
+    }
+
     @Override
     public boolean isSigned() {
         return nestedDataType.isSigned();
@@ -132,6 +132,13 @@ public class DataTypeString implements IDataType<CharSequence, String> {
         return data;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        for (int row = 0; row < rows; row++) {
+            deserializer.skipBytes(deserializer.readVarInt());
+        }
+    }
+
     @Override
     public CharSequence[] allocate(int rows) {
         return new CharSequence[rows];
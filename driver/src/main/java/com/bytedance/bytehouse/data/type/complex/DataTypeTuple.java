@@ -142,6 +142,13 @@ public class DataTypeTuple implements IDataType<ByteHouseStruct, Struct> {
         return rowsData;
     }
 
+    @Override
+    public void skipBinaryBulk(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
+        for (IDataType<?, ?> nestedType : getNestedTypes()) {
+            nestedType.skipBinaryBulk(rows, deserializer);
+        }
+    }
+
     private Object[][] getRowsWithElems(int rows, BinaryDeserializer deserializer) throws IOException, SQLException {
         Object[][] rowsWithElems = new Object[getNestedTypes().length][];
         for (int index = 0; index < getNestedTypes().length; index++) {
@@ -0,0 +1,96 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.jdbc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the asynchronous calls of a {@link ByteHouseConnection} one after the other.
+ * <br><br>
+ * A connection carries one query at a time, so a call only starts once the previous one released
+ * the connection: when an insert completes, or when the {@link java.sql.ResultSet} of a query is
+ * closed. Calls waiting for their turn hold no thread.
+ */
+final class AsyncLane {
+
+    /**
+     * shared by all connections, a thread is only held while a call writes its request and waits
+     * for the first response.
+     */
+    static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2),
+            new Factory()
+    );
+
+    private final AtomicReference<CompletableFuture<Void>> tail =
+            new AtomicReference<>(CompletableFuture.completedFuture(null));
+
+    /**
+     * runs {@code task} on {@code executor} after the calls submitted before it released the
+     * connection. The task must call the release it is given once it no longer uses the
+     * connection, it is called for it when the task fails.
+     */
+    <T> CompletableFuture<T> submit(final Executor executor, final Task<T> task) {
+        final CompletableFuture<Void> released = new CompletableFuture<>();
+        final CompletableFuture<Void> previous = tail.getAndSet(released);
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Runnable release = () -> released.complete(null);
+
+        previous.whenComplete((ignored, error) -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        result.complete(task.run(release));
+                    } catch (Throwable e) {
+                        release.run();
+                        result.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                release.run();
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * a call using the connection.
+     */
+    interface Task<T> {
+
+        T run(Runnable release) throws Exception;
+    }
+
+    private static final class Factory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "bytehouse-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
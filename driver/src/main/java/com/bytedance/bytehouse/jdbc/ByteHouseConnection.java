@@ -15,13 +15,17 @@
  */
 package com.bytedance.bytehouse.jdbc;
 
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
 import com.bytedance.bytehouse.client.ClientContext;
+import com.bytedance.bytehouse.client.InsertSampleBlockCache;
 import com.bytedance.bytehouse.client.NativeClient;
 import com.bytedance.bytehouse.client.NativeContext;
 import com.bytedance.bytehouse.client.ServerContext;
 import com.bytedance.bytehouse.client.SessionState;
 import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.BlockSettings;
 import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IColumn;
 import com.bytedance.bytehouse.exception.ByteHouseSQLException;
 import com.bytedance.bytehouse.jdbc.statement.ByteHousePreparedInsertStatement;
 import com.bytedance.bytehouse.jdbc.statement.ByteHousePreparedQueryStatement;
@@ -33,7 +37,9 @@ import com.bytedance.bytehouse.misc.SQLParserUtils;
 import com.bytedance.bytehouse.misc.ValidateUtils;
 import com.bytedance.bytehouse.settings.ByteHouseConfig;
 import com.bytedance.bytehouse.settings.ByteHouseErrCode;
+import com.bytedance.bytehouse.settings.HealthCheckPolicy;
 import com.bytedance.bytehouse.settings.SettingKey;
+import com.bytedance.bytehouse.stream.PrefetchingDataIterator;
 import com.bytedance.bytehouse.stream.QueryResult;
 import java.io.Serializable;
 import java.sql.Array;
@@ -52,9 +58,12 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.Nullable;
 
 /**
@@ -75,16 +84,49 @@ public class ByteHouseConnection implements BHConnection {
 
     private volatile NativeContext nativeCtx;
 
+    // cache key of the insert in progress
+    private volatile String insertCacheKey;
+
+    // true if the insert in progress was served from the cache and its header is still unread
+    private volatile boolean sampleBlockPending;
+
+    // result of the last query, its unread responses are still on the socket until it is complete
+    @Nullable
+    private volatile QueryResult lastResult;
+
+    // reads lastResult ahead of its ResultSet, if result_prefetch is on
+    @Nullable
+    private volatile PrefetchingDataIterator lastPrefetch;
+
+    // the pool the underlying NativeContext goes back to on close, null if not pooled
+    @Nullable
+    private final ByteHouseConnectionPool pool;
+
+    private final AsyncLane asyncLane = new AsyncLane();
+
+    // guards replacing and closing nativeCtx, held across socket I/O so it is not a monitor:
+    // a virtual thread blocked in a monitor pins its carrier thread
+    private final ReentrantLock clientLock = new ReentrantLock();
+
     /**
      * Constructor. do not call directly. Use the factory method.
      */
     protected ByteHouseConnection(
             final ByteHouseConfig cfg,
             final NativeContext nativeCtx
+    ) {
+        this(cfg, nativeCtx, null);
+    }
+
+    ByteHouseConnection(
+            final ByteHouseConfig cfg,
+            final NativeContext nativeCtx,
+            @Nullable final ByteHouseConnectionPool pool
     ) {
         this.isClosed = new AtomicBoolean(false);
         this.cfg = new AtomicReference<>(cfg);
         this.nativeCtx = nativeCtx;
+        this.pool = pool;
     }
 
     /**
@@ -93,12 +135,19 @@ public class ByteHouseConnection implements BHConnection {
     public static ByteHouseConnection createByteHouseConnection(
             final ByteHouseConfig config
     ) throws SQLException {
+        return new ByteHouseConnection(config, createNativeContext(config));
+    }
+
+    /**
+     * opens a new TCP connection and does the handshake.
+     */
+    static NativeContext createNativeContext(final ByteHouseConfig config) throws SQLException {
         final NativeClient nativeClient = NativeClient.connect(config);
-        return new ByteHouseConnection(config, new NativeContext(
+        return new NativeContext(
                 ClientContext.create(nativeClient, config),
                 ServerContext.create(nativeClient, config),
                 nativeClient
-        ));
+        );
     }
 
     public ByteHouseConfig cfg() {
@@ -191,13 +240,33 @@ public class ByteHouseConnection implements BHConnection {
         this.close();
     }
 
+    /**
+     * Disconnects from the server, or hands the underlying connection back to the pool
+     * of the {@link ByteHouseDataSource} that created this connection.
+     */
     @Override
     public void close() throws SQLException {
-        synchronized (this) {
+        clientLock.lock();
+        try {
             if (!isClosed() && isClosed.compareAndSet(false, true)) {
+                final PrefetchingDataIterator prefetch = lastPrefetch;
+                if (prefetch != null) {
+                    prefetch.close();
+                }
+                if (pool != null) {
+                    // a connection in the middle of an insert or of a query result can't be reused
+                    final QueryResult result = lastResult;
+                    pool.release(
+                            nativeCtx,
+                            state.get() == SessionState.IDLE && (result == null || result.isComplete())
+                    );
+                    return;
+                }
                 final NativeClient nativeClient = nativeCtx.nativeClient();
                 nativeClient.disconnect();
             }
+        } finally {
+            clientLock.unlock();
         }
     }
 
@@ -291,6 +360,9 @@ public class ByteHouseConnection implements BHConnection {
 
     @Override
     public boolean isValid(int timeout) {
+        if (isClosed()) {
+            return false;
+        }
         return getNativeClient().ping(Duration.ofSeconds(timeout), nativeCtx.serverCtx());
     }
 
@@ -370,6 +442,9 @@ public class ByteHouseConnection implements BHConnection {
 
     /**
      * Get metadata for a insert query.
+     * <br><br>
+     * If the structure of the insert is cached, the returned {@link Block} is built from the cache
+     * and the header sent by the server is only read before the first data block goes out.
      */
     public Block getSampleBlock(final String queryId, final String insertQuery) throws SQLException {
         final NativeClient nativeClient = getHealthyNativeClient();
@@ -383,7 +458,131 @@ public class ByteHouseConnection implements BHConnection {
         ValidateUtils.isTrue(this.state.compareAndSet(SessionState.IDLE, SessionState.WAITING_INSERT),
                 "Connection is currently waiting for an insert operation, "
                         + "check your previous InsertStatement.");
-        return nativeClient.receiveSampleBlock(cfg.get().queryTimeout(), nativeCtx.serverCtx());
+
+        final String cacheKey = InsertSampleBlockCache.key(cfg.get().database(), insertQuery);
+        this.insertCacheKey = cacheKey;
+        final Block cached = nativeCtx.sampleBlockCache().newBlock(cacheKey);
+        if (cached != null) {
+            this.sampleBlockPending = true;
+            return cached;
+        }
+        this.sampleBlockPending = false;
+        final Block sampleBlock = nativeClient.receiveSampleBlock(cfg.get().queryTimeout(), nativeCtx.serverCtx());
+        nativeCtx.sampleBlockCache().put(cacheKey, sampleBlock, cfg.get().insertSampleBlockCacheTtl());
+        return sampleBlock;
+    }
+
+    /**
+     * runs {@code sql} on a shared pool, see {@link #executeAsync(String, Executor)}.
+     */
+    public CompletableFuture<ResultSet> executeAsync(final String sql) {
+        return executeAsync(sql, AsyncLane.POOL);
+    }
+
+    /**
+     * runs {@code sql} on {@code executor}. The future completes with the result once its header
+     * is received, rows are then streamed by the {@link ResultSet} as with
+     * {@link Statement#executeQuery}, it is null for an insert.
+     * <br><br>
+     * Asynchronous calls on a connection run in the order they are made, each one after the
+     * {@link ResultSet} of the previous query is closed. Blocking calls are not ordered with them.
+     */
+    public CompletableFuture<ResultSet> executeAsync(final String sql, final Executor executor) {
+        return asyncLane.submit(executor, release -> {
+            final Statement statement = createStatement();
+            final ByteHouseResultSet resultSet;
+            try {
+                resultSet = (ByteHouseResultSet) statement.executeQuery(sql);
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+            if (resultSet == null) {
+                statement.close();
+                release.run();
+                return null;
+            }
+            resultSet.onClose(() -> {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOG.debug("close Statement of async query failed: {}", e.getMessage());
+                }
+                release.run();
+            });
+            return resultSet;
+        });
+    }
+
+    /**
+     * inserts {@code blocks} into {@code table} on a shared pool, see
+     * {@link #insertAsync(String, Iterable, Executor)}.
+     */
+    public CompletableFuture<Long> insertAsync(final String table, final Iterable<Block> blocks) {
+        return insertAsync(table, blocks, AsyncLane.POOL);
+    }
+
+    /**
+     * inserts {@code blocks} into {@code table} as one insert on {@code executor}, ordered with
+     * the other asynchronous calls as {@link #executeAsync(String, Executor)}. The blocks must
+     * have the columns of the table, in order. A block that doesn't, or fails to be sent, ends the
+     * insert with the future: the blocks sent before it stay committed.
+     *
+     * @return the future number of inserted rows.
+     */
+    public CompletableFuture<Long> insertAsync(
+            final String table,
+            final Iterable<Block> blocks,
+            final Executor executor
+    ) {
+        return asyncLane.submit(executor, release -> {
+            try {
+                return insertBlocks(table, blocks);
+            } finally {
+                release.run();
+            }
+        });
+    }
+
+    private long insertBlocks(final String table, final Iterable<Block> blocks) throws SQLException {
+        final Block header = getSampleBlock(UUID.randomUUID().toString(), "INSERT INTO " + table + " VALUES");
+        long rows = 0;
+        try {
+            for (final Block block : blocks) {
+                checkMatchesHeader(table, header, block);
+                if (!block.isEmpty()) {
+                    rows += sendBlock(block);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            try {
+                abortInsert();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        sendInsertRequest(Block.empty());
+        return rows;
+    }
+
+    private static void checkMatchesHeader(
+            final String table,
+            final Block header,
+            final Block block
+    ) throws SQLException {
+        ValidateUtils.isTrue(block.columnCnt() == header.columnCnt(),
+                "Block has " + block.columnCnt() + " columns, table " + table
+                        + " has " + header.columnCnt());
+        for (int i = 0; i < header.columnCnt(); i++) {
+            final IColumn expected = header.getColumn(i);
+            final IColumn actual = block.getColumn(i);
+            ValidateUtils.isTrue(expected.name().equals(actual.name()),
+                    "Column " + (i + 1) + " of block is not " + expected.name());
+            ValidateUtils.isTrue(expected.type().name().equals(actual.type().name()),
+                    "Column " + expected.name() + " of block is " + actual.type().name()
+                            + ", not " + expected.type().name());
+        }
     }
 
     /**
@@ -410,23 +609,39 @@ public class ByteHouseConnection implements BHConnection {
         try {
             nativeClient.sendQuery(queryId, query, nativeCtx.clientCtx(), settings, enableCompression);
         } finally {
-            return nativeClient.receiveQuery(queryTimeout, nativeCtx.serverCtx());
+            final QueryResult result = nativeClient.receiveQuery(queryTimeout, nativeCtx.serverCtx());
+            lastResult = result;
+            return result;
         }
     }
 
+    /**
+     * Used by Statement objects to read the data of {@code result} on a background thread,
+     * the reader is stopped when this connection is closed.
+     */
+    public PrefetchingDataIterator prefetch(final QueryResult result, final int fetchSize) {
+        final PrefetchingDataIterator prefetch = new PrefetchingDataIterator(result.data(), fetchSize);
+        lastPrefetch = prefetch;
+        return prefetch;
+    }
+
     /**
      * send insert request.
      */
     public int sendInsertRequest(final Block block) throws SQLException {
         ValidateUtils.isTrue(this.state.get() == SessionState.WAITING_INSERT,
                 "Call getSampleBlock before insert.");
+        final NativeClient nativeClient = getNativeClient();
+        receivePendingSampleBlock(nativeClient);
         try {
-            final NativeClient nativeClient = getNativeClient();
             if (!block.isEmpty()) {
                 nativeClient.sendData(block);
             }
             nativeClient.sendData(Block.empty());
             nativeClient.receiveEndOfStream(cfg.get().queryTimeout(), nativeCtx.serverCtx());
+        } catch (SQLException e) {
+            nativeCtx.sampleBlockCache().invalidate(insertCacheKey);
+            throw e;
         } finally {
             ValidateUtils.isTrue(this.state.compareAndSet(
                     SessionState.WAITING_INSERT, SessionState.IDLE
@@ -435,6 +650,17 @@ public class ByteHouseConnection implements BHConnection {
         return block.rowCnt();
     }
 
+    /**
+     * ends the insert in progress without sending more rows, for a client side failure in the
+     * middle of an insert. The server commits the blocks sent before, the session goes back to
+     * idle even if ending the insert fails. Does nothing if no insert is in progress.
+     */
+    public void abortInsert() throws SQLException {
+        if (this.state.get() == SessionState.WAITING_INSERT) {
+            sendInsertRequest(Block.empty());
+        }
+    }
+
     /**
      * send single block.
      */
@@ -442,30 +668,105 @@ public class ByteHouseConnection implements BHConnection {
         ValidateUtils.isTrue(this.state.get() == SessionState.WAITING_INSERT,
                 "Call getSampleBlock before insert.");
         final NativeClient nativeClient = getNativeClient();
-        nativeClient.sendData(block);
+        receivePendingSampleBlock(nativeClient);
+        try {
+            nativeClient.sendData(block);
+        } catch (SQLException e) {
+            nativeCtx.sampleBlockCache().invalidate(insertCacheKey);
+            throw e;
+        }
         return block.rowCnt();
     }
 
+    /**
+     * send a block serialized in Native format without decoding it, {@code rows} is returned
+     * as the number of inserted rows.
+     */
+    public int sendRawBlock(final ByteArrayReader data, final int rows) throws SQLException {
+        ValidateUtils.isTrue(this.state.get() == SessionState.WAITING_INSERT,
+                "Call getSampleBlock before insert.");
+        final NativeClient nativeClient = getNativeClient();
+        receivePendingSampleBlock(nativeClient);
+        try {
+            nativeClient.sendRawData(new BlockSettings(BlockSettings.Setting.defaultValues()), data);
+        } catch (SQLException e) {
+            nativeCtx.sampleBlockCache().invalidate(insertCacheKey);
+            throw e;
+        }
+        return rows;
+    }
+
+    /**
+     * read the header of an insert served from the cache and check it still matches.
+     * On failure the insert is ended, the cache entry is dropped and the session goes back to idle.
+     */
+    private void receivePendingSampleBlock(final NativeClient nativeClient) throws SQLException {
+        if (!sampleBlockPending) {
+            return;
+        }
+        this.sampleBlockPending = false;
+        try {
+            final Block header = nativeClient.receiveSampleBlock(cfg.get().queryTimeout(), nativeCtx.serverCtx());
+            if (!nativeCtx.sampleBlockCache().matches(insertCacheKey, header)) {
+                nativeClient.sendData(Block.empty());
+                nativeClient.receiveEndOfStream(cfg.get().queryTimeout(), nativeCtx.serverCtx());
+                throw new ByteHouseSQLException(
+                        ByteHouseErrCode.CLIENT_ERROR.code(),
+                        "Table structure changed since the insert was prepared, prepare the statement again."
+                );
+            }
+        } catch (SQLException e) {
+            nativeCtx.sampleBlockCache().invalidate(insertCacheKey);
+            this.state.compareAndSet(SessionState.WAITING_INSERT, SessionState.IDLE);
+            throw e;
+        }
+    }
+
     private NativeClient getHealthyNativeClient() throws SQLException {
-        synchronized (this) {
+        // a pooled connection may already be serving someone else
+        ValidateUtils.isTrue(!isClosed(), "Connection is closed.");
+        clientLock.lock();
+        try {
             final NativeContext oldCtx = nativeCtx;
-            if (!oldCtx.nativeClient().ping(cfg.get().queryTimeout(), oldCtx.serverCtx())) {
+            if (!isHealthy(oldCtx)) {
                 LOG.warn(
                         "connection loss with state [{}], create new connection and reset state",
                         state
                 );
-                final ByteHouseConfig config = cfg.get();
-                final NativeClient nativeClient = NativeClient.connect(config);
-                nativeCtx = new NativeContext(
-                        ClientContext.create(nativeClient, config),
-                        ServerContext.create(nativeClient, config),
-                        nativeClient
-                );
+                nativeCtx = createNativeContext(cfg.get());
                 state.set(SessionState.IDLE);
+                sampleBlockPending = false;
+                lastResult = null;
+                lastPrefetch = null;
                 oldCtx.nativeClient().silentDisconnect();
             }
 
             return nativeCtx.nativeClient();
+        } finally {
+            clientLock.unlock();
+        }
+    }
+
+    /**
+     * a connection that hit an I/O error is always replaced, otherwise the server is pinged
+     * according to {@link ByteHouseConfig#healthCheckPolicy()}.
+     */
+    private boolean isHealthy(final NativeContext ctx) {
+        final NativeClient nativeClient = ctx.nativeClient();
+        if (nativeClient.isBroken()) {
+            return false;
+        }
+        final ByteHouseConfig config = cfg.get();
+        switch (HealthCheckPolicy.fromString(config.healthCheckPolicy())) {
+            case NEVER:
+                return true;
+            case IDLE:
+                if (nativeClient.idleTime().compareTo(config.healthCheckIdleTime()) < 0) {
+                    return true;
+                }
+                return nativeClient.ping(config.queryTimeout(), ctx.serverCtx());
+            default:
+                return nativeClient.ping(config.queryTimeout(), ctx.serverCtx());
         }
     }
 
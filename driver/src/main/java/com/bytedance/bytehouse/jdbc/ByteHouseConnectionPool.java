@@ -0,0 +1,182 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.jdbc;
+
+import com.bytedance.bytehouse.client.NativeClient;
+import com.bytedance.bytehouse.client.NativeContext;
+import com.bytedance.bytehouse.exception.ByteHouseSQLException;
+import com.bytedance.bytehouse.log.Logger;
+import com.bytedance.bytehouse.log.LoggerFactoryUtils;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import com.bytedance.bytehouse.settings.ByteHouseErrCode;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Pool of server connections to a single host, used by {@link ByteHouseDataSource} when
+ * pool_enabled is set.
+ * <br><br>
+ * The pool keeps {@link NativeContext}s, i.e. connections that already went through the
+ * handshake. Every borrow wraps one in a new {@link ByteHouseConnection}, so settings and schema
+ * changed by the previous user are not carried over. At most pool_max_size connections are handed
+ * out at a time, idle connections are reused most recently returned first and are closed once
+ * older than pool_max_lifetime. Whether the server is pinged before a pooled connection sends a
+ * query is decided by health_check_policy, like for any other connection.
+ */
+@ThreadSafe
+final class ByteHouseConnectionPool implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactoryUtils.getLogger(ByteHouseConnectionPool.class);
+
+    private static final Duration HOUSEKEEPING_PERIOD = Duration.ofSeconds(30);
+
+    private static final ScheduledExecutorService HOUSEKEEPER = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "bytehouse-pool-housekeeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ByteHouseConfig cfg;
+
+    // one permit for every connection that may be handed out
+    private final Semaphore permits;
+
+    private final BlockingDeque<NativeContext> idle = new LinkedBlockingDeque<>();
+
+    private final ScheduledFuture<?> housekeeping;
+
+    private volatile boolean closed;
+
+    ByteHouseConnectionPool(final ByteHouseConfig cfg) {
+        this.cfg = cfg;
+        this.permits = new Semaphore(Math.max(cfg.poolMaxSize(), 1), true);
+        this.housekeeping = HOUSEKEEPER.scheduleWithFixedDelay(
+                this::housekeep,
+                0,
+                HOUSEKEEPING_PERIOD.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * returns a connection backed by an idle server connection, or by a new one if none is left.
+     */
+    ByteHouseConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Unable to get connection: the pool is closed");
+        }
+        acquirePermit();
+        try {
+            NativeContext ctx;
+            while ((ctx = idle.pollFirst()) != null) {
+                if (isReusable(ctx)) {
+                    return newConnection(ctx);
+                }
+                ctx.nativeClient().silentDisconnect();
+            }
+            return newConnection(ByteHouseConnection.createNativeContext(cfg));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * called by {@link ByteHouseConnection#close()}.
+     *
+     * @param reusable false if the connection was left in a state that can't be handed out again
+     */
+    void release(final NativeContext ctx, final boolean reusable) {
+        try {
+            if (closed || !reusable || !isReusable(ctx) || idle.size() >= cfg.poolMaxIdle()) {
+                ctx.nativeClient().silentDisconnect();
+                return;
+            }
+            ctx.nativeClient().setEnableCompression(cfg.enableCompression());
+            idle.offerFirst(ctx);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeping.cancel(false);
+        NativeContext ctx;
+        while ((ctx = idle.pollFirst()) != null) {
+            ctx.nativeClient().silentDisconnect();
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        final Duration timeout = cfg.poolBorrowTimeout();
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ByteHouseSQLException(
+                        ByteHouseErrCode.CLIENT_ERROR.code(),
+                        "Unable to get connection to " + cfg.host() + ":" + cfg.port()
+                                + " within " + timeout.toMillis() + " ms, all "
+                                + cfg.poolMaxSize() + " pooled connections are in use"
+                );
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+    }
+
+    private ByteHouseConnection newConnection(final NativeContext ctx) {
+        return new ByteHouseConnection(cfg, ctx, this);
+    }
+
+    private boolean isReusable(final NativeContext ctx) {
+        final NativeClient nativeClient = ctx.nativeClient();
+        return !nativeClient.isBroken() && nativeClient.age().compareTo(cfg.poolMaxLifetime()) < 0;
+    }
+
+    /**
+     * closes expired idle connections and opens new ones up to pool_min_idle.
+     */
+    private void housekeep() {
+        final Iterator<NativeContext> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            final NativeContext ctx = iterator.next();
+            if (!isReusable(ctx) && idle.remove(ctx)) {
+                ctx.nativeClient().silentDisconnect();
+            }
+        }
+        while (!closed && idle.size() < cfg.poolMinIdle() && permits.tryAcquire()) {
+            try {
+                idle.offerLast(ByteHouseConnection.createNativeContext(cfg));
+            } catch (SQLException | RuntimeException e) {
+                LOG.warn("unable to open idle connection to {}:{}, {}", cfg.host(), cfg.port(), e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
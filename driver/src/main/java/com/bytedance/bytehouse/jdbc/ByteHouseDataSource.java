@@ -33,6 +33,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -45,8 +46,10 @@ import java.util.stream.Collectors;
  * For every {@link #getConnection() getConnection} invocation, it returns connection to random host from the list.
  * Furthermore, this class has method { #scheduleActualization(int, TimeUnit) scheduleActualization}
  * which test hosts for availability. By default, this option is turned off.
+ * <p> If pool_enabled is set, {@link #getConnection()} borrows from a pool per host and closing the
+ * connection returns it to that pool. {@link #close()} closes the pools.
  */
-public final class ByteHouseDataSource implements BHDataSource {
+public final class ByteHouseDataSource implements BHDataSource, AutoCloseable {
     private static final Logger LOG = LoggerFactoryUtils.getLogger(ByteHouseDataSource.class);
 
     private final ByteHouseConfig cfg;
@@ -55,6 +58,9 @@ public final class ByteHouseDataSource implements BHDataSource {
 
     private final List<String> enabledUrls;
 
+    // url -> pool, empty if pooling is disabled
+    private final Map<String, ByteHouseConnectionPool> pools;
+
     /**
      * create Datasource for bytehouse JDBC connections
      *
@@ -115,6 +121,14 @@ public final class ByteHouseDataSource implements BHDataSource {
         ValidateUtils.ensure(!allUrls.isEmpty(), "there are no correct urls");
 
         this.enabledUrls = Collections.unmodifiableList(allUrls);
+
+        final Map<String, ByteHouseConnectionPool> allPools = new HashMap<>();
+        if (cfg.poolEnabled()) {
+            for (final String u : enabledUrls) {
+                allPools.computeIfAbsent(u, k -> new ByteHouseConnectionPool(cfg.withJdbcUrl(k)));
+            }
+        }
+        this.pools = Collections.unmodifiableMap(allPools);
     }
 
     /**
@@ -169,11 +183,18 @@ public final class ByteHouseDataSource implements BHDataSource {
      */
     @Override
     public ByteHouseConnection getConnection() throws SQLException {
-        return driver.connect(getAnyUrl(), cfg);
+        final String url = getAnyUrl();
+        final ByteHouseConnectionPool pool = pools.get(url);
+        if (pool != null) {
+            return pool.borrow();
+        }
+        return driver.connect(url, cfg);
     }
 
     /**
      * {@inheritDoc}
+     * <br><br>
+     * Connections with explicit credentials are never pooled.
      */
     @Override
     public ByteHouseConnection getConnection(
@@ -226,4 +247,14 @@ public final class ByteHouseDataSource implements BHDataSource {
     public ByteHouseConfig getCfg() {
         return cfg;
     }
+
+    /**
+     * closes the idle pooled connections, connections in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        for (final ByteHouseConnectionPool pool : pools.values()) {
+            pool.close();
+        }
+    }
 }
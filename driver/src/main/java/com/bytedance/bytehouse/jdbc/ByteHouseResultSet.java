@@ -16,6 +16,7 @@
 package com.bytedance.bytehouse.jdbc;
 
 import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnPrimitive;
 import com.bytedance.bytehouse.data.IColumn;
 import com.bytedance.bytehouse.exception.ByteHouseSQLException;
 import com.bytedance.bytehouse.jdbc.statement.ByteHouseStatement;
@@ -27,6 +28,8 @@ import com.bytedance.bytehouse.misc.DateTimeUtil;
 import com.bytedance.bytehouse.misc.ValidateUtils;
 import com.bytedance.bytehouse.protocol.DataResponse;
 import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import com.bytedance.bytehouse.stream.PrefetchingDataIterator;
+import com.bytedance.bytehouse.stream.QueryResult;
 import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -41,6 +44,7 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.Calendar;
+import javax.annotation.Nullable;
 
 /**
  * Bytehouse implementation of {@link ResultSet}.
@@ -61,6 +65,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     private final CheckedIterator<DataResponse, SQLException> dataResponses;
 
+    @Nullable
+    private final QueryResult queryResult;
+
+    private int fetchSize;
+
     private int currentRowNum = -1;
 
     private Block currentBlock = Block.empty();
@@ -77,6 +86,10 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     private boolean isClosed;
 
+    // run once by the first close
+    @Nullable
+    private Runnable closeListener;
+
     /**
      * Constructor.
      */
@@ -87,6 +100,22 @@ public class ByteHouseResultSet implements SQLResultSet {
             final String table,
             final Block header,
             final CheckedIterator<DataResponse, SQLException> dataResponses
+    ) {
+        this(statement, cfg, db, table, header, dataResponses, null);
+    }
+
+    /**
+     * Constructor for a result streamed from the server, closing it before the end cancels
+     * {@code queryResult}.
+     */
+    public ByteHouseResultSet(
+            final ByteHouseStatement statement,
+            final ByteHouseConfig cfg,
+            final String db,
+            final String table,
+            final Block header,
+            final CheckedIterator<DataResponse, SQLException> dataResponses,
+            @Nullable final QueryResult queryResult
     ) {
         this.statement = statement;
         this.cfg = cfg;
@@ -94,6 +123,7 @@ public class ByteHouseResultSet implements SQLResultSet {
         this.table = table;
         this.header = header;
         this.dataResponses = dataResponses;
+        this.queryResult = queryResult;
     }
 
     @Override
@@ -208,7 +238,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     @Override
     public byte getByte(final int position) throws SQLException {
-        final Object data = getInternalObject(position);
+        final IColumn column = getInternalColumn(position);
+        if (column instanceof ColumnPrimitive) {
+            return (byte) ((ColumnPrimitive) column).intValue(currentRowNum);
+        }
+        final Object data = column.value(currentRowNum);
         if (data == null) {
             return 0;
         }
@@ -217,7 +251,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     @Override
     public short getShort(final int position) throws SQLException {
-        final Object data = getInternalObject(position);
+        final IColumn column = getInternalColumn(position);
+        if (column instanceof ColumnPrimitive) {
+            return (short) ((ColumnPrimitive) column).intValue(currentRowNum);
+        }
+        final Object data = column.value(currentRowNum);
         if (data == null) {
             return 0;
         }
@@ -226,7 +264,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     @Override
     public int getInt(final int position) throws SQLException {
-        final Object data = getInternalObject(position);
+        final IColumn column = getInternalColumn(position);
+        if (column instanceof ColumnPrimitive) {
+            return ((ColumnPrimitive) column).intValue(currentRowNum);
+        }
+        final Object data = column.value(currentRowNum);
         if (data == null) {
             return 0;
         }
@@ -235,7 +277,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     @Override
     public long getLong(final int position) throws SQLException {
-        final Object data = getInternalObject(position);
+        final IColumn column = getInternalColumn(position);
+        if (column instanceof ColumnPrimitive) {
+            return ((ColumnPrimitive) column).longValue(currentRowNum);
+        }
+        final Object data = column.value(currentRowNum);
         if (data == null) {
             return 0;
         }
@@ -244,7 +290,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     @Override
     public float getFloat(final int position) throws SQLException {
-        final Object data = getInternalObject(position);
+        final IColumn column = getInternalColumn(position);
+        if (column instanceof ColumnPrimitive) {
+            return (float) ((ColumnPrimitive) column).doubleValue(currentRowNum);
+        }
+        final Object data = column.value(currentRowNum);
         if (data == null) {
             return 0;
         }
@@ -253,7 +303,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     @Override
     public double getDouble(final int position) throws SQLException {
-        final Object data = getInternalObject(position);
+        final IColumn column = getInternalColumn(position);
+        if (column instanceof ColumnPrimitive) {
+            return ((ColumnPrimitive) column).doubleValue(currentRowNum);
+        }
+        final Object data = column.value(currentRowNum);
         if (data == null) {
             return 0;
         }
@@ -373,6 +427,10 @@ public class ByteHouseResultSet implements SQLResultSet {
     }
 
     private Object getInternalObject(final int position) throws SQLException {
+        return getInternalColumn(position).value(currentRowNum);
+    }
+
+    private IColumn getInternalColumn(final int position) throws SQLException {
         if (LOG.isTraceEnabled()) {
             LOG.trace("get object at row: {}, column position: {} from block with "
                             + "column count: {}, row count: {}",
@@ -381,10 +439,8 @@ public class ByteHouseResultSet implements SQLResultSet {
         ValidateUtils.isTrue(currentRowNum >= 0 && currentRowNum < currentBlock.rowCnt(),
                 "No row information was obtained. You must call "
                         + "ResultSet.next() before that.");
-        final IColumn column = (lastFetchBlock = currentBlock).getColumn(
-                (lastFetchColumnIdx = position - 1)
-        );
-        return column.value((lastFetchRowIdx = currentRowNum));
+        lastFetchRowIdx = currentRowNum;
+        return (lastFetchBlock = currentBlock).getColumn((lastFetchColumnIdx = position - 1));
     }
 
     @Override
@@ -419,7 +475,11 @@ public class ByteHouseResultSet implements SQLResultSet {
 
     @Override
     public void setFetchSize(final int rows) throws SQLException {
-
+        ValidateUtils.isTrue(rows >= 0, "Illegal fetch size: " + rows);
+        this.fetchSize = rows;
+        if (dataResponses instanceof PrefetchingDataIterator) {
+            ((PrefetchingDataIterator) dataResponses).setFetchSize(rows);
+        }
     }
 
     /**
@@ -434,12 +494,13 @@ public class ByteHouseResultSet implements SQLResultSet {
     }
 
     /**
-     * Returns 0 to indicate that the driver will decide what the fetchSize should be.
-     * User should set max_block_size in query settings to alter fetchSize instead.
+     * Returns 0 unless set, to indicate that the driver will decide what the fetchSize should be.
+     * The server sends blocks of up to max_block_size rows regardless, the fetch size only bounds
+     * how many rows are read ahead when result_prefetch is enabled.
      */
     @Override
     public int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
 
     @Override
@@ -465,7 +526,8 @@ public class ByteHouseResultSet implements SQLResultSet {
                 lastFetchRowIdx >= 0 && lastFetchRowIdx < lastFetchBlock.rowCnt(),
                 "Please call Result.next()"
         );
-        return lastFetchBlock.getColumn(lastFetchColumnIdx).value(lastFetchRowIdx) == null;
+        final IColumn column = lastFetchBlock.getColumn(lastFetchColumnIdx);
+        return !(column instanceof ColumnPrimitive) && column.value(lastFetchRowIdx) == null;
     }
 
     @Override
@@ -511,10 +573,44 @@ public class ByteHouseResultSet implements SQLResultSet {
      */
     @Override
     public void close() throws SQLException {
-        // consume remaining responses
+        try {
+            consumeRemaining();
+        } finally {
+            final Runnable listener = closeListener;
+            closeListener = null;
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * sets what to run once this result set is closed, the connection is free for another
+     * query at that point.
+     */
+    void onClose(final Runnable listener) {
+        this.closeListener = listener;
+    }
+
+    private void consumeRemaining() throws SQLException {
+        // consume remaining responses, a query still running is cancelled first so that
+        // they are discarded without decoding
         if (dataResponses != null) {
-            while (dataResponses.hasNext()) {
-                dataResponses.next();
+            final boolean cancelled = queryResult != null
+                    && queryResult.cancel(new SQLException("ResultSet closed"));
+            try {
+                while (dataResponses.hasNext()) {
+                    dataResponses.next();
+                }
+            } catch (SQLException e) {
+                if (!cancelled) {
+                    throw e;
+                }
+                LOG.debug("query cancelled on close: {}", e.getMessage());
+            } finally {
+                if (dataResponses instanceof PrefetchingDataIterator) {
+                    ((PrefetchingDataIterator) dataResponses).close();
+                }
             }
         }
         // reset variables
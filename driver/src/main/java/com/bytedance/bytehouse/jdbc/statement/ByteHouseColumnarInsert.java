@@ -0,0 +1,60 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.jdbc.statement;
+
+import java.sql.SQLException;
+import javax.annotation.Nullable;
+
+/**
+ * Column-wise batch API of an insert {@link java.sql.PreparedStatement}, obtained through
+ * {@code preparedStatement.unwrap(ByteHouseColumnarInsert.class)}.
+ * <br><br>
+ * Set one array per placeholder, then call {@link #addColumnarBatch(int)} to append the rows.
+ * Fixed-width numeric arrays are copied into the native block without boxing each value.
+ * Blocks are sent as they fill up. {@link java.sql.PreparedStatement#executeBatch()} sends
+ * the rest, as it does for rows added one at a time.
+ * <br><br>
+ * Parameter indexes start with 1, as in {@link java.sql.PreparedStatement#setObject(int, Object)}.
+ * A null mask marks the rows that are NULL; it may only be non-null for Nullable columns.
+ */
+public interface ByteHouseColumnarInsert {
+
+    void setInts(int paramPosition, int[] values, @Nullable boolean[] nulls) throws SQLException;
+
+    void setLongs(int paramPosition, long[] values, @Nullable boolean[] nulls) throws SQLException;
+
+    void setDoubles(int paramPosition, double[] values, @Nullable boolean[] nulls) throws SQLException;
+
+    /**
+     * null elements are handled as in {@link java.sql.PreparedStatement#setObject(int, Object)}.
+     */
+    void setStrings(int paramPosition, String[] values) throws SQLException;
+
+    /**
+     * null elements are handled as in {@link java.sql.PreparedStatement#setObject(int, Object)}.
+     */
+    void setBytes(int paramPosition, byte[][] values) throws SQLException;
+
+    /**
+     * append the first {@code rows} rows of the arrays set since the last call.
+     * Every placeholder must have been set with an array of at least {@code rows} elements.
+     * <br><br>
+     * Every value is converted before any is appended, so a value that cannot be converted
+     * fails the call without adding any of its rows. A batch larger than what is left of
+     * {@code max_block_size} in the current block is split over several blocks.
+     */
+    void addColumnarBatch(int rows) throws SQLException;
+}
@@ -16,6 +16,7 @@
 package com.bytedance.bytehouse.jdbc.statement;
 
 import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.data.ColumnarWriteUtils;
 import com.bytedance.bytehouse.data.DataTypeConverter;
 import com.bytedance.bytehouse.data.IColumn;
 import com.bytedance.bytehouse.exception.ByteHouseClientException;
@@ -26,13 +27,20 @@ import com.bytedance.bytehouse.log.LoggerFactoryUtils;
 import com.bytedance.bytehouse.misc.ExceptionUtil;
 import com.bytedance.bytehouse.misc.InfileCSVReaderUtils;
 import com.bytedance.bytehouse.misc.SQLParserUtils;
+import com.bytedance.bytehouse.stream.AsyncBlockSender;
+import com.bytedance.bytehouse.stream.InfileChunkReader;
+import com.bytedance.bytehouse.stream.ParallelInfileInserter;
 import com.bytedance.bytehouse.stream.ValuesWithParametersNativeInputFormat;
+import java.lang.reflect.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import javax.annotation.Nullable;
+import org.apache.commons.csv.CSVRecord;
 
-public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement {
+public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement implements ByteHouseColumnarInsert {
 
     private static final Logger LOG = LoggerFactoryUtils.getLogger(ByteHousePreparedInsertStatement.class);
 
@@ -46,6 +54,18 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
 
     private int rowInsertedCount;
 
+    // column arrays and null masks set through ByteHouseColumnarInsert, indexed by column
+    private Object[] columnarValues;
+
+    private boolean[][] columnarNulls;
+
+    // columns given as constants in the VALUES clause, a constant may be NULL
+    private BitSet constColumns;
+
+    // created on the first full block with insert_async_send
+    @Nullable
+    private AsyncBlockSender asyncSender;
+
     public ByteHousePreparedInsertStatement(
             final String insertQueryPart,
             final String valuePart,
@@ -73,6 +93,76 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
         block.setObject(columnIdx, dataTypeConverter.convertJdbcToJava(column.type(), x));
     }
 
+    @Override
+    public void setInts(final int paramPosition, final int[] values, final boolean[] nulls) throws SQLException {
+        setColumnarValues(paramPosition, values, nulls);
+    }
+
+    @Override
+    public void setLongs(final int paramPosition, final long[] values, final boolean[] nulls) throws SQLException {
+        setColumnarValues(paramPosition, values, nulls);
+    }
+
+    @Override
+    public void setDoubles(final int paramPosition, final double[] values, final boolean[] nulls) throws SQLException {
+        setColumnarValues(paramPosition, values, nulls);
+    }
+
+    @Override
+    public void setStrings(final int paramPosition, final String[] values) throws SQLException {
+        setColumnarValues(paramPosition, values, null);
+    }
+
+    @Override
+    public void setBytes(final int paramPosition, final byte[][] values) throws SQLException {
+        setColumnarValues(paramPosition, values, null);
+    }
+
+    @Override
+    public void addColumnarBatch(final int rows) throws SQLException {
+        initColumnarArraysIfNeeded();
+        for (int i = 0; i < block.columnCnt(); i++) {
+            final Object values = columnarValues[i];
+            if (values == null && !constColumns.get(i)) {
+                throw new SQLException("Column " + block.getColumn(i).name() + " is not set for the columnar batch");
+            }
+            if (values != null && Array.getLength(values) < rows) {
+                throw new SQLException("Column " + block.getColumn(i).name() + " has less than " + rows + " values");
+            }
+            final boolean[] nulls = columnarNulls[i];
+            if (nulls != null && nulls.length < rows) {
+                throw new SQLException("Column " + block.getColumn(i).name() + " has less than " + rows + " null flags");
+            }
+        }
+        try {
+            // convert every column before writing any, so a bad value leaves the block untouched
+            final ColumnarWriteUtils.Prepared[] prepared = new ColumnarWriteUtils.Prepared[block.columnCnt()];
+            for (int i = 0; i < prepared.length; i++) {
+                final Object values = columnarValues[i];
+                prepared[i] = values == null
+                        // constant from the VALUES clause
+                        ? ColumnarWriteUtils.constant(block.getObject(i))
+                        : ColumnarWriteUtils.prepare(block.getColumn(i), values, columnarNulls[i], rows, dataTypeConverter);
+            }
+            // split the batch so no block grows past max_block_size
+            for (int offset = 0; offset < rows; ) {
+                final int chunk = (int) Math.min(rows - offset, Math.max(1, cfg.maxBlockSize() - block.rowCnt()));
+                final int from = offset;
+                ExceptionUtil.rethrowSQLException(() -> {
+                    for (int i = 0; i < prepared.length; i++) {
+                        prepared[i].write(block.getColumn(i), from, chunk);
+                    }
+                });
+                block.appendRows(chunk);
+                offset += chunk;
+                executeBatchIfReachMaxSize();
+            }
+        } finally {
+            Arrays.fill(columnarValues, null);
+            Arrays.fill(columnarNulls, null);
+        }
+    }
+
     @Override
     public boolean execute() throws SQLException {
         return executeQuery() != null;
@@ -81,6 +171,7 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
     @Override
     public int executeUpdate() throws SQLException {
         addParameters();
+        awaitAsyncSend();
         int result = creator.sendInsertRequest(block);
         this.blockInit = false;
         this.block.initWriteBuffer();
@@ -100,23 +191,121 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
     }
 
     private void executeBatchIfReachMaxSize() throws SQLException {
+        if (asyncSender != null) {
+            asyncSender.throwIfFailed();
+        }
         if (block.rowCnt() < cfg.maxBlockSize()) {
             return;
         }
+        if (cfg.insertAsyncSend()) {
+            if (asyncSender == null) {
+                asyncSender = new AsyncBlockSender(creator::sendBlock);
+            }
+            block = asyncSender.send(block);
+            return;
+        }
         rowInsertedCount += creator.sendBlock(block);
         block.reuseBlock();
     }
 
-    public int executeCSVBlock(InfileCSVReaderUtils.CSVBlock csvBlock, boolean hasHeader) throws SQLException {
-        for (List<String> recordList: csvBlock.getRows()) {
-            for (int i=0; i<recordList.size(); i++) {
-                int headerIndex = hasHeader ? this.block.getPositionByName(csvBlock.getHeaders().get(i)) : (i+1);
-                this.setObject(headerIndex, recordList.get(i));
+    /**
+     * waits for the block sent in the background, if any, before the insert is completed.
+     */
+    private void awaitAsyncSend() throws SQLException {
+        if (asyncSender != null) {
+            asyncSender.await();
+            rowInsertedCount += asyncSender.takeSentRows();
+        }
+    }
+
+    /**
+     * inserts every record of {@code records}, sending a block each time it reaches
+     * {@code max_block_size} rows so memory stays bounded whatever the file size.
+     * <br><br>
+     * The insert is not atomic: if a record can't be read or converted, the blocks already sent
+     * stay committed, the rows not sent yet are dropped and the insert is ended.
+     *
+     * @return the number of inserted rows, saturated at {@link Integer#MAX_VALUE}.
+     */
+    public int executeCSV(final InfileCSVReaderUtils.CSVRecordStream records) throws SQLException {
+        initBlockIfPossible();
+        final int[] paramPositions = new int[records.getColumnCount()];
+        long rows = 0;
+        try {
+            for (int i = 0; i < paramPositions.length; i++) {
+                paramPositions[i] = records.getHeaders().isEmpty()
+                        ? i + 1
+                        : this.block.getPositionByName(records.getHeaders().get(i));
             }
-            this.addBatch();
+            while (records.hasNext()) {
+                final CSVRecord record = records.next();
+                for (int i = 0; i < paramPositions.length; i++) {
+                    this.setObject(paramPositions[i], record.get(i));
+                }
+                this.addBatch();
+                rows++;
+            }
+            awaitAsyncSend();
+        } catch (SQLException | RuntimeException e) {
+            abortInsert(e);
+            throw e;
+        }
+        creator.sendInsertRequest(block);
+        this.blockInit = false;
+        this.block.initWriteBuffer();
+        this.rowInsertedCount = 0;
+        return (int) Math.min(rows, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the block column of every value of a record, matched by name against {@code headers}
+     * unless they are empty.
+     */
+    public int[] columnIndexes(final List<String> headers, final int columnCount) throws SQLException {
+        initBlockIfPossible();
+        final int[] columnIdx = new int[columnCount];
+        try {
+            for (int i = 0; i < columnCount; i++) {
+                final int paramPosition = headers.isEmpty() ? i + 1 : this.block.getPositionByName(headers.get(i));
+                columnIdx[i] = this.block.paramIdx2ColumnIdx(paramPosition - 1);
+            }
+        } catch (SQLException | RuntimeException e) {
+            abortInsert(e);
+            throw e;
         }
-        this.executeBatch();
-        return csvBlock.getRowCount();
+        return columnIdx;
+    }
+
+    /**
+     * inserts the chunks left in {@code chunks}, parsing them on {@code insert_infile_parallelism}
+     * threads, at least one, while this thread sends the blocks in file order.
+     * <br><br>
+     * As with {@link #executeCSV}, a chunk that can't be read or parsed ends the insert, the blocks
+     * of the chunks before it stay committed.
+     *
+     * @return the number of inserted rows, saturated at {@link Integer#MAX_VALUE}.
+     */
+    public int executeInfile(
+            final InfileChunkReader chunks,
+            final ParallelInfileInserter.ChunkParser parser
+    ) throws SQLException {
+        initBlockIfPossible();
+        final ParallelInfileInserter inserter = new ParallelInfileInserter(
+                Math.max(1, cfg.insertInfileParallelism()), cfg.maxBlockSize(), dataTypeConverter);
+        final long rows;
+        try {
+            rows = ExceptionUtil.rethrowSQLException(
+                    () -> inserter.insert(chunks, block, parser, creator::sendBlock));
+            awaitAsyncSend();
+        } catch (SQLException | RuntimeException e) {
+            abortInsert(e);
+            throw e;
+        }
+        creator.sendInsertRequest(block);
+        this.blockInit = false;
+        this.block.initWriteBuffer();
+        this.rowInsertedCount = 0;
+        return (int) Math.min(rows, Integer.MAX_VALUE);
     }
 
     @Override
@@ -125,6 +314,7 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
 
     @Override
     public int[] executeBatch() throws SQLException {
+        awaitAsyncSend();
         rowInsertedCount += creator.sendInsertRequest(block);
         final int[] result = new int[rowInsertedCount];
         Arrays.fill(result, 1);
@@ -137,6 +327,13 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
 
     @Override
     public void close() throws SQLException {
+        if (asyncSender != null) {
+            try {
+                asyncSender.await();
+            } catch (SQLException e) {
+                LOG.warn("failed to send insert block before close: {}", e.getMessage());
+            }
+        }
         if (blockInit) {
             this.blockInit = false;
             this.block.initWriteBuffer();
@@ -170,6 +367,28 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
         return sb.toString();
     }
 
+    /**
+     * ends the insert after {@code cause} was thrown in the middle of it, dropping the rows that
+     * were not sent yet so the connection can run other queries.
+     */
+    private void abortInsert(final Exception cause) {
+        try {
+            if (asyncSender != null) {
+                asyncSender.await();
+            }
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+        try {
+            creator.abortInsert();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+        this.blockInit = false;
+        this.block.initWriteBuffer();
+        this.rowInsertedCount = 0;
+    }
+
     private void initBlockIfPossible() throws SQLException {
         if (this.blockInit) {
             return;
@@ -179,10 +398,31 @@ public class ByteHousePreparedInsertStatement extends AbstractPreparedStatement
             this.block = creator.getSampleBlock(queryId, insertQueryPart);
             this.block.initWriteBuffer();
             this.blockInit = true;
-            new ValuesWithParametersNativeInputFormat(0, valuePart).fill(block);
+            final ValuesWithParametersNativeInputFormat format = new ValuesWithParametersNativeInputFormat(0, valuePart);
+            format.fill(block);
+            this.constColumns = format.constIdxFlags();
         });
     }
 
+    private void setColumnarValues(
+            final int paramPosition,
+            final Object values,
+            final boolean[] nulls
+    ) throws SQLException {
+        initColumnarArraysIfNeeded();
+        final int columnIdx = block.paramIdx2ColumnIdx(paramPosition - 1);
+        columnarValues[columnIdx] = values;
+        columnarNulls[columnIdx] = nulls;
+    }
+
+    private void initColumnarArraysIfNeeded() throws SQLException {
+        initBlockIfPossible();
+        if (columnarValues == null) {
+            columnarValues = new Object[block.columnCnt()];
+            columnarNulls = new boolean[block.columnCnt()][];
+        }
+    }
+
     private void addParameters() throws SQLException {
         block.appendRow();
     }
@@ -15,31 +15,63 @@
  */
 package com.bytedance.bytehouse.jdbc.statement;
 
+import com.bytedance.bytehouse.buffer.BuffedWriter;
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.buffer.CompressedBuffedWriter;
+import com.bytedance.bytehouse.buffer.SocketBuffedWriter;
 import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.data.IDataType;
 import com.bytedance.bytehouse.jdbc.ByteHouseConnection;
 import com.bytedance.bytehouse.jdbc.ByteHouseResultSet;
 import com.bytedance.bytehouse.jdbc.wrapper.SQLWrapper;
 import com.bytedance.bytehouse.log.Logger;
 import com.bytedance.bytehouse.log.LoggerFactoryUtils;
 import com.bytedance.bytehouse.log.Logging;
+import com.bytedance.bytehouse.misc.CheckedIterator;
 import com.bytedance.bytehouse.misc.ExceptionUtil;
 import com.bytedance.bytehouse.misc.InfileCSVReaderUtils;
+import com.bytedance.bytehouse.misc.InfileJSONReaderUtils;
+import com.bytedance.bytehouse.misc.InfileNativeReaderUtils;
+import com.bytedance.bytehouse.misc.InfileTSVReaderUtils;
 import com.bytedance.bytehouse.misc.SQLParserUtils;
 import com.bytedance.bytehouse.misc.SqlParserCaseExpressionUtils;
 import com.bytedance.bytehouse.misc.SqlParserDateFormatUtils;
 import com.bytedance.bytehouse.misc.SqlParserOrExpressionUtils;
 import com.bytedance.bytehouse.misc.ValidateUtils;
+import com.bytedance.bytehouse.protocol.RawDataResponse;
+import com.bytedance.bytehouse.settings.BHConstants;
 import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import com.bytedance.bytehouse.settings.CompressionMethod;
 import com.bytedance.bytehouse.settings.SettingKey;
+import com.bytedance.bytehouse.stream.InfileChunkReader;
+import com.bytedance.bytehouse.stream.ParallelInfileInserter;
 import com.bytedance.bytehouse.stream.QueryResult;
+import com.bytedance.bytehouse.stream.QueryResultPublisher;
+import com.bytedance.bytehouse.stream.ReactiveFlow;
 import com.bytedance.bytehouse.stream.ValuesNativeInputFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * {@link Statement} implementation for Bytehouse.
@@ -58,6 +90,18 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
 
     private static final String CSV_WITH_HEADER_IDENTIFIER = "csvwithnames";
 
+    private static final String TSV_IDENTIFIER = "tsv";
+
+    private static final String TAB_SEPARATED_IDENTIFIER = "tabseparated";
+
+    private static final String TSV_WITH_HEADER_IDENTIFIER = "tsvwithnames";
+
+    private static final String TAB_SEPARATED_WITH_HEADER_IDENTIFIER = "tabseparatedwithnames";
+
+    private static final String JSON_EACH_ROW_IDENTIFIER = "jsoneachrow";
+
+    private static final String NATIVE_IDENTIFIER = "native";
+
     protected final ByteHouseConnection creator;
 
     protected final String defaultDb;
@@ -71,6 +115,18 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
 
     private long maxRows;
 
+    private int fetchSize;
+
+    // the query whose responses are being read, cancelled by cancel() from any thread
+    @Nullable
+    private volatile QueryResult runningQuery;
+
+    // set by setQueryTimeout, the timeout of the connection only applies to socket reads
+    private boolean enforceQueryTimeout;
+
+    @Nullable
+    private ScheduledFuture<?> timeoutWatch;
+
     private int updateCount = -1;
     // =========  END: temporary variables per execution ===========
 
@@ -109,6 +165,8 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
         if (lastResultSet != null) {
             lastResultSet.close();
         }
+        stopTimeoutWatch();
+        runningQuery = null;
 
         final String queryId = consumeQueryId();
         return ExceptionUtil.rethrowSQLException(() -> {
@@ -127,24 +185,58 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
             } else if (this.cfg.insertInfileLocal() && SQLParserUtils.isInsertInfileQuery(query)) {
                 final SQLParserUtils.InsertInfileQueryParts parts = SQLParserUtils.splitInsertInfileQuery(query);
 
-                boolean hasHeader = parts.formatPart.equals(CSV_WITH_HEADER_IDENTIFIER);
-                InfileCSVReaderUtils.CSVBlock csvBlock = InfileCSVReaderUtils.fromCSV(parts.fileLocationPart, this.creator.cfg().formatCSVDelimiter(), hasHeader);
-                final String insertQuery = SQLParserUtils.appendQuestionMarks(parts.queryPart, csvBlock.getColumnCount());
-                ByteHousePreparedInsertStatement preparedStatement = (ByteHousePreparedInsertStatement) this.creator.prepareStatement(insertQuery);
-                return updateCount = preparedStatement.executeCSVBlock(csvBlock, hasHeader);
+                switch (parts.formatPart.toLowerCase(Locale.ROOT)) {
+                    case NATIVE_IDENTIFIER:
+                        return updateCount = executeNativeInfile(queryId, parts);
+                    case JSON_EACH_ROW_IDENTIFIER:
+                        return updateCount = executeJSONEachRowInfile(parts);
+                    case TSV_IDENTIFIER:
+                    case TAB_SEPARATED_IDENTIFIER:
+                        return updateCount = executeTSVInfile(parts, false);
+                    case TSV_WITH_HEADER_IDENTIFIER:
+                    case TAB_SEPARATED_WITH_HEADER_IDENTIFIER:
+                        return updateCount = executeTSVInfile(parts, true);
+                    default:
+                        break;
+                }
+                boolean hasHeader = parts.formatPart.equalsIgnoreCase(CSV_WITH_HEADER_IDENTIFIER);
+                if (cfg.insertInfileParallelism() > 1) {
+                    final String delimiter = this.creator.cfg().formatCSVDelimiter();
+                    return updateCount = executeInfileInChunks(
+                            parts,
+                            hasHeader,
+                            '"',
+                            bytes -> InfileCSVReaderUtils.parseRecord(bytes, delimiter),
+                            columnIdx -> InfileCSVReaderUtils.csvChunkParser(delimiter, columnIdx)
+                    );
+                }
+                try (InfileCSVReaderUtils.CSVRecordStream records = InfileCSVReaderUtils.openCSV(
+                        parts.fileLocationPart, this.creator.cfg().formatCSVDelimiter(), hasHeader)) {
+                    final String insertQuery = SQLParserUtils.appendQuestionMarks(parts.queryPart, records.getColumnCount());
+                    ByteHousePreparedInsertStatement preparedStatement = (ByteHousePreparedInsertStatement) this.creator.prepareStatement(insertQuery);
+                    return updateCount = preparedStatement.executeCSV(records);
+                }
             } else {
                 final SQLParserUtils.DbTable dbTable = SQLParserUtils.extractDBAndTableName(query);
                 // other statement we return 0.
                 updateCount = -1;
                 final QueryResult result = creator.sendQueryRequest(queryId, query, cfg);
+                runningQuery = result;
+                if (enforceQueryTimeout) {
+                    timeoutWatch = QueryWatchdog.watch(result, cfg.queryTimeout());
+                }
                 lastResultSet = new ByteHouseResultSet(
                         this,
                         cfg,
                         dbTable.getDbOrDefault(this.defaultDb),
                         dbTable.getTable(),
                         result.header(),
-                        result.data()
+                        cfg.resultPrefetch()
+                                ? creator.prefetch(result, fetchSize)
+                                : result.data(),
+                        result
                 );
+                lastResultSet.setFetchSize(fetchSize);
                 return 0;
             }
         });
@@ -159,6 +251,101 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
         return getResultSet();
     }
 
+    /**
+     * @return a publisher of the blocks of {@code query} for one subscriber, the query is sent
+     * when the subscriber first requests blocks and blocks are only read from the server as they
+     * are requested, see {@link QueryResultPublisher}. Reads run on {@code executor}.
+     * <br><br>
+     * Like a {@link ResultSet}, the result holds the connection until it completes or the
+     * subscription is cancelled.
+     */
+    public ReactiveFlow.Publisher<Block> publish(final String query, final Executor executor) {
+        return new QueryResultPublisher(() -> {
+            if (lastResultSet != null) {
+                lastResultSet.close();
+            }
+            lastResultSet = null; // NOPMD assigning null smells
+            stopTimeoutWatch();
+            updateCount = -1;
+
+            final QueryResult result = creator.sendQueryRequest(consumeQueryId(), query, cfg);
+            runningQuery = result;
+            return result;
+        }, executor);
+    }
+
+    /**
+     * runs {@code query} and writes its result to {@code out} in Native format, as
+     * {@code FORMAT Native} would. Blocks are copied as the server sent them, their columns are
+     * never decoded.
+     *
+     * @return the number of rows written.
+     */
+    public long exportNative(final String query, final OutputStream out) throws SQLException {
+        return exportNative(query, out, false);
+    }
+
+    /**
+     * same as {@link #exportNative(String, OutputStream)}, with {@code compressed} the output is
+     * cut into frames compressed with {@link ByteHouseConfig#compressionMethod()}, which
+     * {@code clickhouse-compressor --decompress} reads back.
+     * <br><br>
+     * {@code out} is flushed but not closed.
+     */
+    public long exportNative(
+            final String query,
+            final OutputStream out,
+            final boolean compressed
+    ) throws SQLException {
+        if (lastResultSet != null) {
+            lastResultSet.close();
+        }
+        lastResultSet = null; // NOPMD assigning null smells
+        stopTimeoutWatch();
+        updateCount = -1;
+
+        final QueryResult result = creator.sendQueryRequest(consumeQueryId(), query, cfg);
+        runningQuery = result;
+        if (enforceQueryTimeout) {
+            timeoutWatch = QueryWatchdog.watch(result, cfg.queryTimeout());
+        }
+        try {
+            final BuffedWriter sink = new SocketBuffedWriter(BHConstants.SOCKET_SEND_BUFFER_BYTES, out);
+            final BuffedWriter writer = compressed
+                    ? new CompressedBuffedWriter(
+                            BHConstants.SOCKET_SEND_BUFFER_BYTES,
+                            sink,
+                            CompressionMethod.fromString(cfg.compressionMethod()))
+                    : sink;
+
+            long rows = 0;
+            final CheckedIterator<RawDataResponse, SQLException> blocks = result.rawData();
+            while (blocks.hasNext()) {
+                final RawDataResponse block = blocks.next();
+                if (block.rows() == 0) {
+                    continue;
+                }
+                try {
+                    block.block().transferTo(writer);
+                    rows += block.rows();
+                } catch (IOException e) {
+                    // the remaining blocks are discarded, then the cancel reason is thrown by hasNext
+                    result.cancel(new SQLException("Failed to write exported block", e));
+                }
+            }
+            try {
+                writer.flushToTarget(true);
+                sink.flushToTarget(true);
+            } catch (IOException e) {
+                throw new SQLException("Failed to write exported block", e);
+            }
+            return rows;
+        } finally {
+            stopTimeoutWatch();
+            runningQuery = null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -197,6 +384,8 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
         if (lastResultSet != null) {
             lastResultSet.close();
         }
+        stopTimeoutWatch();
+        runningQuery = null;
         this.isClosed = true;
     }
 
@@ -215,11 +404,17 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
         return this.isClosed;
     }
 
+    /**
+     * Asks the server to stop the running query, can be called from any thread. The thread
+     * reading the {@link ResultSet} gets an exception once the responses in flight are discarded.
+     */
     @Override
     public void cancel() throws SQLException {
         LOG.debug("cancel Statement");
-        // TODO send cancel request and clear responses
-        this.close();
+        final QueryResult running = runningQuery;
+        if (running != null) {
+            running.cancel(new SQLException("Statement cancelled"));
+        }
     }
 
     @Override
@@ -245,9 +440,14 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
         return (int) cfg.queryTimeout().getSeconds();
     }
 
+    /**
+     * Besides bounding each socket read, a query running for longer is cancelled and its
+     * {@link ResultSet} throws {@link java.sql.SQLTimeoutException}.
+     */
     @Override
     public void setQueryTimeout(final int seconds) {
         this.cfg = cfg.withQueryTimeout(Duration.ofSeconds(seconds));
+        this.enforceQueryTimeout = seconds > 0;
     }
 
     @Override
@@ -257,7 +457,8 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
 
     @Override
     public void setFetchSize(final int rows) throws SQLException {
-
+        ValidateUtils.isTrue(rows >= 0, "Illegal fetch size: " + rows);
+        this.fetchSize = rows;
     }
 
     /**
@@ -272,12 +473,13 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
     }
 
     /**
-     * Returns 0 to indicate that the driver will decide what the fetchSize should be.
-     * User should set max_block_size in query settings to alter fetchSize instead.
+     * Returns 0 unless set, to indicate that the driver will decide what the fetchSize should be.
+     * The server sends blocks of up to max_block_size rows regardless, the fetch size only bounds
+     * how many rows are read ahead when result_prefetch is enabled.
      */
     @Override
     public int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
 
     @Override
@@ -398,4 +600,131 @@ public class ByteHouseStatement extends ByteHouseQueryId implements Statement, S
     public Logger logger() {
         return ByteHouseStatement.LOG;
     }
+
+    private void stopTimeoutWatch() {
+        if (timeoutWatch != null) {
+            timeoutWatch.cancel(false);
+            timeoutWatch = null;
+        }
+    }
+
+    /**
+     * inserts a file whose records are separated by line breaks through
+     * {@link ByteHousePreparedInsertStatement#executeInfile}, the first record gives the column
+     * count and, with {@code hasHeader}, the column names.
+     */
+    private int executeInfileInChunks(
+            final SQLParserUtils.InsertInfileQueryParts parts,
+            final boolean hasHeader,
+            final int quote,
+            final ExceptionUtil.CheckedFunction<ByteBuffer, List<String>> recordParser,
+            final Function<int[], ParallelInfileInserter.ChunkParser> chunkParser
+    ) throws Exception {
+        try (InfileChunkReader chunks = new InfileChunkReader(
+                Paths.get(parts.fileLocationPart), BHConstants.INFILE_CHUNK_BYTES, quote)) {
+            final List<String> first = recordParser.apply(hasHeader ? chunks.nextRecord() : chunks.peekRecord());
+            final String insertQuery = SQLParserUtils.appendQuestionMarks(parts.queryPart, first.size());
+            ByteHousePreparedInsertStatement preparedStatement = (ByteHousePreparedInsertStatement) this.creator.prepareStatement(insertQuery);
+            final int[] columnIdx = preparedStatement.columnIndexes(
+                    hasHeader ? first : Collections.emptyList(), first.size());
+            return preparedStatement.executeInfile(chunks, chunkParser.apply(columnIdx));
+        }
+    }
+
+    private int executeTSVInfile(
+            final SQLParserUtils.InsertInfileQueryParts parts,
+            final boolean hasHeader
+    ) throws Exception {
+        return executeInfileInChunks(
+                parts,
+                hasHeader,
+                InfileChunkReader.NO_QUOTE,
+                InfileTSVReaderUtils::parseRecord,
+                InfileTSVReaderUtils::tsvChunkParser
+        );
+    }
+
+    /**
+     * the columns are those listed in the query, or else the keys of the first object.
+     */
+    private int executeJSONEachRowInfile(final SQLParserUtils.InsertInfileQueryParts parts) throws Exception {
+        try (InfileChunkReader chunks = new InfileChunkReader(
+                Paths.get(parts.fileLocationPart), BHConstants.INFILE_CHUNK_BYTES, InfileChunkReader.NO_QUOTE)) {
+            final SQLParserUtils.InsertColumns insertColumns = SQLParserUtils.extractInsertColumns(parts.queryPart);
+            final List<String> columns = new ArrayList<>(insertColumns.columns);
+            final String query;
+            if (!columns.isEmpty()) {
+                query = parts.queryPart;
+            } else {
+                columns.addAll(InfileJSONReaderUtils.parseKeys(chunks.peekRecord()));
+                query = (parts.queryPart.substring(0, insertColumns.end)
+                        + columns.stream()
+                        .map(column -> "`" + column + "`")
+                        .collect(Collectors.joining(", ", " (", ") "))
+                        + parts.queryPart.substring(insertColumns.end)).trim();
+            }
+            final String insertQuery = SQLParserUtils.appendQuestionMarks(query, columns.size());
+            ByteHousePreparedInsertStatement preparedStatement = (ByteHousePreparedInsertStatement) this.creator.prepareStatement(insertQuery);
+            final int[] columnIdx = preparedStatement.columnIndexes(columns, columns.size());
+            final Map<String, Integer> columnIdxByName = new HashMap<>();
+            for (int i = 0; i < columnIdx.length; i++) {
+                columnIdxByName.put(columns.get(i), columnIdx[i]);
+            }
+            return preparedStatement.executeInfile(chunks, InfileJSONReaderUtils.jsonEachRowChunkParser(columnIdxByName));
+        }
+    }
+
+    /**
+     * forwards the blocks of a Native file without decoding their columns. Blocks without rows
+     * are skipped, the server takes an empty data packet as the end of the insert.
+     * <br><br>
+     * A block that can't be read or whose columns differ from the insert's ends the insert, the
+     * blocks sent before it stay committed.
+     */
+    private int executeNativeInfile(
+            final String queryId,
+            final SQLParserUtils.InsertInfileQueryParts parts
+    ) throws Exception {
+        try (InfileNativeReaderUtils.NativeBlockStream blocks = InfileNativeReaderUtils.openNative(
+                parts.fileLocationPart, creator.serverContext())) {
+            final Block header = creator.getSampleBlock(queryId, parts.queryPart + " VALUES");
+            long rows = 0;
+            try {
+                ByteArrayReader block;
+                while ((block = blocks.next()) != null) {
+                    checkMatchesHeader(header, blocks);
+                    if (blocks.rows() > 0) {
+                        rows += creator.sendRawBlock(block, blocks.rows());
+                    }
+                }
+            } catch (Exception e) {
+                try {
+                    creator.abortInsert();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            creator.sendInsertRequest(Block.empty());
+            return (int) Math.min(rows, Integer.MAX_VALUE);
+        }
+    }
+
+    private static void checkMatchesHeader(
+            final Block header,
+            final InfileNativeReaderUtils.NativeBlockStream blocks
+    ) throws SQLException {
+        final String[] names = blocks.columnNames();
+        final IDataType<?, ?>[] types = blocks.columnTypes();
+        ValidateUtils.isTrue(names.length == header.columnCnt(),
+                "Native block has " + names.length + " columns, the insert has " + header.columnCnt());
+        for (int i = 0; i < header.columnCnt(); i++) {
+            final IColumn expected = header.getColumn(i);
+            ValidateUtils.isTrue(expected.name().equals(names[i]),
+                    "Column " + (i + 1) + " of Native block is not " + expected.name());
+            ValidateUtils.isTrue(expected.type().name().equals(types[i].name()),
+                    "Column " + expected.name() + " of Native block is " + types[i].name()
+                            + ", not " + expected.type().name());
+        }
+    }
 }
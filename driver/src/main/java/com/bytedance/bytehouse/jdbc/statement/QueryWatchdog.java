@@ -0,0 +1,69 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.jdbc.statement;
+
+import com.bytedance.bytehouse.log.Logger;
+import com.bytedance.bytehouse.log.LoggerFactoryUtils;
+import com.bytedance.bytehouse.stream.QueryResult;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels queries that run past the timeout set by {@link java.sql.Statement#setQueryTimeout}.
+ * <br><br>
+ * The socket timeout only bounds the wait for each response, a query streaming blocks
+ * slowly is stopped here.
+ */
+final class QueryWatchdog {
+
+    private static final Logger LOG = LoggerFactoryUtils.getLogger(QueryWatchdog.class);
+
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        final Thread thread = new Thread(r, "bytehouse-query-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private QueryWatchdog() {
+    }
+
+    /**
+     * cancels {@code result} with a {@link SQLTimeoutException} unless it completes within
+     * {@code timeout}.
+     *
+     * @return the scheduled cancel, to be cancelled once the result is no longer read.
+     */
+    static ScheduledFuture<?> watch(final QueryResult result, final Duration timeout) {
+        return TIMER.schedule(() -> {
+            try {
+                if (result.cancel(new SQLTimeoutException(
+                        "Query exceeded the timeout of " + timeout.getSeconds() + " seconds"))) {
+                    LOG.info("query cancelled after {} seconds", timeout.getSeconds());
+                }
+            } catch (SQLException e) {
+                LOG.warn("failed to cancel query after timeout: {}", e.getMessage());
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
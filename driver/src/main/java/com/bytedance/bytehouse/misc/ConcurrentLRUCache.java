@@ -0,0 +1,151 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.misc;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache with approximate LRU eviction that takes no lock on lookup.
+ * <br><br>
+ * Entries live in a {@link ConcurrentHashMap}, each one stamped with the value of a clock that
+ * only ticks on insertion. A hit copies the current tick into its entry, and only when it
+ * changed, so hot entries are not written on every read. Once the cache grows past its size,
+ * the thread that wins the eviction flag drops the entries with the oldest stamps down to
+ * {@code 7/8} of the size; other inserting threads carry on without waiting, so under
+ * concurrent inserts the cache can briefly hold a few entries more than its size.
+ */
+public class ConcurrentLRUCache<K, V> {
+
+    private final int cacheSize;
+
+    private final ConcurrentHashMap<K, Entry<V>> map;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * Constructor.
+     */
+    public ConcurrentLRUCache(final int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.map = new ConcurrentHashMap<>(cacheSize);
+    }
+
+    /**
+     * Get.
+     */
+    public V get(final K key) {
+        final Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        final long now = clock.get();
+        if (entry.accessed != now) {
+            entry.accessed = now;
+        }
+        return entry.value;
+    }
+
+    /**
+     * update.
+     */
+    public void put(final K key, final V value) {
+        map.put(key, new Entry<>(value, clock.incrementAndGet()));
+        evictIfFull();
+    }
+
+    /**
+     * remove.
+     */
+    public void remove(final K key) {
+        map.remove(key);
+    }
+
+    /**
+     * clear.
+     */
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * get size.
+     */
+    public int cacheSize() {
+        return map.size();
+    }
+
+    private void evictIfFull() {
+        // re-checked after each pass: puts that lost the flag meanwhile did not evict themselves
+        while (map.size() > cacheSize && evicting.compareAndSet(false, true)) {
+            try {
+                evictOldest();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private void evictOldest() {
+        final int target = cacheSize - cacheSize / 8;
+        final int excess = map.size() - target;
+        if (excess <= 0) {
+            return;
+        }
+        // the map may change while it is scanned, the threshold is approximate anyway
+        long[] stamps = new long[map.size()];
+        int n = 0;
+        for (final Entry<V> entry : map.values()) {
+            if (n == stamps.length) {
+                stamps = Arrays.copyOf(stamps, n * 2 + 1);
+            }
+            stamps[n++] = entry.accessed;
+        }
+        if (n == 0) {
+            return;
+        }
+        Arrays.sort(stamps, 0, n);
+        final long threshold = stamps[Math.min(excess, n) - 1];
+
+        int removed = 0;
+        for (final Map.Entry<K, Entry<V>> e : map.entrySet()) {
+            if (removed >= excess) {
+                break;
+            }
+            final Entry<V> entry = e.getValue();
+            if (entry.accessed <= threshold && map.remove(e.getKey(), entry)) {
+                removed++;
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private volatile long accessed;
+
+        private Entry(final V value, final long accessed) {
+            this.value = value;
+            this.accessed = accessed;
+        }
+    }
+}
@@ -15,80 +15,169 @@
  */
 package com.bytedance.bytehouse.misc;
 
-import jdk.nashorn.internal.ir.annotations.Immutable;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVRecord;
-import java.io.FileReader;
+import com.bytedance.bytehouse.settings.BHConstants;
+import com.bytedance.bytehouse.stream.ParallelInfileInserter;
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
 
 public class InfileCSVReaderUtils {
     private InfileCSVReaderUtils() {
     }
 
-    public static CSVBlock fromCSV(String fileLocation, String csvDelimiter, boolean hasHeader) throws Exception {
+    /**
+     * opens a CSV file for streaming, records are parsed as they are consumed so memory
+     * does not grow with the file size.
+     */
+    public static CSVRecordStream openCSV(String fileLocation, String csvDelimiter, boolean hasHeader) throws IOException {
         if (csvDelimiter.length() == 0) {
             throw new IllegalArgumentException("invalid csv delimiter");
         }
-        List<List<String>> rows = new ArrayList<>();
-        List<String> headers = new ArrayList<>();
-
-        int colSize = -1;
-        try (Reader in = new FileReader(fileLocation)) {
-            Iterator<CSVRecord> records = CSVFormat.DEFAULT
+        final Reader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(fileLocation)),
+                BHConstants.INFILE_READ_BUFFER_BYTES
+        );
+        try {
+            final Iterator<CSVRecord> records = CSVFormat.DEFAULT
                 .withDelimiter(csvDelimiter.charAt(csvDelimiter.length()-1))
                 .parse(in)
                 .iterator();
-            if (records.hasNext() && hasHeader) {
-                records.next().iterator().forEachRemaining(headers::add);
-                colSize = headers.size();
-            }
-            while (records.hasNext()) {
-                List<String> record = new ArrayList<>();
-                records.next().iterator().forEachRemaining(record::add);
-                rows.add(record);
+            return new CSVRecordStream(in, records, hasHeader);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
 
-                if (colSize == -1) {
-                    colSize = record.size();
-                }
-                if (record.size() != colSize) {
+    /**
+     * parses a single CSV record, e.g. the header of a file read by an
+     * {@link com.bytedance.bytehouse.stream.InfileChunkReader}.
+     */
+    public static List<String> parseRecord(@Nullable ByteBuffer bytes, String csvDelimiter) throws IOException {
+        if (bytes == null) {
+            throw new IllegalArgumentException("invalid csv format");
+        }
+        final Iterator<CSVRecord> records = parse(bytes, csvDelimiter);
+        final List<String> values = new ArrayList<>();
+        if (records.hasNext()) {
+            records.next().iterator().forEachRemaining(values::add);
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("invalid csv format");
+        }
+        return values;
+    }
+
+    /**
+     * @return a parser writing the CSV records of a chunk into the blocks of a
+     * {@link ParallelInfileInserter}, value {@code i} of a record goes to column {@code columnIdx[i]}.
+     */
+    public static ParallelInfileInserter.ChunkParser csvChunkParser(String csvDelimiter, int[] columnIdx) {
+        return (chunk, builder) -> {
+            final Iterator<CSVRecord> records = parse(chunk, csvDelimiter);
+            while (records.hasNext()) {
+                final CSVRecord record = records.next();
+                if (record.size() != columnIdx.length) {
                     throw new IllegalArgumentException("invalid csv format");
                 }
+                for (int i = 0; i < columnIdx.length; i++) {
+                    builder.setObject(columnIdx[i], record.get(i));
+                }
+                builder.appendRow();
             }
-        }
+        };
+    }
 
-        if ((hasHeader && headers.size() == 0) || rows.size() == 0 || rows.get(0).size() == 0) {
-            throw new IllegalArgumentException("invalid csv format");
+    private static Iterator<CSVRecord> parse(ByteBuffer bytes, String csvDelimiter) throws IOException {
+        if (csvDelimiter.length() == 0) {
+            throw new IllegalArgumentException("invalid csv delimiter");
         }
-        return new CSVBlock(headers, rows);
+        final CharBuffer chars = Charset.defaultCharset().decode(bytes);
+        return CSVFormat.DEFAULT
+            .withDelimiter(csvDelimiter.charAt(csvDelimiter.length()-1))
+            .parse(new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()))
+            .iterator();
     }
 
-    @Immutable
-    public static class CSVBlock {
-        public List<String> headers;
-        public List<List<String>> rows;
+    /**
+     * records of a CSV file, all of them with the same number of columns.
+     */
+    public static class CSVRecordStream implements Closeable {
+        private final Reader in;
+        private final Iterator<CSVRecord> records;
+        private final List<String> headers;
+        private final int columnCount;
+        // first data record, read ahead to learn the column count
+        private CSVRecord pending;
 
-        public CSVBlock(List<String> headers, List<List<String>> rows) {
-            this.headers = headers;
-            this.rows = rows;
+        CSVRecordStream(Reader in, Iterator<CSVRecord> records, boolean hasHeader) {
+            this.in = in;
+            this.records = records;
+            final List<String> names = new ArrayList<>();
+            if (hasHeader && records.hasNext()) {
+                records.next().iterator().forEachRemaining(names::add);
+            }
+            this.headers = Collections.unmodifiableList(names);
+            if ((hasHeader && names.isEmpty()) || !records.hasNext()) {
+                throw new IllegalArgumentException("invalid csv format");
+            }
+            this.pending = records.next();
+            this.columnCount = hasHeader ? names.size() : pending.size();
+            validate(pending);
         }
 
-        public int getRowCount() {
-            return rows.size();
+        public List<String> getHeaders() {
+            return headers;
         }
 
         public int getColumnCount() {
-            return rows.get(0).size();
+            return columnCount;
         }
 
-        public List<List<String>> getRows() {
-            return this.rows;
+        public boolean hasNext() {
+            return pending != null || records.hasNext();
         }
 
-        public List<String> getHeaders() {
-            return this.headers;
+        /**
+         * @return the next record, failing when its column count differs from the first one.
+         */
+        public CSVRecord next() {
+            if (pending != null) {
+                final CSVRecord record = pending;
+                pending = null;
+                return record;
+            }
+            if (!records.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return validate(records.next());
+        }
+
+        private CSVRecord validate(CSVRecord record) {
+            if (columnCount == 0 || record.size() != columnCount) {
+                throw new IllegalArgumentException("invalid csv format");
+            }
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
         }
     }
 }
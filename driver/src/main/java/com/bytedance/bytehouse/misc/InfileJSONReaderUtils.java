@@ -0,0 +1,127 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.misc;
+
+import com.bytedance.bytehouse.data.IDataType;
+import com.bytedance.bytehouse.data.type.complex.DataTypeArray;
+import com.bytedance.bytehouse.data.type.complex.DataTypeNullable;
+import com.bytedance.bytehouse.data.type.complex.DataTypeTuple;
+import com.bytedance.bytehouse.jdbc.ByteHouseArray;
+import com.bytedance.bytehouse.jdbc.ByteHouseStruct;
+import com.bytedance.bytehouse.stream.ParallelInfileInserter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * parses JSONEachRow data: one JSON object per line, keys are column names and columns missing
+ * from an object get their default value.
+ */
+public class InfileJSONReaderUtils {
+    private InfileJSONReaderUtils() {
+    }
+
+    /**
+     * @return the keys of the first object, used as the column list of the insert.
+     */
+    public static List<String> parseKeys(@Nullable ByteBuffer bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("invalid JSONEachRow format");
+        }
+        final List<String> keys = new ArrayList<>(new JSONObject(StandardCharsets.UTF_8.decode(bytes).toString()).keySet());
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("invalid JSONEachRow format");
+        }
+        return keys;
+    }
+
+    /**
+     * @return a parser writing the objects of a chunk into the blocks of a
+     * {@link ParallelInfileInserter}, the value of key {@code k} goes to column {@code columnIdx.get(k)}.
+     */
+    public static ParallelInfileInserter.ChunkParser jsonEachRowChunkParser(Map<String, Integer> columnIdx) {
+        return (chunk, builder) -> {
+            final CharBuffer chars = StandardCharsets.UTF_8.decode(chunk);
+            final Object[] row = new Object[builder.columnCnt()];
+            int start = 0;
+            for (int i = 0, n = chars.limit(); i <= n; i++) {
+                if (i < n && chars.get(i) != '\n') {
+                    continue;
+                }
+                final String line = chars.subSequence(start, i).toString().trim();
+                start = i + 1;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                final JSONObject object = new JSONObject(line);
+                for (final String key : object.keySet()) {
+                    final Integer idx = columnIdx.get(key);
+                    if (idx == null) {
+                        throw new IllegalArgumentException("Unknown column '" + key + "' in JSONEachRow data");
+                    }
+                    row[idx] = toJdbc(builder.type(idx), object.get(key));
+                }
+                for (int col = 0; col < row.length; col++) {
+                    builder.setObject(col, row[col]);
+                    row[col] = null;
+                }
+                builder.appendRow();
+            }
+        };
+    }
+
+    /**
+     * converts a JSON value to what {@code PreparedStatement.setObject} accepts for the column type,
+     * scalars are passed as text like CSV values are.
+     */
+    @Nullable
+    private static Object toJdbc(IDataType<?, ?> type, Object value) {
+        if (value == JSONObject.NULL) {
+            return null;
+        }
+        if (type instanceof DataTypeNullable) {
+            return toJdbc(((DataTypeNullable) type).getNestedDataType(), value);
+        }
+        if (value instanceof JSONArray && type instanceof DataTypeArray) {
+            final JSONArray array = (JSONArray) value;
+            final IDataType<?, ?> elemType = ((DataTypeArray) type).getElemDataType();
+            final Object[] elements = new Object[array.length()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = toJdbc(elemType, array.get(i));
+            }
+            return new ByteHouseArray(elemType, elements);
+        }
+        if (value instanceof JSONArray && type instanceof DataTypeTuple) {
+            final JSONArray array = (JSONArray) value;
+            final IDataType<?, ?>[] nestedTypes = ((DataTypeTuple) type).getNestedTypes();
+            final Object[] attributes = new Object[nestedTypes.length];
+            for (int i = 0; i < attributes.length && i < array.length(); i++) {
+                attributes[i] = toJdbc(nestedTypes[i], array.get(i));
+            }
+            return new ByteHouseStruct("Tuple", attributes);
+        }
+        if (value instanceof JSONObject) {
+            return ((JSONObject) value).toMap();
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.misc;
+
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.buffer.RecordingBuffedReader;
+import com.bytedance.bytehouse.buffer.SocketBuffedReader;
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IDataType;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import com.bytedance.bytehouse.settings.BHConstants;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import javax.annotation.Nullable;
+
+public class InfileNativeReaderUtils {
+    private InfileNativeReaderUtils() {
+    }
+
+    /**
+     * opens a file of blocks in Native format, as written by {@code FORMAT Native}.
+     */
+    public static NativeBlockStream openNative(String fileLocation, ServerContext serverContext) throws IOException {
+        return new NativeBlockStream(new FileInputStream(fileLocation), serverContext);
+    }
+
+    /**
+     * cuts a stream of Native blocks into single blocks. Column data is only walked through to
+     * find where a block ends, it is never decoded.
+     */
+    public static class NativeBlockStream implements Closeable {
+        private final InputStream in;
+        private final SocketBuffedReader reader;
+        private final ServerContext serverContext;
+        private int lastBlockBytes = BHConstants.INFILE_READ_BUFFER_BYTES;
+        private int rows;
+        private String[] columnNames = new String[0];
+        private IDataType<?, ?>[] columnTypes = new IDataType<?, ?>[0];
+
+        NativeBlockStream(InputStream in, ServerContext serverContext) {
+            this.in = in;
+            this.reader = new SocketBuffedReader(in, BHConstants.INFILE_READ_BUFFER_BYTES);
+            this.serverContext = serverContext;
+        }
+
+        /**
+         * @return the bytes of the next block, null at the end of the stream.
+         */
+        @Nullable
+        public ByteArrayReader next() throws IOException, SQLException {
+            final int columns;
+            final RecordingBuffedReader recorder = new RecordingBuffedReader(reader, lastBlockBytes);
+            final BinaryDeserializer deserializer = new BinaryDeserializer(recorder);
+            try {
+                columns = (int) deserializer.readVarInt();
+            } catch (EOFException e) {
+                if (recorder.size() == 0) {
+                    return null;
+                }
+                throw e;
+            }
+            rows = (int) deserializer.readVarInt();
+            columnNames = new String[columns];
+            columnTypes = new IDataType<?, ?>[columns];
+            for (int i = 0; i < columns; i++) {
+                columnNames[i] = deserializer.readUTF8StringBinary();
+                columnTypes[i] = DataTypeFactory.get(deserializer.readUTF8StringBinary(), serverContext);
+                columnTypes[i].skipBinaryBulk(rows, deserializer);
+            }
+            lastBlockBytes = recorder.size();
+            return recorder.recorded();
+        }
+
+        /**
+         * @return the number of rows of the block last returned by {@link #next()}.
+         */
+        public int rows() {
+            return rows;
+        }
+
+        /**
+         * @return the column names of the block last returned by {@link #next()}.
+         */
+        public String[] columnNames() {
+            return columnNames;
+        }
+
+        /**
+         * @return the column types of the block last returned by {@link #next()}.
+         */
+        public IDataType<?, ?>[] columnTypes() {
+            return columnTypes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
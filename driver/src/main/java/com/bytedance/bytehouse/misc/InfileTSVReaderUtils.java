@@ -0,0 +1,132 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.misc;
+
+import com.bytedance.bytehouse.stream.ParallelInfileInserter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * parses TabSeparated data: values are separated by tabs, rows by line breaks, and tabs, line
+ * breaks and backslashes inside values are backslash-escaped. {@code \N} stands for NULL.
+ */
+public class InfileTSVReaderUtils {
+    private InfileTSVReaderUtils() {
+    }
+
+    /**
+     * parses a single TSV row, e.g. the header of a TSVWithNames file.
+     */
+    public static List<String> parseRecord(@Nullable ByteBuffer bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("invalid tsv format");
+        }
+        final List<List<String>> rows = new ArrayList<>();
+        parse(bytes, rows::add);
+        if (rows.isEmpty() || rows.get(0).isEmpty()) {
+            throw new IllegalArgumentException("invalid tsv format");
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * @return a parser writing the TSV rows of a chunk into the blocks of a
+     * {@link ParallelInfileInserter}, value {@code i} of a row goes to column {@code columnIdx[i]}.
+     */
+    public static ParallelInfileInserter.ChunkParser tsvChunkParser(int[] columnIdx) {
+        return (chunk, builder) -> parse(chunk, row -> {
+            if (row.size() != columnIdx.length) {
+                throw new IllegalArgumentException("invalid tsv format");
+            }
+            for (int i = 0; i < columnIdx.length; i++) {
+                builder.setObject(columnIdx[i], row.get(i));
+            }
+            builder.appendRow();
+        });
+    }
+
+    private static <E extends Exception> void parse(ByteBuffer bytes, RowConsumer<E> consumer) throws E {
+        final CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+        final List<String> row = new ArrayList<>();
+        final StringBuilder value = new StringBuilder();
+        boolean isNull = false;
+        while (chars.hasRemaining()) {
+            final char c = chars.get();
+            switch (c) {
+                case '\\':
+                    if (!chars.hasRemaining()) {
+                        throw new IllegalArgumentException("invalid tsv format");
+                    }
+                    final char escaped = chars.get();
+                    if (escaped == 'N' && value.length() == 0) {
+                        isNull = true;
+                    } else {
+                        value.append(unescape(escaped));
+                    }
+                    break;
+                case '\t':
+                    row.add(isNull ? null : value.toString());
+                    value.setLength(0);
+                    isNull = false;
+                    break;
+                case '\n':
+                    row.add(isNull ? null : value.toString());
+                    consumer.accept(new ArrayList<>(row));
+                    row.clear();
+                    value.setLength(0);
+                    isNull = false;
+                    break;
+                default:
+                    value.append(c);
+            }
+        }
+        if (!row.isEmpty() || value.length() > 0 || isNull) {
+            // last row without a trailing line break
+            row.add(isNull ? null : value.toString());
+            consumer.accept(row);
+        }
+    }
+
+    private static char unescape(char escaped) {
+        switch (escaped) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case '0':
+                return '\0';
+            default:
+                // \\, \', \" and any other character stand for themselves
+                return escaped;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer<E extends Exception> {
+
+        void accept(List<String> row) throws E;
+    }
+}
@@ -17,10 +17,13 @@ package com.bytedance.bytehouse.misc;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * LRUCache is a simple LRUCache implementation, based on <code>LinkedHashMap</code>.
+ * <br><br>
+ * Every access goes through one exclusive lock: in access order a get moves the entry to the end
+ * of the map, it is a write.
  */
 public class LRUCache<K, V> {
 
@@ -30,7 +33,7 @@ public class LRUCache<K, V> {
 
     private final LinkedHashMap<K, V> map;
 
-    private final ReentrantReadWriteLock lock;
+    private final ReentrantLock lock;
 
     /**
      * Constructor.
@@ -43,18 +46,18 @@ public class LRUCache<K, V> {
                 return size() > LRUCache.this.cacheSize;
             }
         };
-        this.lock = new ReentrantReadWriteLock();
+        this.lock = new ReentrantLock();
     }
 
     /**
      * Get.
      */
     public V get(final K key) {
-        lock.readLock().lock();
+        lock.lock();
         try {
             return map.get(key);
         } finally {
-            lock.readLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -62,12 +65,24 @@ public class LRUCache<K, V> {
      * update.
      */
     public void put(final K key, final V value) {
-        lock.writeLock().lock();
+        lock.lock();
         try {
             map.remove(key);
             map.put(key, value);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * remove.
+     */
+    public void remove(final K key) {
+        lock.lock();
+        try {
+            map.remove(key);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -75,11 +90,11 @@ public class LRUCache<K, V> {
      * update if absent.
      */
     public void putIfAbsent(final K key, final V value) {
-        lock.writeLock().lock();
+        lock.lock();
         try {
             map.putIfAbsent(key, value);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -87,11 +102,11 @@ public class LRUCache<K, V> {
      * clear.
      */
     public void clear() {
-        lock.writeLock().lock();
+        lock.lock();
         try {
             map.clear();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -99,11 +114,11 @@ public class LRUCache<K, V> {
      * get size.
      */
     public int cacheSize() {
-        lock.readLock().lock();
+        lock.lock();
         try {
             return map.size();
         } finally {
-            lock.readLock().unlock();
+            lock.unlock();
         }
     }
 }
@@ -183,6 +183,14 @@ public class SQLLexer {
         return stringLiteralWithQuoted('\'');
     }
 
+    /**
+     * @return the position of the next character, after any whitespace.
+     */
+    public int position() {
+        skipAnyWhitespace();
+        return currPos;
+    }
+
     public boolean eof() {
         skipAnyWhitespace();
         return currPos >= data.length();
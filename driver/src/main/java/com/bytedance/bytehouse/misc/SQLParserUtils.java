@@ -16,7 +16,13 @@
 package com.bytedance.bytehouse.misc;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.annotation.concurrent.Immutable;
@@ -46,6 +52,13 @@ public final class SQLParserUtils {
     private static final Pattern INFILE_REGEX = Pattern
             .compile("(?i)INFILE(?-i)");
 
+    private static final Set<String> INFILE_FORMATS = new HashSet<>(Arrays.asList(
+            "csv", "csvwithnames",
+            "tsv", "tsvwithnames", "tabseparated", "tabseparatedwithnames",
+            "jsoneachrow",
+            "native"
+    ));
+
     private static final Pattern SELECT_DB_TABLE = Pattern.compile("(?i)FROM\\s+(\\S+\\.)?(\\S+)");
 
     private SQLParserUtils() {
@@ -84,7 +97,7 @@ public final class SQLParserUtils {
                 fileLocation = fileLocation.substring(1, fileLocation.length()-1);
             }
             String format = matcher.group(2).trim();
-            if (!format.toLowerCase(Locale.ROOT).equals("csvwithnames") && !format.toLowerCase(Locale.ROOT).equals("csv")) {
+            if (!INFILE_FORMATS.contains(format.toLowerCase(Locale.ROOT))) {
                 throw new IllegalArgumentException(
                         "invalid syntax for insert infile query: " + query);
             }
@@ -142,6 +155,74 @@ public final class SQLParserUtils {
         return new DbTable(null, null);
     }
 
+    /**
+     * parses the column list of {@code INSERT INTO [TABLE] [db.]table [(c1, c2)]} or
+     * {@code INSERT INTO FUNCTION f(...) [(c1, c2)]}. Quoted identifiers are unquoted, anything
+     * after the column list, like SETTINGS, is left alone.
+     */
+    public static InsertColumns extractInsertColumns(final String insertQuery) throws SQLException {
+        final SQLLexer lexer = new SQLLexer(0, insertQuery);
+        ValidateUtils.isTrue(lexer.bareWord().toString().equalsIgnoreCase("INSERT")
+                        && lexer.bareWord().toString().equalsIgnoreCase("INTO"),
+                "Expect INSERT INTO: " + insertQuery);
+        final boolean keyword = !isQuotedIdentifier(lexer);
+        final String word = lexer.bareWord().toString();
+        if (keyword && word.equalsIgnoreCase("FUNCTION")) {
+            lexer.bareWord();
+            ValidateUtils.isTrue(lexer.isCharacter('('), "Expect table function arguments: " + insertQuery);
+            skipParenthesized(lexer);
+        } else {
+            if (keyword && word.equalsIgnoreCase("TABLE")
+                    && !lexer.eof() && !lexer.isCharacter('(') && !lexer.isCharacter('.')) {
+                lexer.bareWord();
+            }
+            while (lexer.isCharacter('.')) {
+                lexer.character();
+                lexer.bareWord();
+            }
+        }
+        if (!lexer.isCharacter('(')) {
+            return new InsertColumns(Collections.emptyList(), lexer.position());
+        }
+        lexer.character();
+        final List<String> columns = new ArrayList<>();
+        char next;
+        do {
+            final StringBuilder column = new StringBuilder(lexer.bareWord());
+            while (lexer.isCharacter('.')) {
+                lexer.character();
+                column.append('.').append(lexer.bareWord());
+            }
+            columns.add(column.toString());
+            next = lexer.character();
+        } while (next == ',');
+        ValidateUtils.isTrue(next == ')', "Expect ) after the column list: " + insertQuery);
+        return new InsertColumns(columns, lexer.position());
+    }
+
+    private static boolean isQuotedIdentifier(final SQLLexer lexer) {
+        return lexer.isCharacter('`') || lexer.isCharacter('"');
+    }
+
+    private static void skipParenthesized(final SQLLexer lexer) throws SQLException {
+        int depth = 0;
+        do {
+            if (lexer.isCharacter('\'')) {
+                lexer.stringView();
+            } else if (isQuotedIdentifier(lexer)) {
+                lexer.bareWord();
+            } else {
+                final char ch = lexer.character();
+                ValidateUtils.isTrue(ch != 0, "Unbalanced parentheses");
+                if (ch == '(') {
+                    depth++;
+                } else if (ch == ')') {
+                    depth--;
+                }
+            }
+        } while (depth > 0);
+    }
+
     /**
      * ported from original implementation. it was not used previously but kept. Hence
      * I just pull it out here and keep it as well.
@@ -219,6 +300,21 @@ public final class SQLParserUtils {
         }
     }
 
+    @Immutable
+    public static class InsertColumns {
+
+        // empty if the query has no column list
+        public final List<String> columns;
+
+        // position after the column list, or where a column list would go
+        public final int end;
+
+        public InsertColumns(final List<String> columns, final int end) {
+            this.columns = columns;
+            this.end = end;
+        }
+    }
+
     @Immutable
     public static class InsertInfileQueryParts {
 
@@ -49,6 +49,25 @@ public class DataResponse implements Response {
         return new DataResponse(name, block);
     }
 
+    /**
+     * reads a data response without decoding its columns, see {@link Block#skipFrom}.
+     *
+     * @return the response with an empty block.
+     */
+    public static DataResponse discardFrom(
+            final BinaryDeserializer deserializer,
+            final ServerContext info
+    ) throws IOException, SQLException {
+
+        final String name = deserializer.readUTF8StringBinary();
+
+        deserializer.maybeEnableCompressed();
+        Block.skipFrom(deserializer, info);
+        deserializer.maybeDisableCompressed();
+
+        return new DataResponse(name, Block.empty());
+    }
+
     @Override
     public ProtoType type() {
         return ProtoType.RESPONSE_DATA;
@@ -48,6 +48,22 @@ public class ExtremesResponse implements Response {
         return new ExtremesResponse(name, block);
     }
 
+    /**
+     * reads past an extremes response, returning it with an empty block.
+     */
+    public static ExtremesResponse discardFrom(
+            final BinaryDeserializer deserializer,
+            final ServerContext info
+    ) throws IOException, SQLException {
+        final String name = deserializer.readUTF8StringBinary();
+
+        deserializer.maybeEnableCompressed();
+        Block.skipFrom(deserializer, info);
+        deserializer.maybeDisableCompressed();
+
+        return new ExtremesResponse(name, Block.empty());
+    }
+
     @Override
     public ProtoType type() {
         return ProtoType.RESPONSE_EXTREMES;
@@ -0,0 +1,56 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.protocol;
+
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.data.BlockSettings;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * a block that is already serialized in Native format, e.g. read from a file, sent without
+ * decoding its columns. Only the block settings are added in front of it.
+ */
+public class RawDataRequest implements Request {
+
+    private final String name;
+
+    private final BlockSettings settings;
+
+    private final ByteArrayReader block;
+
+    public RawDataRequest(final String name, final BlockSettings settings, final ByteArrayReader block) {
+        this.name = name;
+        this.settings = settings;
+        this.block = block;
+    }
+
+    @Override
+    public ProtoType type() {
+        return ProtoType.REQUEST_DATA;
+    }
+
+    @Override
+    public void writeImpl(final BinarySerializer serializer) throws IOException, SQLException {
+        serializer.writeUTF8StringBinary(name);
+
+        serializer.maybeEnableCompressed();
+        settings.writeTo(serializer);
+        serializer.writeBytes(block);
+        serializer.maybeDisableCompressed();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.protocol;
+
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.data.BlockSettings;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * a block from the server kept in Native format, i.e. the bytes {@code FORMAT Native} would write
+ * for it. Column data is only walked through to find where the block ends, it is never decoded.
+ */
+public class RawDataResponse implements Response {
+
+    private static final int INITIAL_BLOCK_BYTES = 64 * 1024;
+
+    private final String name;
+
+    private final int rows;
+
+    private final ByteArrayReader block;
+
+    public RawDataResponse(final String name, final int rows, final ByteArrayReader block) {
+        this.name = name;
+        this.rows = rows;
+        this.block = block;
+    }
+
+    public static RawDataResponse readFrom(
+            final BinaryDeserializer deserializer,
+            final ServerContext info
+    ) throws IOException, SQLException {
+
+        final String name = deserializer.readUTF8StringBinary();
+
+        deserializer.maybeEnableCompressed();
+        BlockSettings.readFrom(deserializer);
+
+        deserializer.startRecording(INITIAL_BLOCK_BYTES);
+        final int columnCnt = (int) deserializer.readVarInt();
+        final int rowCnt = (int) deserializer.readVarInt();
+        for (int i = 0; i < columnCnt; i++) {
+            deserializer.readUTF8StringBinary();
+            final String type = deserializer.readUTF8StringBinary();
+
+            DataTypeFactory.get(type, info).skipBinaryBulk(rowCnt, deserializer);
+        }
+        final ByteArrayReader block = deserializer.stopRecording();
+        deserializer.maybeDisableCompressed();
+
+        return new RawDataResponse(name, rowCnt, block);
+    }
+
+    @Override
+    public ProtoType type() {
+        return ProtoType.RESPONSE_DATA;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return the column count, row count and columns of the block, without its block settings.
+     */
+    public ByteArrayReader block() {
+        return block;
+    }
+}
@@ -38,6 +38,7 @@ public interface Request {
         REQUEST_HELLO_AKSK(8),
         REQUEST_QUERY(1),
         REQUEST_DATA(2),
+        REQUEST_CANCEL(3),
         REQUEST_PING(4);
 
         private final int id;
@@ -30,12 +30,42 @@ public interface Response {
             final BinaryDeserializer deserializer,
             final ServerContext info
     ) throws IOException, SQLException {
+        return readFrom(deserializer, info, DataMode.DECODE);
+    }
+
+    /**
+     * reads the next response, with {@code discardData} the columns of data, totals and extremes
+     * responses are skipped and they are returned with an empty block.
+     */
+    static Response readFrom(
+            final BinaryDeserializer deserializer,
+            final ServerContext info,
+            final boolean discardData
+    ) throws IOException, SQLException {
+        return readFrom(deserializer, info, discardData ? DataMode.DISCARD : DataMode.DECODE);
+    }
+
+    /**
+     * reads the next response, handling the columns of data, totals and extremes responses as
+     * told by {@code mode}.
+     */
+    static Response readFrom(
+            final BinaryDeserializer deserializer,
+            final ServerContext info,
+            final DataMode mode
+    ) throws IOException, SQLException {
+        final boolean discardData = mode != DataMode.DECODE;
         int responseType = (int) deserializer.readVarInt();
         switch (responseType) {
             case 0:
                 return HelloResponse.readFrom(deserializer);
             case 1:
-                return DataResponse.readFrom(deserializer, info);
+                if (mode == DataMode.RAW) {
+                    return RawDataResponse.readFrom(deserializer, info);
+                }
+                return discardData
+                        ? DataResponse.discardFrom(deserializer, info)
+                        : DataResponse.readFrom(deserializer, info);
             case 2:
                 throw ExceptionResponse.readExceptionFrom(deserializer);
             case 3:
@@ -47,9 +77,13 @@ public interface Response {
             case 6:
                 return ProfileInfoResponse.readFrom(deserializer);
             case 7:
-                return TotalsResponse.readFrom(deserializer, info);
+                return discardData
+                        ? TotalsResponse.discardFrom(deserializer, info)
+                        : TotalsResponse.readFrom(deserializer, info);
             case 8:
-                return ExtremesResponse.readFrom(deserializer, info);
+                return discardData
+                        ? ExtremesResponse.discardFrom(deserializer, info)
+                        : ExtremesResponse.readFrom(deserializer, info);
             case 9:
                 throw new NotImplementedException("RESPONSE_TABLES_STATUS_RESPONSE");
             case 10:
@@ -71,6 +105,24 @@ public interface Response {
 
     ProtoType type();
 
+    /**
+     * how the columns of a data response are read.
+     */
+    enum DataMode {
+        /**
+         * decoded into a {@link DataResponse}.
+         */
+        DECODE,
+        /**
+         * skipped, the {@link DataResponse} has an empty block.
+         */
+        DISCARD,
+        /**
+         * kept in Native format in a {@link RawDataResponse}, totals and extremes are skipped.
+         */
+        RAW
+    }
+
     enum ProtoType {
         RESPONSE_HELLO(0),
         RESPONSE_DATA(1),
@@ -45,6 +45,20 @@ public class TotalsResponse implements Response {
         );
     }
 
+    /**
+     * reads past a totals response, returning it with an empty block.
+     */
+    public static TotalsResponse discardFrom(
+            final BinaryDeserializer deserializer,
+            final ServerContext info
+    ) throws IOException, SQLException {
+        final String name = deserializer.readUTF8StringBinary();
+
+        Block.skipFrom(deserializer, info);
+
+        return new TotalsResponse(name, Block.empty());
+    }
+
     @Override
     public ProtoType type() {
         return ProtoType.RESPONSE_TOTALS;
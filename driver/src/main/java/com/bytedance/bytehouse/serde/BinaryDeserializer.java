@@ -16,10 +16,13 @@
 package com.bytedance.bytehouse.serde;
 
 import com.bytedance.bytehouse.buffer.BuffedReader;
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
 import com.bytedance.bytehouse.buffer.CompressedBuffedReader;
+import com.bytedance.bytehouse.buffer.RecordingBuffedReader;
 import com.bytedance.bytehouse.misc.Switcher;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import javax.annotation.Nullable;
 
 /**
  * deserialize binary from a buffer.
@@ -30,6 +33,9 @@ public class BinaryDeserializer {
 
     private volatile boolean enableCompression;
 
+    @Nullable
+    private RecordingBuffedReader recorder;
+
     /**
      * constructor. it directly caches the {@link BuffedReader} without making a copy of it. <br>
      * Therefore: <br>
@@ -45,6 +51,14 @@ public class BinaryDeserializer {
         switcher = new Switcher<>(compressedReader, buffedReader);
     }
 
+    /**
+     * constructor for data that is never compressed, e.g. bytes already cut out of a stream.
+     */
+    public BinaryDeserializer(final BuffedReader buffedReader) {
+        this.enableCompression = false;
+        switcher = new Switcher<>(buffedReader, buffedReader);
+    }
+
     public void setEnableCompression(final boolean enableCompression) {
         this.enableCompression = enableCompression;
     }
@@ -55,7 +69,7 @@ public class BinaryDeserializer {
     public long readVarInt() throws IOException {
         int number = 0;
         for (int i = 0; i < 9; i++) {
-            int byt = switcher.get().readBinary();
+            int byt = reader().readBinary();
 
             number |= (byt & 0x7F) << (7 * i);
 
@@ -71,8 +85,8 @@ public class BinaryDeserializer {
      */
     public short readShort() throws IOException {
         // @formatter:off
-        return (short) (((switcher.get().readBinary() & 0xFF) << 0)
-                + ((switcher.get().readBinary() & 0xFF) << 8));
+        return (short) (((reader().readBinary() & 0xFF) << 0)
+                + ((reader().readBinary() & 0xFF) << 8));
         // @formatter:on
     }
 
@@ -81,10 +95,10 @@ public class BinaryDeserializer {
      */
     public int readInt() throws IOException {
         // @formatter:off
-        return ((switcher.get().readBinary() & 0xFF) << 0)
-                + ((switcher.get().readBinary() & 0xFF) << 8)
-                + ((switcher.get().readBinary() & 0xFF) << 16)
-                + ((switcher.get().readBinary() & 0xFF) << 24);
+        return ((reader().readBinary() & 0xFF) << 0)
+                + ((reader().readBinary() & 0xFF) << 8)
+                + ((reader().readBinary() & 0xFF) << 16)
+                + ((reader().readBinary() & 0xFF) << 24);
         // @formatter:on
     }
 
@@ -93,34 +107,59 @@ public class BinaryDeserializer {
      */
     public long readLong() throws IOException {
         // @formatter:off
-        return ((switcher.get().readBinary() & 0xFFL) << 0)
-                + ((switcher.get().readBinary() & 0xFFL) << 8)
-                + ((switcher.get().readBinary() & 0xFFL) << 16)
-                + ((switcher.get().readBinary() & 0xFFL) << 24)
-                + ((switcher.get().readBinary() & 0xFFL) << 32)
-                + ((switcher.get().readBinary() & 0xFFL) << 40)
-                + ((switcher.get().readBinary() & 0xFFL) << 48)
-                + ((switcher.get().readBinary() & 0xFFL) << 56);
+        return ((reader().readBinary() & 0xFFL) << 0)
+                + ((reader().readBinary() & 0xFFL) << 8)
+                + ((reader().readBinary() & 0xFFL) << 16)
+                + ((reader().readBinary() & 0xFFL) << 24)
+                + ((reader().readBinary() & 0xFFL) << 32)
+                + ((reader().readBinary() & 0xFFL) << 40)
+                + ((reader().readBinary() & 0xFFL) << 48)
+                + ((reader().readBinary() & 0xFFL) << 56);
         // @formatter:on
     }
 
     public boolean readBoolean() throws IOException {
-        return (switcher.get().readBinary() != 0);
+        return (reader().readBinary() != 0);
     }
 
     public byte[] readBytesBinary() throws IOException {
         byte[] data = new byte[(int) readVarInt()];
-        switcher.get().readBinary(data);
+        reader().readBinary(data);
         return data;
     }
 
     public String readUTF8StringBinary() throws IOException {
         byte[] data = new byte[(int) readVarInt()];
-        return switcher.get().readBinary(data) > 0 ? new String(data, StandardCharsets.UTF_8) : "";
+        return reader().readBinary(data) > 0 ? new String(data, StandardCharsets.UTF_8) : "";
     }
 
     public byte readByte() throws IOException {
-        return (byte) switcher.get().readBinary();
+        return (byte) reader().readBinary();
+    }
+
+    /**
+     * discard the next {@code n} bytes.
+     */
+    public void skipBytes(final long n) throws IOException {
+        reader().skip(n);
+    }
+
+    /**
+     * keeps a copy of the bytes read from now on, until {@link #stopRecording()}.
+     *
+     * @param initialCapacity expected amount of bytes
+     */
+    public void startRecording(final int initialCapacity) {
+        recorder = new RecordingBuffedReader(switcher.get(), initialCapacity);
+    }
+
+    /**
+     * @return a reader over the bytes read since {@link #startRecording(int)}.
+     */
+    public ByteArrayReader stopRecording() {
+        final RecordingBuffedReader stopped = recorder;
+        recorder = null;
+        return stopped.recorded();
     }
 
     public void maybeEnableCompressed() {
@@ -138,31 +177,71 @@ public class BinaryDeserializer {
     public float readFloat() throws IOException {
         // @formatter:off
         return Float.intBitsToFloat(
-                ((switcher.get().readBinary() & 0xFF) << 0)
-                        + ((switcher.get().readBinary() & 0xFF) << 8)
-                        + ((switcher.get().readBinary() & 0xFF) << 16)
-                        + ((switcher.get().readBinary()) << 24));
+                ((reader().readBinary() & 0xFF) << 0)
+                        + ((reader().readBinary() & 0xFF) << 8)
+                        + ((reader().readBinary() & 0xFF) << 16)
+                        + ((reader().readBinary()) << 24));
         // @formatter:on
     }
 
     public double readDouble() throws IOException {
         // @formatter:off
         return Double.longBitsToDouble(
-                ((switcher.get().readBinary() & 0xFFL) << 0)
-                        + ((switcher.get().readBinary() & 0xFFL) << 8)
-                        + ((switcher.get().readBinary() & 0xFFL) << 16)
-                        + ((switcher.get().readBinary() & 0xFFL) << 24)
-                        + ((switcher.get().readBinary() & 0xFFL) << 32)
-                        + ((switcher.get().readBinary() & 0xFFL) << 40)
-                        + ((switcher.get().readBinary() & 0xFFL) << 48)
-                        + ((switcher.get().readBinary() & 0xFFL) << 56)
+                ((reader().readBinary() & 0xFFL) << 0)
+                        + ((reader().readBinary() & 0xFFL) << 8)
+                        + ((reader().readBinary() & 0xFFL) << 16)
+                        + ((reader().readBinary() & 0xFFL) << 24)
+                        + ((reader().readBinary() & 0xFFL) << 32)
+                        + ((reader().readBinary() & 0xFFL) << 40)
+                        + ((reader().readBinary() & 0xFFL) << 48)
+                        + ((reader().readBinary() & 0xFFL) << 56)
         );
         // @formatter:on
     }
 
     public byte[] readBytes(int size) throws IOException {
         byte[] bytes = new byte[size];
-        switcher.get().readBinary(bytes);
+        reader().readBinary(bytes);
         return bytes;
     }
+
+    /**
+     * read {@code n} little-endian shorts into {@code dst}.
+     */
+    public void readShortsLE(final short[] dst, final int n) throws IOException {
+        reader().readShortsLE(dst, n);
+    }
+
+    /**
+     * read {@code n} little-endian ints into {@code dst}.
+     */
+    public void readIntsLE(final int[] dst, final int n) throws IOException {
+        reader().readIntsLE(dst, n);
+    }
+
+    /**
+     * read {@code n} little-endian longs into {@code dst}.
+     */
+    public void readLongsLE(final long[] dst, final int n) throws IOException {
+        reader().readLongsLE(dst, n);
+    }
+
+    /**
+     * read {@code n} little-endian floats into {@code dst}.
+     */
+    public void readFloatsLE(final float[] dst, final int n) throws IOException {
+        reader().readFloatsLE(dst, n);
+    }
+
+    /**
+     * read {@code n} little-endian doubles into {@code dst}.
+     */
+    public void readDoublesLE(final double[] dst, final int n) throws IOException {
+        reader().readDoublesLE(dst, n);
+    }
+
+    private BuffedReader reader() {
+        final RecordingBuffedReader recording = recorder;
+        return recording != null ? recording : switcher.get();
+    }
 }
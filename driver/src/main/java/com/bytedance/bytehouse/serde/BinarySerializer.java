@@ -16,9 +16,11 @@
 package com.bytedance.bytehouse.serde;
 
 import com.bytedance.bytehouse.buffer.BuffedWriter;
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
 import com.bytedance.bytehouse.buffer.CompressedBuffedWriter;
 import com.bytedance.bytehouse.misc.Switcher;
 import com.bytedance.bytehouse.settings.BHConstants;
+import com.bytedance.bytehouse.settings.CompressionMethod;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -35,10 +37,18 @@ public class BinarySerializer {
     public BinarySerializer(
             final BuffedWriter writer,
             final boolean enableCompression) {
+        this(writer, enableCompression, CompressionMethod.LZ4);
+    }
+
+    public BinarySerializer(
+            final BuffedWriter writer,
+            final boolean enableCompression,
+            final CompressionMethod compressionMethod) {
         this.enableCompression = enableCompression;
         final BuffedWriter compressWriter = new CompressedBuffedWriter(
                 BHConstants.SOCKET_SEND_BUFFER_BYTES,
-                writer
+                writer,
+                compressionMethod
         );
         switcher = new Switcher<>(compressWriter, writer);
     }
@@ -162,4 +172,47 @@ public class BinarySerializer {
     public void writeBytes(final byte[] bytes) throws IOException {
         switcher.get().writeBinary(bytes);
     }
+
+    public void writeBytes(final byte[] bytes, final int offset, final int length) throws IOException {
+        switcher.get().writeBinary(bytes, offset, length);
+    }
+
+    public void writeBytes(final ByteArrayReader bytes) throws IOException {
+        bytes.transferTo(switcher.get());
+    }
+
+    /**
+     * write {@code length} shorts of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    public void writeShortsLE(final short[] src, final int offset, final int length) throws IOException {
+        switcher.get().writeShortsLE(src, offset, length);
+    }
+
+    /**
+     * write {@code length} ints of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    public void writeIntsLE(final int[] src, final int offset, final int length) throws IOException {
+        switcher.get().writeIntsLE(src, offset, length);
+    }
+
+    /**
+     * write {@code length} longs of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    public void writeLongsLE(final long[] src, final int offset, final int length) throws IOException {
+        switcher.get().writeLongsLE(src, offset, length);
+    }
+
+    /**
+     * write {@code length} floats of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    public void writeFloatsLE(final float[] src, final int offset, final int length) throws IOException {
+        switcher.get().writeFloatsLE(src, offset, length);
+    }
+
+    /**
+     * write {@code length} doubles of {@code src}, starting at {@code offset}, in little-endian order.
+     */
+    public void writeDoublesLE(final double[] src, final int offset, final int length) throws IOException {
+        switcher.get().writeDoublesLE(src, offset, length);
+    }
 }
@@ -39,6 +39,8 @@ public final class BHConstants {
 
     public static final int DATA_TYPE_CACHE_SIZE = 1024;
 
+    public static final int CONNECTION_TYPE_MEMO_SIZE = 256;
+
     public static final int COMPRESSION_HEADER_LENGTH = 9;
 
     public static final int CHECKSUM_LENGTH = 16;
@@ -48,4 +50,8 @@ public final class BHConstants {
     public static final int SOCKET_RECV_BUFFER_BYTES = 1024 * 1024;
 
     public static final int COLUMN_BUFFER_BYTES = 1024 * 1024;
+
+    public static final int INFILE_READ_BUFFER_BYTES = 1024 * 1024;
+
+    public static final int INFILE_CHUNK_BYTES = 8 * 1024 * 1024;
 }
@@ -89,6 +89,40 @@ public class ByteHouseConfig implements Serializable {
 
     private final boolean insertInfileLocal;
 
+    private final Duration insertSampleBlockCacheTtl;
+
+    private final String healthCheckPolicy;
+
+    private final Duration healthCheckIdleTime;
+
+    private final boolean poolEnabled;
+
+    private final int poolMinIdle;
+
+    private final int poolMaxIdle;
+
+    private final int poolMaxSize;
+
+    private final Duration poolMaxLifetime;
+
+    private final Duration poolBorrowTimeout;
+
+    private final boolean nioTransport;
+
+    private final String compressionMethod;
+
+    private final int compressionLevel;
+
+    private final boolean resultPrefetch;
+
+    private final long parallelDecodeThreshold;
+
+    private final boolean lazyColumnDecode;
+
+    private final int insertInfileParallelism;
+
+    private final boolean insertAsyncSend;
+
     private final Map<SettingKey, Serializable> settings;
 
     private ByteHouseConfig(
@@ -116,6 +150,23 @@ public class ByteHouseConfig implements Serializable {
             final long maxBlockSize,
             final String booleanColumnPrefix,
             final boolean insertInfileLocal,
+            final Duration insertSampleBlockCacheTtl,
+            final String healthCheckPolicy,
+            final Duration healthCheckIdleTime,
+            final boolean poolEnabled,
+            final int poolMinIdle,
+            final int poolMaxIdle,
+            final int poolMaxSize,
+            final Duration poolMaxLifetime,
+            final Duration poolBorrowTimeout,
+            final boolean nioTransport,
+            final String compressionMethod,
+            final int compressionLevel,
+            final boolean resultPrefetch,
+            final long parallelDecodeThreshold,
+            final boolean lazyColumnDecode,
+            final int insertInfileParallelism,
+            final boolean insertAsyncSend,
             final Map<SettingKey, Serializable> settings
     ) {
         this.region = region;
@@ -142,6 +193,23 @@ public class ByteHouseConfig implements Serializable {
         this.maxBlockSize = maxBlockSize;
         this.booleanColumnPrefix = booleanColumnPrefix;
         this.insertInfileLocal = insertInfileLocal;
+        this.insertSampleBlockCacheTtl = insertSampleBlockCacheTtl;
+        this.healthCheckPolicy = healthCheckPolicy;
+        this.healthCheckIdleTime = healthCheckIdleTime;
+        this.poolEnabled = poolEnabled;
+        this.poolMinIdle = poolMinIdle;
+        this.poolMaxIdle = poolMaxIdle;
+        this.poolMaxSize = poolMaxSize;
+        this.poolMaxLifetime = poolMaxLifetime;
+        this.poolBorrowTimeout = poolBorrowTimeout;
+        this.nioTransport = nioTransport;
+        this.compressionMethod = compressionMethod;
+        this.compressionLevel = compressionLevel;
+        this.resultPrefetch = resultPrefetch;
+        this.parallelDecodeThreshold = parallelDecodeThreshold;
+        this.lazyColumnDecode = lazyColumnDecode;
+        this.insertInfileParallelism = insertInfileParallelism;
+        this.insertAsyncSend = insertAsyncSend;
         this.settings = settings;
     }
 
@@ -251,6 +319,74 @@ public class ByteHouseConfig implements Serializable {
         return insertInfileLocal;
     }
 
+    public Duration insertSampleBlockCacheTtl() {
+        return insertSampleBlockCacheTtl;
+    }
+
+    public String healthCheckPolicy() {
+        return healthCheckPolicy;
+    }
+
+    public Duration healthCheckIdleTime() {
+        return healthCheckIdleTime;
+    }
+
+    public boolean poolEnabled() {
+        return poolEnabled;
+    }
+
+    public int poolMinIdle() {
+        return poolMinIdle;
+    }
+
+    public int poolMaxIdle() {
+        return poolMaxIdle;
+    }
+
+    public int poolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public Duration poolMaxLifetime() {
+        return poolMaxLifetime;
+    }
+
+    public Duration poolBorrowTimeout() {
+        return poolBorrowTimeout;
+    }
+
+    public boolean nioTransport() {
+        return nioTransport;
+    }
+
+    public String compressionMethod() {
+        return compressionMethod;
+    }
+
+    public int compressionLevel() {
+        return compressionLevel;
+    }
+
+    public boolean resultPrefetch() {
+        return resultPrefetch;
+    }
+
+    public long parallelDecodeThreshold() {
+        return parallelDecodeThreshold;
+    }
+
+    public boolean lazyColumnDecode() {
+        return lazyColumnDecode;
+    }
+
+    public int insertInfileParallelism() {
+        return insertInfileParallelism;
+    }
+
+    public boolean insertAsyncSend() {
+        return insertAsyncSend;
+    }
+
     public Map<SettingKey, Serializable> settings() {
         return settings;
     }
@@ -444,6 +580,159 @@ public class ByteHouseConfig implements Serializable {
                 .build();
     }
 
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withInsertSampleBlockCacheTtl(final Duration insertSampleBlockCacheTtl) {
+        return Builder.builder(this)
+                .insertSampleBlockCacheTtl(insertSampleBlockCacheTtl)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withHealthCheckPolicy(final String healthCheckPolicy) {
+        return Builder.builder(this)
+                .healthCheckPolicy(healthCheckPolicy)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withHealthCheckIdleTime(final Duration healthCheckIdleTime) {
+        return Builder.builder(this)
+                .healthCheckIdleTime(healthCheckIdleTime)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withPoolEnabled(final boolean poolEnabled) {
+        return Builder.builder(this)
+                .poolEnabled(poolEnabled)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withPoolMinIdle(final int poolMinIdle) {
+        return Builder.builder(this)
+                .poolMinIdle(poolMinIdle)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withPoolMaxIdle(final int poolMaxIdle) {
+        return Builder.builder(this)
+                .poolMaxIdle(poolMaxIdle)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withPoolMaxSize(final int poolMaxSize) {
+        return Builder.builder(this)
+                .poolMaxSize(poolMaxSize)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withPoolMaxLifetime(final Duration poolMaxLifetime) {
+        return Builder.builder(this)
+                .poolMaxLifetime(poolMaxLifetime)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withPoolBorrowTimeout(final Duration poolBorrowTimeout) {
+        return Builder.builder(this)
+                .poolBorrowTimeout(poolBorrowTimeout)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withNioTransport(final boolean nioTransport) {
+        return Builder.builder(this)
+                .nioTransport(nioTransport)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withCompressionMethod(final String compressionMethod) {
+        return Builder.builder(this)
+                .compressionMethod(compressionMethod)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withCompressionLevel(final int compressionLevel) {
+        return Builder.builder(this)
+                .compressionLevel(compressionLevel)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withResultPrefetch(final boolean resultPrefetch) {
+        return Builder.builder(this)
+                .resultPrefetch(resultPrefetch)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withParallelDecodeThreshold(final long parallelDecodeThreshold) {
+        return Builder.builder(this)
+                .parallelDecodeThreshold(parallelDecodeThreshold)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withLazyColumnDecode(final boolean lazyColumnDecode) {
+        return Builder.builder(this)
+                .lazyColumnDecode(lazyColumnDecode)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withInsertInfileParallelism(final int insertInfileParallelism) {
+        return Builder.builder(this)
+                .insertInfileParallelism(insertInfileParallelism)
+                .build();
+    }
+
+    /**
+     * cloning method.
+     */
+    public ByteHouseConfig withInsertAsyncSend(final boolean insertAsyncSend) {
+        return Builder.builder(this)
+                .insertAsyncSend(insertAsyncSend)
+                .build();
+    }
+
     /**
      * cloning method.
      */
@@ -534,6 +823,40 @@ public class ByteHouseConfig implements Serializable {
 
         private boolean insertInfileLocal;
 
+        private Duration insertSampleBlockCacheTtl;
+
+        private String healthCheckPolicy;
+
+        private Duration healthCheckIdleTime;
+
+        private boolean poolEnabled;
+
+        private int poolMinIdle;
+
+        private int poolMaxIdle;
+
+        private int poolMaxSize;
+
+        private Duration poolMaxLifetime;
+
+        private Duration poolBorrowTimeout;
+
+        private boolean nioTransport;
+
+        private String compressionMethod;
+
+        private int compressionLevel;
+
+        private boolean resultPrefetch;
+
+        private long parallelDecodeThreshold;
+
+        private boolean lazyColumnDecode;
+
+        private int insertInfileParallelism;
+
+        private boolean insertAsyncSend;
+
         private Map<SettingKey, Serializable> settings = new HashMap<>();
 
         private Builder() {
@@ -575,6 +898,23 @@ public class ByteHouseConfig implements Serializable {
                     .maxBlockSize(cfg.maxBlockSize())
                     .booleanColumnPrefix(cfg.booleanColumnPrefix())
                     .insertInfileLocal(cfg.insertInfileLocal())
+                    .insertSampleBlockCacheTtl(cfg.insertSampleBlockCacheTtl())
+                    .healthCheckPolicy(cfg.healthCheckPolicy())
+                    .healthCheckIdleTime(cfg.healthCheckIdleTime())
+                    .poolEnabled(cfg.poolEnabled())
+                    .poolMinIdle(cfg.poolMinIdle())
+                    .poolMaxIdle(cfg.poolMaxIdle())
+                    .poolMaxSize(cfg.poolMaxSize())
+                    .poolMaxLifetime(cfg.poolMaxLifetime())
+                    .poolBorrowTimeout(cfg.poolBorrowTimeout())
+                    .nioTransport(cfg.nioTransport())
+                    .compressionMethod(cfg.compressionMethod())
+                    .compressionLevel(cfg.compressionLevel())
+                    .resultPrefetch(cfg.resultPrefetch())
+                    .parallelDecodeThreshold(cfg.parallelDecodeThreshold())
+                    .lazyColumnDecode(cfg.lazyColumnDecode())
+                    .insertInfileParallelism(cfg.insertInfileParallelism())
+                    .insertAsyncSend(cfg.insertAsyncSend())
                     .withSettings(cfg.settings());
         }
 
@@ -713,6 +1053,91 @@ public class ByteHouseConfig implements Serializable {
             return this;
         }
 
+        public Builder insertSampleBlockCacheTtl(final Duration insertSampleBlockCacheTtl) {
+            this.withSetting(SettingKey.insertSampleBlockCacheTtl, insertSampleBlockCacheTtl);
+            return this;
+        }
+
+        public Builder healthCheckPolicy(final String healthCheckPolicy) {
+            this.withSetting(SettingKey.healthCheckPolicy, healthCheckPolicy);
+            return this;
+        }
+
+        public Builder healthCheckIdleTime(final Duration healthCheckIdleTime) {
+            this.withSetting(SettingKey.healthCheckIdleTime, healthCheckIdleTime);
+            return this;
+        }
+
+        public Builder poolEnabled(final boolean poolEnabled) {
+            this.withSetting(SettingKey.poolEnabled, poolEnabled);
+            return this;
+        }
+
+        public Builder poolMinIdle(final int poolMinIdle) {
+            this.withSetting(SettingKey.poolMinIdle, poolMinIdle);
+            return this;
+        }
+
+        public Builder poolMaxIdle(final int poolMaxIdle) {
+            this.withSetting(SettingKey.poolMaxIdle, poolMaxIdle);
+            return this;
+        }
+
+        public Builder poolMaxSize(final int poolMaxSize) {
+            this.withSetting(SettingKey.poolMaxSize, poolMaxSize);
+            return this;
+        }
+
+        public Builder poolMaxLifetime(final Duration poolMaxLifetime) {
+            this.withSetting(SettingKey.poolMaxLifetime, poolMaxLifetime);
+            return this;
+        }
+
+        public Builder poolBorrowTimeout(final Duration poolBorrowTimeout) {
+            this.withSetting(SettingKey.poolBorrowTimeout, poolBorrowTimeout);
+            return this;
+        }
+
+        public Builder nioTransport(final boolean nioTransport) {
+            this.withSetting(SettingKey.nioTransport, nioTransport);
+            return this;
+        }
+
+        public Builder compressionMethod(final String compressionMethod) {
+            this.withSetting(SettingKey.compressionMethod, compressionMethod);
+            return this;
+        }
+
+        public Builder compressionLevel(final int compressionLevel) {
+            this.withSetting(SettingKey.compressionLevel, compressionLevel);
+            return this;
+        }
+
+        public Builder resultPrefetch(final boolean resultPrefetch) {
+            this.withSetting(SettingKey.resultPrefetch, resultPrefetch);
+            return this;
+        }
+
+        public Builder parallelDecodeThreshold(final long parallelDecodeThreshold) {
+            this.withSetting(SettingKey.parallelDecodeThreshold, parallelDecodeThreshold);
+            return this;
+        }
+
+        public Builder lazyColumnDecode(final boolean lazyColumnDecode) {
+            this.withSetting(SettingKey.lazyColumnDecode, lazyColumnDecode);
+            return this;
+        }
+
+        public Builder insertInfileParallelism(final int insertInfileParallelism) {
+            this.withSetting(SettingKey.insertInfileParallelism, insertInfileParallelism);
+            return this;
+        }
+
+        public Builder insertAsyncSend(final boolean insertAsyncSend) {
+            this.withSetting(SettingKey.insertAsyncSend, insertAsyncSend);
+            return this;
+        }
+
         public Builder settings(final Map<SettingKey, Serializable> settings) {
             this.settings = settings;
             return this;
@@ -758,9 +1183,29 @@ public class ByteHouseConfig implements Serializable {
             this.booleanColumnPrefix = (String) this.settings.getOrDefault(SettingKey.booleanColumnPrefix, "");
             this.insertInfileLocal = (boolean) this.settings.getOrDefault(SettingKey.insertInfileLocal, false);
             this.formatCSVDelimiter = (String) this.settings.getOrDefault(SettingKey.formatCSVDelimiter, ",");
+            this.insertSampleBlockCacheTtl = (Duration) this.settings.getOrDefault(SettingKey.insertSampleBlockCacheTtl, Duration.ofMinutes(1));
+            this.healthCheckPolicy = (String) this.settings.getOrDefault(SettingKey.healthCheckPolicy, HealthCheckPolicy.IDLE.getName());
+            // fail fast on an unknown policy
+            HealthCheckPolicy.fromString(this.healthCheckPolicy);
+            this.healthCheckIdleTime = (Duration) this.settings.getOrDefault(SettingKey.healthCheckIdleTime, Duration.ofSeconds(30));
+            this.poolEnabled = (boolean) this.settings.getOrDefault(SettingKey.poolEnabled, false);
+            this.poolMinIdle = ((Number) this.settings.getOrDefault(SettingKey.poolMinIdle, 0)).intValue();
+            this.poolMaxIdle = ((Number) this.settings.getOrDefault(SettingKey.poolMaxIdle, 10)).intValue();
+            this.poolMaxSize = ((Number) this.settings.getOrDefault(SettingKey.poolMaxSize, 10)).intValue();
+            this.poolMaxLifetime = (Duration) this.settings.getOrDefault(SettingKey.poolMaxLifetime, Duration.ofMinutes(30));
+            this.poolBorrowTimeout = (Duration) this.settings.getOrDefault(SettingKey.poolBorrowTimeout, Duration.ofSeconds(30));
+            this.nioTransport = (boolean) this.settings.getOrDefault(SettingKey.nioTransport, false);
+            this.compressionMethod = (String) this.settings.getOrDefault(SettingKey.compressionMethod, CompressionMethod.LZ4.getName());
+            this.compressionLevel = ((Number) this.settings.getOrDefault(SettingKey.compressionLevel, 0)).intValue();
+            this.resultPrefetch = (boolean) this.settings.getOrDefault(SettingKey.resultPrefetch, false);
+            this.parallelDecodeThreshold = ((Number) this.settings.getOrDefault(SettingKey.parallelDecodeThreshold, 0L)).longValue();
+            this.lazyColumnDecode = (boolean) this.settings.getOrDefault(SettingKey.lazyColumnDecode, false);
+            this.insertInfileParallelism = ((Number) this.settings.getOrDefault(SettingKey.insertInfileParallelism, 0)).intValue();
+            this.insertAsyncSend = (boolean) this.settings.getOrDefault(SettingKey.insertAsyncSend, false);
 
             useDefaultIfNotSet();
             purgeClientSettings();
+            handleCompressionSettings();
 
             return new ByteHouseConfig(
                     region,
@@ -787,6 +1232,23 @@ public class ByteHouseConfig implements Serializable {
                     maxBlockSize,
                     booleanColumnPrefix,
                     insertInfileLocal,
+                    insertSampleBlockCacheTtl,
+                    healthCheckPolicy,
+                    healthCheckIdleTime,
+                    poolEnabled,
+                    poolMinIdle,
+                    poolMaxIdle,
+                    poolMaxSize,
+                    poolMaxLifetime,
+                    poolBorrowTimeout,
+                    nioTransport,
+                    compressionMethod,
+                    compressionLevel,
+                    resultPrefetch,
+                    parallelDecodeThreshold,
+                    lazyColumnDecode,
+                    insertInfileParallelism,
+                    insertAsyncSend,
                     settings
             );
         }
@@ -801,6 +1263,20 @@ public class ByteHouseConfig implements Serializable {
             this.withSetting(SettingKey.secure, true);
         }
 
+        /**
+         * Ask the server to compress its blocks the same way, LZ4 is the server default and needs no setting.
+         */
+        private void handleCompressionSettings() {
+            final CompressionMethod method = CompressionMethod.fromString(this.compressionMethod);
+            if (method == CompressionMethod.LZ4) {
+                return;
+            }
+            this.settings.put(SettingKey.network_compression_method, method.getName());
+            if (method == CompressionMethod.ZSTD && this.compressionLevel > 0) {
+                this.settings.put(SettingKey.network_zstd_compression_level, (long) this.compressionLevel);
+            }
+        }
+
         private void useDefaultIfNotSet() {
             if (StrUtil.isBlank(this.host)) this.host = "127.0.0.1";
             if (this.port == -1) this.port = 9000;
@@ -0,0 +1,59 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.settings;
+
+import com.bytedance.bytehouse.exception.InvalidValueException;
+import java.util.Locale;
+
+/**
+ * Codec of the compressed blocks exchanged with the server, with the method byte of its frame header.
+ */
+public enum CompressionMethod {
+    NONE("none", 0x02),
+    LZ4("lz4", 0x82),
+    /**
+     * LZ4 high compression shares the LZ4 frame format, the server decodes both the same way.
+     */
+    LZ4HC("lz4hc", 0x82),
+    ZSTD("zstd", 0x90);
+
+    private final String name;
+
+    private final int methodByte;
+
+    CompressionMethod(final String name, final int methodByte) {
+        this.name = name;
+        this.methodByte = methodByte;
+    }
+
+    public static CompressionMethod fromString(final String name) {
+        final String lowerCase = name.trim().toLowerCase(Locale.ROOT);
+        for (CompressionMethod method : CompressionMethod.values()) {
+            if (method.name.equals(lowerCase)) {
+                return method;
+            }
+        }
+        throw new InvalidValueException("Invalid compression_method: " + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMethodByte() {
+        return methodByte;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.settings;
+
+import com.bytedance.bytehouse.exception.InvalidValueException;
+import java.util.Locale;
+
+/**
+ * When a connection checks the server is still reachable before sending a query.
+ */
+public enum HealthCheckPolicy {
+    /**
+     * never ping, a broken connection is only detected by the failing query.
+     */
+    NEVER("never"),
+    /**
+     * ping only if nothing was exchanged with the server for longer than health_check_idle_time.
+     */
+    IDLE("idle"),
+    /**
+     * ping before every query.
+     */
+    ALWAYS("always");
+
+    private final String name;
+
+    HealthCheckPolicy(final String name) {
+        this.name = name;
+    }
+
+    public static HealthCheckPolicy fromString(final String name) {
+        final String lowerCase = name.trim().toLowerCase(Locale.ROOT);
+        for (HealthCheckPolicy policy : HealthCheckPolicy.values()) {
+            if (policy.name.equals(lowerCase)) {
+                return policy;
+            }
+        }
+        throw new InvalidValueException("Invalid health_check_policy: " + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -1830,6 +1830,125 @@ public class SettingKey implements Serializable {
             .withType(SettingType.UTF_8)
             .build();
 
+    @ClientConfigKey
+    public static SettingKey insertSampleBlockCacheTtl = SettingKey.builder()
+            .withName("insert_sample_block_cache_ttl")
+            .withType(SettingType.MILLISECONDS)
+            .withDescription("how long an insert header block is reused before it is fetched again, 0 disables the cache")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey healthCheckPolicy = SettingKey.builder()
+            .withName("health_check_policy")
+            .withType(SettingType.UTF_8)
+            .withDescription("when to ping the server before a query: never, idle (after health_check_idle_time without traffic) or always")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey healthCheckIdleTime = SettingKey.builder()
+            .withName("health_check_idle_time")
+            .withType(SettingType.MILLISECONDS)
+            .withDescription("idle time after which the connection is pinged before a query when health_check_policy is idle")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey poolEnabled = SettingKey.builder()
+            .withName("pool_enabled")
+            .withType(SettingType.BOOL)
+            .withDescription("reuse connections opened by ByteHouseDataSource, closed connections go back to a per-host pool")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey poolMinIdle = SettingKey.builder()
+            .withName("pool_min_idle")
+            .withType(SettingType.INT_32)
+            .withDescription("idle connections the pool keeps open for each host")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey poolMaxIdle = SettingKey.builder()
+            .withName("pool_max_idle")
+            .withType(SettingType.INT_32)
+            .withDescription("idle connections above this number are closed when returned to the pool")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey poolMaxSize = SettingKey.builder()
+            .withName("pool_max_size")
+            .withType(SettingType.INT_32)
+            .withDescription("connections the pool hands out at the same time for each host")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey poolMaxLifetime = SettingKey.builder()
+            .withName("pool_max_lifetime")
+            .withType(SettingType.MILLISECONDS)
+            .withDescription("pooled connections older than this are closed instead of being reused")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey poolBorrowTimeout = SettingKey.builder()
+            .withName("pool_borrow_timeout")
+            .withType(SettingType.MILLISECONDS)
+            .withDescription("how long getConnection waits for a pooled connection when pool_max_size is reached")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey nioTransport = SettingKey.builder()
+            .withName("nio_transport")
+            .withType(SettingType.BOOL)
+            .withDescription("use a SocketChannel with direct buffers leased from a shared pool instead of socket streams, not applied to secure connections")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey compressionMethod = SettingKey.builder()
+            .withName("compression_method")
+            .withType(SettingType.UTF_8)
+            .withDescription("codec of compressed blocks sent and requested from the server: none, lz4, lz4hc or zstd")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey compressionLevel = SettingKey.builder()
+            .withName("compression_level")
+            .withType(SettingType.INT_32)
+            .withDescription("level of the compression_method asked from the server, 0 uses the default level")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey resultPrefetch = SettingKey.builder()
+            .withName("result_prefetch")
+            .withType(SettingType.BOOL)
+            .withDescription("read and decode result blocks on a background thread ahead of ResultSet.next(), up to the fetch size in rows")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey parallelDecodeThreshold = SettingKey.builder()
+            .withName("parallel_decode_threshold")
+            .withType(SettingType.INT_64)
+            .withDescription("cells (rows times columns) of a received block at or above which its columns are decoded in parallel, 0 decodes on the calling thread")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey lazyColumnDecode = SettingKey.builder()
+            .withName("lazy_column_decode")
+            .withType(SettingType.BOOL)
+            .withDescription("keep the raw bytes of non-numeric result columns and decode a column only when it is first read")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey insertInfileParallelism = SettingKey.builder()
+            .withName("insert_infile_parallelism")
+            .withType(SettingType.INT_32)
+            .withDescription("threads parsing the file of an INSERT ... INFILE in parallel, with 0 or 1 CSV files are parsed on the calling thread and other formats on one thread")
+            .build();
+
+    @ClientConfigKey
+    public static SettingKey insertAsyncSend = SettingKey.builder()
+            .withName("insert_async_send")
+            .withType(SettingType.BOOL)
+            .withDescription("send full insert blocks on a background thread while the next block is filled, a failed send is thrown by the next addBatch or executeBatch")
+            .build();
+
     private final String name;
 
     private final SettingType<?> type;
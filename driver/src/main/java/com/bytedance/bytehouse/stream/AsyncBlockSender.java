@@ -0,0 +1,123 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import com.bytedance.bytehouse.data.Block;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+/**
+ * Sends the blocks of a batch insert on a background thread while the caller fills the next one.
+ * <br><br>
+ * Two blocks are used in turn, so at most one send is in flight: handing over a full block first
+ * waits for the previous send. A failed send is thrown by the next call, once.
+ */
+public class AsyncBlockSender {
+
+    private static final ExecutorService SENDERS = Executors.newCachedThreadPool(new SenderFactory());
+
+    private final ParallelInfileInserter.BlockSender sender;
+
+    // the block sent last, filled again once its send is over
+    @Nullable
+    private Block spare;
+
+    @Nullable
+    private Future<Integer> inFlight;
+
+    private int sentRows;
+
+    public AsyncBlockSender(final ParallelInfileInserter.BlockSender sender) {
+        this.sender = sender;
+    }
+
+    /**
+     * starts sending {@code full} once the previous send completed.
+     *
+     * @return the empty block to fill while {@code full} is sent.
+     */
+    public Block send(final Block full) throws SQLException {
+        await();
+        final Block next = spare != null ? spare : full.emptyCopy();
+        inFlight = SENDERS.submit(() -> {
+            final int rows = sender.send(full);
+            full.reuseBlock();
+            return rows;
+        });
+        spare = full;
+        return next;
+    }
+
+    /**
+     * throws the failure of the send in flight if it already failed, without waiting for it.
+     */
+    public void throwIfFailed() throws SQLException {
+        final Future<Integer> current = inFlight;
+        if (current != null && current.isDone()) {
+            await();
+        }
+    }
+
+    /**
+     * waits for the send in flight, if any.
+     */
+    public void await() throws SQLException {
+        final Future<Integer> current = inFlight;
+        if (current == null) {
+            return;
+        }
+        inFlight = null;
+        try {
+            sentRows += current.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while sending block", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Failed to send block", cause);
+        }
+    }
+
+    /**
+     * @return the rows of the sends completed since the last call.
+     */
+    public int takeSentRows() {
+        final int rows = sentRows;
+        sentRows = 0;
+        return rows;
+    }
+
+    private static final class SenderFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "bytehouse-insert-send-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
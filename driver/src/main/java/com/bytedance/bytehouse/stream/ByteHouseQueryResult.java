@@ -20,24 +20,48 @@ import com.bytedance.bytehouse.misc.CheckedIterator;
 import com.bytedance.bytehouse.misc.CheckedSupplier;
 import com.bytedance.bytehouse.protocol.DataResponse;
 import com.bytedance.bytehouse.protocol.EOFStreamResponse;
+import com.bytedance.bytehouse.protocol.RawDataResponse;
 import com.bytedance.bytehouse.protocol.Response;
+import com.bytedance.bytehouse.protocol.Response.DataMode;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ByteHouseQueryResult implements QueryResult {
 
-    private final CheckedSupplier<Response, SQLException> responseSupplier;
+    private final ResponseSource source;
 
-    private Block header;
+    // set by whichever thread reads the first response, e.g. a prefetching reader
+    private volatile Block header;
 
-    private boolean atEnd;
+    private volatile boolean atEnd;
+
+    // set by the first cancel, thrown to the consumer once the remaining responses are discarded
+    private final AtomicReference<SQLException> cancellation = new AtomicReference<>();
     // Progress
     // Totals
     // Extremes
     // ProfileInfo
     // EndOfStream
 
+    /**
+     * result over a source that can't be cancelled and always decodes data.
+     */
     public ByteHouseQueryResult(CheckedSupplier<Response, SQLException> responseSupplier) {
-        this.responseSupplier = responseSupplier;
+        this(new ResponseSource() {
+            @Override
+            public Response receive(final DataMode mode) throws SQLException {
+                return responseSupplier.get();
+            }
+
+            @Override
+            public void cancel() {
+                // the remaining responses are still read, only their data is dropped
+            }
+        });
+    }
+
+    public ByteHouseQueryResult(final ResponseSource source) {
+        this.source = source;
     }
 
     @Override
@@ -48,61 +72,142 @@ public class ByteHouseQueryResult implements QueryResult {
 
     @Override
     public CheckedIterator<DataResponse, SQLException> data() {
-        return new CheckedIterator<DataResponse, SQLException>() {
-            private DataResponse current;
-
-            @Override
-            public boolean hasNext() throws SQLException {
-                return current != null || fill() != null;
-            }
-
-            @Override
-            public DataResponse next() throws SQLException {
-                return drain();
-            }
+        return new ResponseIterator<>(DataMode.DECODE, DataResponse.class);
+    }
 
-            private DataResponse fill() throws SQLException {
-                ensureHeaderConsumed();
-                return current = consumeDataResponse();
-            }
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * The header block comes first when {@link #header()} was not called before.
+     */
+    @Override
+    public CheckedIterator<RawDataResponse, SQLException> rawData() {
+        return new ResponseIterator<>(DataMode.RAW, RawDataResponse.class);
+    }
 
-            private DataResponse drain() throws SQLException {
-                if (current == null) {
-                    fill();
-                }
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * A result that reaches its end right as the cancel is sent leaves the server with a cancel
+     * for no query, which it ignores.
+     */
+    @Override
+    public boolean cancel(final SQLException reason) throws SQLException {
+        if (cancellation.get() != null) {
+            return true;
+        }
+        if (atEnd) {
+            return false;
+        }
+        if (cancellation.compareAndSet(null, reason)) {
+            source.cancel();
+        }
+        return true;
+    }
 
-                DataResponse top = current;
-                current = null;
-                return top;
-            }
-        };
+    @Override
+    public boolean isComplete() {
+        return atEnd;
     }
 
     private void ensureHeaderConsumed() throws SQLException {
         if (header == null) {
-            final DataResponse firstDataResponse = consumeDataResponse();
+            final DataResponse firstDataResponse = consumeDataResponse(DataMode.DECODE, DataResponse.class);
             header = firstDataResponse != null ? firstDataResponse.block() : Block.empty();
         }
     }
 
-    private DataResponse consumeDataResponse() throws SQLException {
+    private <T extends Response> T consumeDataResponse(
+            final DataMode mode,
+            final Class<T> type
+    ) throws SQLException {
         while (!atEnd && !Thread.currentThread().isInterrupted()) {
             Response response;
             try {
-                response = responseSupplier.get();
+                response = source.receive(cancellation.get() != null ? DataMode.DISCARD : mode);
             } catch (SQLException e) {
                 // happens when ExceptionResponse is received from server. In this case,
                 // no more responses can be expected.
                 atEnd = true;
+                final SQLException reason = cancellation.get();
+                if (reason != null) {
+                    reason.addSuppressed(e);
+                    throw reason;
+                }
                 throw e;
             }
-            if (response instanceof DataResponse) {
-                return (DataResponse) response;
+            if (type.isInstance(response)) {
+                if (cancellation.get() == null) {
+                    return type.cast(response);
+                }
             } else if (response instanceof EOFStreamResponse || response == null) {
                 atEnd = true;
             }
         }
 
+        final SQLException reason = cancellation.get();
+        if (reason != null) {
+            throw reason;
+        }
         return null;
     }
+
+    private final class ResponseIterator<T extends Response> implements CheckedIterator<T, SQLException> {
+
+        private final DataMode mode;
+
+        private final Class<T> type;
+
+        private T current;
+
+        ResponseIterator(final DataMode mode, final Class<T> type) {
+            this.mode = mode;
+            this.type = type;
+        }
+
+        @Override
+        public boolean hasNext() throws SQLException {
+            return current != null || fill() != null;
+        }
+
+        @Override
+        public T next() throws SQLException {
+            return drain();
+        }
+
+        private T fill() throws SQLException {
+            if (mode == DataMode.DECODE) {
+                ensureHeaderConsumed();
+            }
+            return current = consumeDataResponse(mode, type);
+        }
+
+        private T drain() throws SQLException {
+            if (current == null) {
+                fill();
+            }
+
+            T top = current;
+            current = null;
+            return top;
+        }
+    }
+
+    /**
+     * where the responses of a query come from.
+     */
+    public interface ResponseSource {
+
+        /**
+         * receives the next response.
+         *
+         * @param mode how to read the columns of a data response.
+         */
+        Response receive(DataMode mode) throws SQLException;
+
+        /**
+         * asks the server to stop the query, called from any thread.
+         */
+        void cancel() throws SQLException;
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.annotation.Nullable;
+
+/**
+ * Cuts a file into memory-mapped chunks that end right after a line break, so every chunk holds
+ * whole records and can be parsed independently of the others.
+ * <br><br>
+ * Line breaks between two {@code quote} bytes are part of a value and never end a chunk. Quotes
+ * escaped by doubling them toggle the state twice, which leaves it unchanged.
+ */
+public class InfileChunkReader implements Closeable {
+
+    /**
+     * passed as {@code quote} for formats where line breaks inside values are always escaped.
+     */
+    public static final int NO_QUOTE = -1;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final int chunkBytes;
+
+    private final int quote;
+
+    private long position;
+
+    public InfileChunkReader(final Path file, final int chunkBytes, final int quote) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.chunkBytes = chunkBytes;
+        this.quote = quote;
+    }
+
+    /**
+     * @return the next chunk of about {@code chunkBytes} bytes, null at the end of the file.
+     */
+    @Nullable
+    public ByteBuffer nextChunk() throws IOException {
+        return next(false, true);
+    }
+
+    /**
+     * @return the next record including its line break, null at the end of the file.
+     */
+    @Nullable
+    public ByteBuffer nextRecord() throws IOException {
+        return next(true, true);
+    }
+
+    /**
+     * @return the next record like {@link #nextRecord()} without moving past it.
+     */
+    @Nullable
+    public ByteBuffer peekRecord() throws IOException {
+        return next(true, false);
+    }
+
+    /**
+     * @return the offset in the file where the next chunk starts.
+     */
+    public long position() {
+        return position;
+    }
+
+    private ByteBuffer next(final boolean firstRecordOnly, final boolean advance) throws IOException {
+        if (position >= size) {
+            return null;
+        }
+        for (long window = chunkBytes; ; window *= 2) {
+            final long length = Math.min(window, size - position);
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Record at offset " + position + " is larger than 2 GiB");
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            final boolean atEnd = position + length == size;
+            int end = atEnd && !firstRecordOnly ? (int) length : recordEnd(mapped, firstRecordOnly);
+            if (end == 0) {
+                if (!atEnd) {
+                    continue;
+                }
+                // the last record has no trailing line break
+                end = (int) length;
+            }
+            mapped.limit(end);
+            if (advance) {
+                position += end;
+            }
+            return mapped;
+        }
+    }
+
+    /**
+     * @return the offset after the last, or with {@code first} the first, line break outside
+     *         quotes, 0 if there is none.
+     */
+    private int recordEnd(final ByteBuffer bytes, final boolean first) {
+        boolean quoted = false;
+        int end = 0;
+        for (int i = 0, n = bytes.limit(); i < n; i++) {
+            final int b = bytes.get(i);
+            if (b == quote) {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                end = i + 1;
+                if (first) {
+                    break;
+                }
+            }
+        }
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.DataTypeConverter;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.data.IDataType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses the chunks of an {@link InfileChunkReader} into {@link Block}s on a pool of worker threads
+ * while the calling thread sends the finished blocks in file order.
+ * <br><br>
+ * At most two chunks per worker are in flight and sent blocks are recycled for later chunks,
+ * so memory does not grow with the file size.
+ */
+public class ParallelInfileInserter {
+
+    private final int threads;
+
+    private final long maxBlockSize;
+
+    private final DataTypeConverter converter;
+
+    public ParallelInfileInserter(final int threads, final long maxBlockSize, final DataTypeConverter converter) {
+        this.threads = threads;
+        this.maxBlockSize = maxBlockSize;
+        this.converter = converter;
+    }
+
+    /**
+     * parses every remaining chunk of {@code chunks} into blocks shaped like {@code header} and
+     * hands them to {@code sender} in order.
+     *
+     * @return the number of rows sent.
+     */
+    public long insert(
+            final InfileChunkReader chunks,
+            final Block header,
+            final ChunkParser parser,
+            final BlockSender sender
+    ) throws IOException, SQLException {
+        final Queue<Block> recycled = new ConcurrentLinkedQueue<>();
+        final ArrayDeque<Future<List<Block>>> inFlight = new ArrayDeque<>();
+        final ExecutorService workers = Executors.newFixedThreadPool(threads, new WorkerFactory());
+        long rows = 0;
+        try {
+            ByteBuffer chunk;
+            while ((chunk = chunks.nextChunk()) != null) {
+                final ByteBuffer toParse = chunk;
+                inFlight.add(workers.submit(() -> {
+                    final BlockBuilder builder = new BlockBuilder(header, recycled);
+                    parser.parse(toParse, builder);
+                    return builder.finish();
+                }));
+                if (inFlight.size() >= threads * 2) {
+                    rows += send(inFlight.poll(), sender, recycled);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                rows += send(inFlight.poll(), sender, recycled);
+            }
+            return rows;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static long send(
+            final Future<List<Block>> parsed,
+            final BlockSender sender,
+            final Queue<Block> recycled
+    ) throws IOException, SQLException {
+        final List<Block> blocks;
+        try {
+            blocks = parsed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while parsing the file", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new SQLException(cause.getMessage(), cause);
+        }
+        long rows = 0;
+        for (final Block block : blocks) {
+            rows += sender.send(block);
+            block.reuseBlock();
+            recycled.offer(block);
+        }
+        return rows;
+    }
+
+    /**
+     * parses the records of one chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkParser {
+
+        void parse(ByteBuffer chunk, BlockBuilder builder) throws Exception;
+    }
+
+    /**
+     * sends one block of the insert, typically {@code ByteHouseConnection::sendBlock}.
+     */
+    @FunctionalInterface
+    public interface BlockSender {
+
+        int send(Block block) throws SQLException;
+    }
+
+    /**
+     * fills blocks row by row, starting a new one every {@code max_block_size} rows.
+     */
+    public final class BlockBuilder {
+
+        private final Block header;
+
+        private final Queue<Block> recycled;
+
+        private final List<Block> filled = new ArrayList<>();
+
+        private Block current;
+
+        private BlockBuilder(final Block header, final Queue<Block> recycled) throws SQLException {
+            this.header = header;
+            this.recycled = recycled;
+            this.current = nextBlock();
+        }
+
+        public int columnCnt() {
+            return header.columnCnt();
+        }
+
+        public IDataType<?, ?> type(final int columnIdx) throws SQLException {
+            return header.getColumn(columnIdx).type();
+        }
+
+        /**
+         * converts {@code value} to the type of the column as {@code PreparedStatement.setObject} does.
+         */
+        public void setObject(final int columnIdx, final Object value) throws SQLException {
+            current.setObject(columnIdx, converter.convertJdbcToJava(current.getColumn(columnIdx).type(), value));
+        }
+
+        public void appendRow() throws SQLException {
+            current.appendRow();
+            if (current.rowCnt() >= maxBlockSize) {
+                filled.add(current);
+                current = nextBlock();
+            }
+        }
+
+        private List<Block> finish() {
+            if (current.rowCnt() > 0) {
+                filled.add(current);
+            } else {
+                recycled.offer(current);
+            }
+            return filled;
+        }
+
+        private Block nextBlock() throws SQLException {
+            final Block reused = recycled.poll();
+            if (reused != null) {
+                return reused;
+            }
+            final IColumn[] columns = new IColumn[header.columnCnt()];
+            for (int i = 0; i < columns.length; i++) {
+                final IColumn column = header.getColumn(i);
+                columns[i] = ColumnFactoryUtils.createEmptyColumn(column.name(), column.type());
+            }
+            final Block block = new Block(0, columns, header.settings());
+            block.initWriteBuffer();
+            return block;
+        }
+    }
+
+    private static final class WorkerFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "bytehouse-infile-parse-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import com.bytedance.bytehouse.misc.CheckedIterator;
+import com.bytedance.bytehouse.protocol.DataResponse;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Reads {@link DataResponse}s from another iterator on a background thread, ahead of the consumer.
+ * <br><br>
+ * Blocks are queued until the queue holds at least fetch size rows, a single block is always
+ * accepted so a block larger than the fetch size does not stall the reader and a fetch size of 0
+ * reads one block ahead. The reader stops
+ * after the last response or the first error, which is rethrown to the consumer once the blocks
+ * read before it are consumed, or once the iterator is closed.
+ */
+@ThreadSafe
+public class PrefetchingDataIterator implements CheckedIterator<DataResponse, SQLException> {
+
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(r -> {
+        final Thread thread = new Thread(r, "bytehouse-result-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final CheckedIterator<DataResponse, SQLException> source;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final Queue<DataResponse> queue = new ArrayDeque<>();
+
+    private long queuedRows;
+
+    private volatile int fetchSize;
+
+    private boolean done;
+
+    private boolean closed;
+
+    private Throwable failure;
+
+    /**
+     * starts reading from {@code source} right away.
+     *
+     * @param fetchSize rows to read ahead, 0 for a single block
+     */
+    public PrefetchingDataIterator(
+            final CheckedIterator<DataResponse, SQLException> source,
+            final int fetchSize
+    ) {
+        this.source = source;
+        this.fetchSize = fetchSize;
+        READERS.execute(this::readAhead);
+    }
+
+    /**
+     * changes how many rows are read ahead, takes effect for the next block.
+     */
+    public void setFetchSize(final int fetchSize) {
+        this.fetchSize = fetchSize;
+        lock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * drops the queued blocks and stops the reader, a read already in progress completes first.
+     * The responses of the source that were not read yet are left unread.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            queuedRows = 0;
+            notFull.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean hasNext() throws SQLException {
+        lock.lock();
+        try {
+            while (queue.isEmpty() && !done && !closed) {
+                notEmpty.await();
+            }
+            if (closed) {
+                return false;
+            }
+            if (!queue.isEmpty()) {
+                return true;
+            }
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            }
+            if (failure != null) {
+                throw new SQLException(failure);
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the next block", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public DataResponse next() throws SQLException {
+        if (!hasNext()) {
+            return null;
+        }
+        lock.lock();
+        try {
+            final DataResponse next = queue.poll();
+            if (next == null) {
+                // closed by another thread
+                return null;
+            }
+            queuedRows -= next.block().rowCnt();
+            notFull.signal();
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void readAhead() {
+        try {
+            while (!isClosed() && source.hasNext()) {
+                final DataResponse next = source.next();
+                lock.lock();
+                try {
+                    while (!closed && !queue.isEmpty() && queuedRows >= fetchSize) {
+                        notFull.await();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    queue.add(next);
+                    queuedRows += next.block().rowCnt();
+                    notEmpty.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (Throwable th) {
+            lock.lock();
+            try {
+                failure = th;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            lock.lock();
+            try {
+                done = true;
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -18,7 +18,9 @@ package com.bytedance.bytehouse.stream;
 import com.bytedance.bytehouse.data.Block;
 import com.bytedance.bytehouse.misc.CheckedIterator;
 import com.bytedance.bytehouse.protocol.DataResponse;
+import com.bytedance.bytehouse.protocol.RawDataResponse;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 
 /**
  * Query Result.
@@ -31,4 +33,29 @@ public interface QueryResult {
     Block header() throws SQLException;
 
     CheckedIterator<DataResponse, SQLException> data();
+
+    /**
+     * Same blocks as {@link #data()}, kept in Native format instead of being decoded.
+     */
+    default CheckedIterator<RawDataResponse, SQLException> rawData() throws SQLException {
+        throw new SQLFeatureNotSupportedException("Raw data is not supported by this result");
+    }
+
+    /**
+     * Asks the server to stop the query. Responses still in flight are discarded without decoding
+     * their data and {@code reason} is thrown to the consumer of {@link #data()} once they are
+     * drained. Safe to call from any thread.
+     *
+     * @return true if the query is cancelled, false if the result was already complete.
+     */
+    default boolean cancel(SQLException reason) throws SQLException {
+        return false;
+    }
+
+    /**
+     * true once every response of the query was read, so the connection carries nothing of it.
+     */
+    default boolean isComplete() {
+        return false;
+    }
 }
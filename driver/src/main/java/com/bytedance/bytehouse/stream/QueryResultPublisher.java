@@ -0,0 +1,204 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.log.Logger;
+import com.bytedance.bytehouse.log.LoggerFactoryUtils;
+import com.bytedance.bytehouse.misc.CheckedIterator;
+import com.bytedance.bytehouse.misc.CheckedSupplier;
+import com.bytedance.bytehouse.protocol.DataResponse;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * {@link ReactiveFlow.Publisher} of the non-empty blocks of a query, for a single subscriber.
+ * <br><br>
+ * The query is started by the first request. Blocks are read from the server only while there
+ * is demand: once the requested blocks are delivered the socket is no longer read and the server
+ * is slowed down by TCP flow control, a slow subscriber never makes the driver buffer the result.
+ * <br><br>
+ * Reads and signals run on {@code executor}, one task at a time, so it must allow blocking.
+ * Cancelling the subscription cancels the query, the blocks still in flight are discarded
+ * without decoding.
+ */
+public class QueryResultPublisher implements ReactiveFlow.Publisher<Block> {
+
+    private static final Logger LOG = LoggerFactoryUtils.getLogger(QueryResultPublisher.class);
+
+    private final CheckedSupplier<QueryResult, SQLException> query;
+
+    private final Executor executor;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public QueryResultPublisher(
+            final CheckedSupplier<QueryResult, SQLException> query,
+            final Executor executor
+    ) {
+        this.query = query;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(final ReactiveFlow.Subscriber<? super Block> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new ReactiveFlow.Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("A query result can only be subscribed once"));
+            return;
+        }
+        subscriber.onSubscribe(new BlockSubscription(subscriber));
+    }
+
+    private final class BlockSubscription implements ReactiveFlow.Subscription, Runnable {
+
+        private final ReactiveFlow.Subscriber<? super Block> subscriber;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        // scheduled drains, only the first one runs a task and it loops until all are served
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        @Nullable
+        private volatile Throwable invalidRequest;
+
+        // fields below are only used by the drain task
+        @Nullable
+        private QueryResult result;
+
+        @Nullable
+        private CheckedIterator<DataResponse, SQLException> blocks;
+
+        private boolean done;
+
+        BlockSubscription(final ReactiveFlow.Subscriber<? super Block> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested blocks must be positive, got " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                try {
+                    drain();
+                } finally {
+                    missed = pending.addAndGet(-missed);
+                }
+            } while (missed != 0);
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        private void drain() {
+            if (done) {
+                return;
+            }
+            final Throwable invalid = invalidRequest;
+            if (cancelled || invalid != null) {
+                done = true;
+                discard();
+                if (invalid != null) {
+                    subscriber.onError(invalid);
+                }
+                return;
+            }
+            try {
+                while (demand.get() > 0) {
+                    if (blocks == null) {
+                        result = query.get();
+                        blocks = result.data();
+                    }
+                    if (!blocks.hasNext()) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    final Block block = blocks.next().block();
+                    if (block.rowCnt() == 0) {
+                        continue;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    subscriber.onNext(block);
+                    if (cancelled || invalidRequest != null) {
+                        // served by the drain scheduled along with the signal
+                        return;
+                    }
+                }
+            } catch (Throwable e) {
+                // also a RuntimeException from the query, the reader or the subscriber's onNext
+                done = true;
+                discard();
+                subscriber.onError(e);
+            }
+        }
+
+        /**
+         * cancels a started query and reads past its remaining responses, the connection is free
+         * for another query once done.
+         */
+        private void discard() {
+            if (result == null || blocks == null) {
+                return;
+            }
+            try {
+                result.cancel(new SQLException("Subscription cancelled"));
+                while (blocks.hasNext()) {
+                    blocks.next();
+                }
+            } catch (SQLException e) {
+                LOG.debug("query cancelled by subscriber: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+/**
+ * Publisher, subscriber and subscription of demand-driven streams, with the same contract as
+ * {@code java.util.concurrent.Flow} of Java 9, which is not available to this driver.
+ * Implementations on Java 9 and above can be adapted one method to one method.
+ */
+public final class ReactiveFlow {
+
+    private ReactiveFlow() {
+    }
+
+    /**
+     * producer of items received by {@link Subscriber}s.
+     */
+    public interface Publisher<T> {
+
+        /**
+         * adds {@code subscriber}, which is then given its {@link Subscription} through
+         * {@link Subscriber#onSubscribe}.
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * receiver of items, signals are never made concurrently.
+     */
+    public interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * link between a {@link Publisher} and one of its {@link Subscriber}s.
+     */
+    public interface Subscription {
+
+        /**
+         * adds {@code n} items to the demand, a non-positive {@code n} fails the subscription
+         * with an {@link IllegalArgumentException}.
+         */
+        void request(long n);
+
+        /**
+         * stops sending items, items may still arrive for a while.
+         */
+        void cancel();
+    }
+}
@@ -25,13 +25,23 @@ public class ValuesWithParametersNativeInputFormat implements NativeInputFormat
 
     private final SQLLexer lexer;
 
+    private BitSet constIdxFlags;
+
     public ValuesWithParametersNativeInputFormat(int pos, String sql) {
         this.lexer = new SQLLexer(pos, sql);
     }
 
+    /**
+     * @return the columns given as constants in the VALUES clause, set by {@link #fill(Block)}.
+     * A constant may be {@code NULL}, so this cannot be told from the block's values.
+     */
+    public BitSet constIdxFlags() {
+        return constIdxFlags;
+    }
+
     @Override
     public void fill(final Block block) throws SQLException {
-        final BitSet constIdxFlags = new BitSet(block.columnCnt());
+        constIdxFlags = new BitSet(block.columnCnt());
         char nextChar = lexer.character();
         ValidateUtils.isTrue(nextChar == '(');
         for (int columnIdx = 0; columnIdx < block.columnCnt(); columnIdx++) {
@@ -0,0 +1,78 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import org.junit.jupiter.api.Test;
+
+public class ChannelBuffedReaderTest {
+
+    @Test
+    public void successfullyRoundTripThroughSmallPooledBuffers() throws Exception {
+        DirectBufferPool pool = new DirectBufferPool(64 * 1024, 1024 * 1024);
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0));
+            try (SocketChannelTransport clientSide = new SocketChannelTransport(SocketChannel.open(server.getLocalAddress()));
+                 SocketChannelTransport serverSide = new SocketChannelTransport(server.accept())) {
+                // 4 KiB is the smallest size class, 1001 ints do not fit in it
+                ChannelBuffedWriter writer = new ChannelBuffedWriter(clientSide, pool, 4096);
+                ChannelBuffedReader reader = new ChannelBuffedReader(serverSide, pool, 4096);
+
+                int[] ints = new int[1001];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = i * 31 - 7;
+                }
+                writer.writeBinary((byte) 0xFE);
+                writer.writeIntsLE(ints, 0, ints.length);
+                writer.writeBinary(new byte[] {1, 2, 3});
+                writer.flushToTarget(true);
+                assertEquals(1, pool.freeBuffers(4096));
+
+                assertEquals(0xFE, reader.readBinary());
+                int[] read = new int[ints.length];
+                reader.readIntsLE(read, read.length);
+                assertArrayEquals(ints, read);
+                byte[] bytes = new byte[3];
+                reader.readBinary(bytes);
+                assertArrayEquals(new byte[] {1, 2, 3}, bytes);
+                // the drained read buffer went back too, reusing the one the writer returned
+                assertEquals(1, pool.freeBuffers(4096));
+            }
+        }
+    }
+
+    @Test
+    public void readHonoursSoTimeout() throws Exception {
+        DirectBufferPool pool = new DirectBufferPool(64 * 1024, 1024 * 1024);
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0));
+            SocketChannel channel = SocketChannel.open(server.getLocalAddress());
+            try (SocketChannelTransport transport = new SocketChannelTransport(channel);
+                 SocketChannel ignored = server.accept()) {
+                channel.socket().setSoTimeout(50);
+                ChannelBuffedReader reader = new ChannelBuffedReader(transport, pool, 4096);
+                assertThrows(SocketTimeoutException.class, reader::readBinary);
+            }
+        }
+    }
+}
@@ -18,9 +18,11 @@ package com.bytedance.bytehouse.buffer;
 
 import static com.bytedance.bytehouse.settings.BHConstants.CHECKSUM_LENGTH;
 import static com.bytedance.bytehouse.settings.BHConstants.COMPRESSION_HEADER_LENGTH;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.bytedance.bytehouse.jdbc.tool.FragmentBuffedReader;
+import com.bytedance.bytehouse.settings.CompressionMethod;
 import io.airlift.compress.Compressor;
 import io.airlift.compress.lz4.Lz4Compressor;
 import java.util.Arrays;
@@ -49,6 +51,66 @@ public class CompressedBuffedReaderTest {
         assertEquals(compressedBuffed.readBinary(), 7);
     }
 
+    @Test
+    public void successfullyReadLittleEndianIntsAcrossChunks() throws Exception {
+        CompressedBuffedReader compressedBuffed = new CompressedBuffedReader(
+            new FragmentBuffedReader(
+                compressedData(new byte[] {1, 0, 0, 0, 2, 0}),
+                compressedData(new byte[] {0, 0, -1, -1, -1, -1, 1, 0, 0, 0, 0, 0, 0, -128})
+            )
+        );
+
+        int[] ints = new int[3];
+        compressedBuffed.readIntsLE(ints, 3);
+        assertEquals(1, ints[0]);
+        assertEquals(2, ints[1]);
+        assertEquals(-1, ints[2]);
+
+        long[] longs = new long[1];
+        compressedBuffed.readLongsLE(longs, 1);
+        assertEquals(Long.MIN_VALUE + 1, longs[0]);
+    }
+
+    @Test
+    public void successfullyRoundTripEveryCompressionMethod() throws Exception {
+        byte[] payload = new byte[1000];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % 7);
+        }
+        for (CompressionMethod method : CompressionMethod.values()) {
+            ByteArrayWriter sink = new ByteArrayWriter(64);
+            CompressedBuffedWriter writer = new CompressedBuffedWriter(256, sink, method);
+            writer.writeBinary(payload);
+            writer.flushToTarget(true);
+
+            byte[][] frames = sink.getBufferList().toArray(new byte[0][]);
+            assertEquals(method.getMethodByte(), frames[0][CHECKSUM_LENGTH] & 0xFF);
+
+            CompressedBuffedReader reader = new CompressedBuffedReader(new FragmentBuffedReader(frames));
+            byte[] decoded = new byte[payload.length];
+            reader.readBinary(decoded);
+            assertArrayEquals(payload, decoded);
+        }
+    }
+
+    @Test
+    public void successfullySkipWholeFramesWithoutDecompressing() throws Exception {
+        byte[] undecodable = compressedData(new byte[] {8, 9, 10, 11});
+        undecodable[CHECKSUM_LENGTH] = 0x7F; // unknown method, decompressing would fail
+        CompressedBuffedReader compressedBuffed = new CompressedBuffedReader(
+            new FragmentBuffedReader(
+                compressedData(new byte[] {1, 2, 3}),
+                undecodable,
+                compressedData(new byte[] {4, 5, 6, 7})
+            )
+        );
+
+        assertEquals(1, compressedBuffed.readBinary());
+        compressedBuffed.skip(2 + 4 + 2);
+        assertEquals(6, compressedBuffed.readBinary());
+        compressedBuffed.skip(0);
+        assertEquals(7, compressedBuffed.readBinary());
+    }
 
     private byte[] compressedData(byte[] bytes) {
         Compressor lz4Compressor = new Lz4Compressor();
@@ -0,0 +1,172 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.buffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the bytes allocated by the compression paths once their scratch buffers have grown.
+ */
+public class CompressionAllocationTest {
+
+    private static final int FRAME_BYTES = 1024 * 1024;
+
+    private static final int FRAMES = 64;
+
+    // generous enough for JIT and measurement noise, a single frame sized array would exceed it
+    private static final long ALLOCATION_BUDGET = 64 * 1024;
+
+    @Test
+    public void compressionPathsDoNotAllocatePerFrame() throws Exception {
+        final byte[] payload = new byte[FRAME_BYTES];
+        final Random random = new Random(42);
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) random.nextInt(16);
+        }
+
+        final SinkWriter sink = new SinkWriter(2 * FRAME_BYTES);
+        final CompressedBuffedWriter writer = new CompressedBuffedWriter(FRAME_BYTES, sink);
+        writer.writeBinary(payload);
+        writer.flushToTarget(true);
+        final byte[] frame = Arrays.copyOf(sink.bytes, sink.position);
+
+        final RepeatingReader source = new RepeatingReader(frame);
+        final CompressedBuffedReader reader = new CompressedBuffedReader(source);
+        final byte[] decoded = new byte[FRAME_BYTES];
+        reader.readBinary(decoded);
+        assertArrayEquals(payload, decoded);
+
+        // warm up so the measured loops run compiled code
+        for (int i = 0; i < FRAMES; i++) {
+            sink.position = 0;
+            writer.writeBinary(payload);
+            writer.flushToTarget(true);
+            reader.readBinary(decoded);
+        }
+
+        final long writeAllocated = measure(() -> {
+            for (int i = 0; i < FRAMES; i++) {
+                sink.position = 0;
+                writer.writeBinary(payload);
+                writer.flushToTarget(true);
+            }
+        });
+        final long readAllocated = measure(() -> {
+            for (int i = 0; i < FRAMES; i++) {
+                reader.readBinary(decoded);
+            }
+        });
+
+        if (writeAllocated >= 0) {
+            assertTrue(writeAllocated < ALLOCATION_BUDGET, "write path allocated " + writeAllocated + " bytes");
+            assertTrue(readAllocated < ALLOCATION_BUDGET, "read path allocated " + readAllocated + " bytes");
+        }
+        assertArrayEquals(payload, decoded);
+    }
+
+    /**
+     * bytes allocated by the current thread while running {@code body}, or -1 if the JVM can't tell.
+     */
+    private static long measure(final IORunnable body) throws IOException {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            body.run();
+            return -1;
+        }
+        final com.sun.management.ThreadMXBean mxBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!mxBean.isThreadAllocatedMemorySupported() || !mxBean.isThreadAllocatedMemoryEnabled()) {
+            body.run();
+            return -1;
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long before = mxBean.getThreadAllocatedBytes(threadId);
+        body.run();
+        return mxBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private interface IORunnable {
+
+        void run() throws IOException;
+    }
+
+    private static final class SinkWriter extends AbstractBuffedWriter {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private SinkWriter(final int capacity) {
+            super(0);
+            this.bytes = new byte[capacity];
+        }
+
+        @Override
+        public void writeBinary(final byte byt) {
+            bytes[position++] = byt;
+        }
+
+        @Override
+        public void writeBinary(final byte[] src) {
+            writeBinary(src, 0, src.length);
+        }
+
+        @Override
+        public void writeBinary(final byte[] src, final int offset, final int length) {
+            System.arraycopy(src, offset, bytes, position, length);
+            position += length;
+        }
+
+        @Override
+        public void writeBinaryNow(final byte[] src) {
+            writeBinary(src);
+        }
+
+        @Override
+        public void flushToTarget(final boolean force) {
+        }
+    }
+
+    private static final class RepeatingReader extends AbstractBuffedReader {
+
+        private final byte[] frame;
+
+        private RepeatingReader(final byte[] frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        public int readBinary() throws IOException {
+            if (position == limit) {
+                refill();
+            }
+            return chunk[position++] & 0xFF;
+        }
+
+        @Override
+        protected void refill() {
+            chunk = frame;
+            position = 0;
+            limit = frame.length;
+        }
+    }
+}
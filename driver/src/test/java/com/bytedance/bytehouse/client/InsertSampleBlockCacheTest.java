@@ -0,0 +1,76 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.data.type.DataTypeInt32;
+import com.bytedance.bytehouse.data.type.DataTypeInt64;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class InsertSampleBlockCacheTest {
+
+    private static Block header(final IColumn... columns) {
+        return new Block(0, columns);
+    }
+
+    @Test
+    public void keyIgnoresWhitespace() {
+        assertEquals(
+                InsertSampleBlockCache.key("db", "INSERT INTO t VALUES"),
+                InsertSampleBlockCache.key("db", "  INSERT\n INTO   t VALUES ")
+        );
+        assertFalse(InsertSampleBlockCache.key("db", "INSERT INTO t VALUES")
+                .equals(InsertSampleBlockCache.key("other", "INSERT INTO t VALUES")));
+    }
+
+    @Test
+    public void newBlockHasCachedStructure() throws Exception {
+        InsertSampleBlockCache cache = new InsertSampleBlockCache();
+        Block sample = header(ColumnFactoryUtils.createEmptyColumn("a", new DataTypeInt32()));
+        cache.put("k", sample, Duration.ofMinutes(1));
+
+        Block first = cache.newBlock("k");
+        Block second = cache.newBlock("k");
+        assertNotSame(first, second);
+        assertNotSame(first.getColumn(0), second.getColumn(0));
+        assertEquals(1, first.columnCnt());
+        assertEquals("a", first.getColumn(0).name());
+        assertEquals("Int32", first.getColumn(0).type().name());
+        assertEquals(0, first.rowCnt());
+
+        assertTrue(cache.matches("k", sample));
+        assertFalse(cache.matches("k", header(ColumnFactoryUtils.createEmptyColumn("a", new DataTypeInt64()))));
+
+        cache.invalidate("k");
+        assertNull(cache.newBlock("k"));
+    }
+
+    @Test
+    public void zeroTtlDisablesCache() throws Exception {
+        InsertSampleBlockCache cache = new InsertSampleBlockCache();
+        cache.put("k", header(ColumnFactoryUtils.createEmptyColumn("a", new DataTypeInt32())), Duration.ZERO);
+        assertNull(cache.newBlock("k"));
+    }
+}
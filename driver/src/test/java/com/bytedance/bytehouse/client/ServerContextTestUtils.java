@@ -0,0 +1,32 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.client;
+
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import java.time.ZoneId;
+
+/**
+ * creates a {@link ServerContext} without a server, for decoding tests.
+ */
+public final class ServerContextTestUtils {
+
+    private ServerContextTestUtils() {
+    }
+
+    public static ServerContext create(final ByteHouseConfig cfg) {
+        return new ServerContext(21, 8, 54405, cfg, ZoneId.of("UTC"), "test", 0);
+    }
+}
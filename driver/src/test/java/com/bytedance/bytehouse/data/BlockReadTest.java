@@ -0,0 +1,293 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.buffer.ByteArrayWriter;
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.client.ServerContextTestUtils;
+import com.bytedance.bytehouse.data.type.complex.DataTypeLowCardinality;
+import com.bytedance.bytehouse.jdbc.ByteHouseArray;
+import com.bytedance.bytehouse.jdbc.ByteHouseStruct;
+import com.bytedance.bytehouse.protocol.RawDataResponse;
+import com.bytedance.bytehouse.protocol.Response;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Struct;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class BlockReadTest {
+
+    private static final String[][] COLUMNS = {
+            {"s", "String"},
+            {"ns", "Nullable(String)"},
+            {"arr", "Array(String)"},
+            {"fs", "FixedString(3)"},
+            {"dec", "Decimal(18, 4)"},
+            {"i", "Int32"},
+            {"tup", "Tuple(Int32, String)"},
+            {"m", "Map(String, Int64)"},
+            {"ts", "DateTime"},
+    };
+
+    private static final int ROWS = 200;
+
+    @Test
+    public void parallelDecodeMatchesSequentialDecode() throws Exception {
+        byte[] bytes = serializedBlock();
+
+        Block sequential = read(bytes, 0);
+        Block parallel = read(bytes, 1);
+
+        assertEquals(ROWS, parallel.rowCnt());
+        assertEquals(COLUMNS.length, parallel.columnCnt());
+        for (int col = 0; col < COLUMNS.length; col++) {
+            assertEquals(COLUMNS[col][0], parallel.getColumn(col).name());
+            for (int row = 0; row < ROWS; row++) {
+                assertEquals(
+                        render(sequential.getColumn(col).value(row)),
+                        render(parallel.getColumn(col).value(row))
+                );
+            }
+        }
+    }
+
+    @Test
+    public void lazyColumnsAreDecodedOnFirstAccess() throws Exception {
+        byte[] bytes = serializedBlock();
+
+        Block sequential = read(bytes, 0);
+        ByteHouseConfig cfg = ByteHouseConfig.Builder.builder().lazyColumnDecode(true).build();
+        Block lazy = Block.readFrom(
+                new BinaryDeserializer(new ByteArrayReader(bytes)),
+                ServerContextTestUtils.create(cfg)
+        );
+
+        // Int32 is decoded right away, the other columns wait for a read
+        assertTrue(lazy.getColumn(5) instanceof ColumnPrimitive);
+        ColumnLazy strings = (ColumnLazy) lazy.getColumn(0);
+        ColumnLazy map = (ColumnLazy) lazy.getColumn(7);
+        assertFalse(strings.isDecoded());
+        assertEquals("s", strings.name());
+        assertEquals("String", strings.type().name());
+        assertFalse(strings.isDecoded());
+
+        for (int col = 0; col < COLUMNS.length; col++) {
+            if (col == 7) {
+                continue;
+            }
+            for (int row = 0; row < ROWS; row++) {
+                assertEquals(
+                        render(sequential.getColumn(col).value(row)),
+                        render(lazy.getColumn(col).value(row))
+                );
+            }
+        }
+        assertTrue(strings.isDecoded());
+        assertFalse(map.isDecoded());
+    }
+
+    @Test
+    public void skipBinaryBulkConsumesExactlyOneColumn() throws Exception {
+        byte[] bytes = serializedBlock();
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+
+        BinaryDeserializer deserializer = new BinaryDeserializer(new ByteArrayReader(bytes));
+        BlockSettings.readFrom(deserializer);
+        assertEquals(COLUMNS.length, deserializer.readVarInt());
+        assertEquals(ROWS, deserializer.readVarInt());
+        for (String[] column : COLUMNS) {
+            assertEquals(column[0], deserializer.readUTF8StringBinary());
+            DataTypeFactory.get(deserializer.readUTF8StringBinary(), ctx).skipBinaryBulk(ROWS, deserializer);
+        }
+        assertThrows(EOFException.class, deserializer::readByte);
+    }
+
+    @Test
+    public void lowCardinalitySkipConsumesExactlyOneColumn() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        IColumn column = ColumnFactoryUtils.createEmptyColumn(
+                "lc", DataTypeFactory.get("LowCardinality(String)", ctx));
+        Block block = new Block(0, new IColumn[]{column});
+        block.initWriteBuffer();
+        for (int row = 0; row < ROWS; row++) {
+            block.setObject(0, "v" + (row % 7));
+            block.appendRow();
+        }
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        block.writeTo(new BinarySerializer(writer, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] buffer : writer.getBufferList()) {
+            out.write(buffer);
+        }
+
+        BinaryDeserializer deserializer = new BinaryDeserializer(new ByteArrayReader(out.toByteArray()));
+        BlockSettings.readFrom(deserializer);
+        assertEquals(1, deserializer.readVarInt());
+        assertEquals(ROWS, deserializer.readVarInt());
+        assertEquals("lc", deserializer.readUTF8StringBinary());
+        DataTypeFactory.get(deserializer.readUTF8StringBinary(), ctx).skipBinaryBulk(ROWS, deserializer);
+        assertThrows(EOFException.class, deserializer::readByte);
+    }
+
+    @Test
+    public void lowCardinalityReadKeepsDictionaryForEachIndexWidth() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        // UInt8, UInt16 and UInt32 indexes
+        for (int distinct : new int[]{7, 300, 70_000}) {
+            int rows = distinct + 100;
+            IColumn column = ColumnFactoryUtils.createEmptyColumn(
+                    "lc", DataTypeFactory.get("LowCardinality(String)", ctx));
+            Block block = new Block(0, new IColumn[]{column});
+            block.initWriteBuffer();
+            for (int row = 0; row < rows; row++) {
+                block.setObject(0, "v" + (row % distinct));
+                block.appendRow();
+            }
+            ByteArrayWriter writer = new ByteArrayWriter(1024);
+            block.writeTo(new BinarySerializer(writer, false));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (byte[] buffer : writer.getBufferList()) {
+                out.write(buffer);
+            }
+
+            Block read = Block.readFrom(new BinaryDeserializer(new ByteArrayReader(out.toByteArray())), ctx);
+            ColumnLowCardinality lc = (ColumnLowCardinality) read.getColumn(0);
+            assertEquals(distinct, lc.dictionary().length);
+            for (int row = 0; row < rows; row++) {
+                assertEquals("v" + (row % distinct), lc.value(row));
+            }
+        }
+    }
+
+    @Test
+    public void lowCardinalityReadNarrowsUInt64Indexes() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        ByteArrayWriter writer = new ByteArrayWriter(64);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        serializer.writeLong(1); // version
+        serializer.writeLong(3); // UInt64 indexes
+        serializer.writeLong(2);
+        serializer.writeUTF8StringBinary("a");
+        serializer.writeUTF8StringBinary("b");
+        serializer.writeLong(3);
+        for (long index : new long[]{1, 0, 1}) {
+            serializer.writeLong(index);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] buffer : writer.getBufferList()) {
+            out.write(buffer);
+        }
+
+        ColumnLowCardinality lc = ((DataTypeLowCardinality) DataTypeFactory.get("LowCardinality(String)", ctx))
+                .deserializeColumn("lc", 3, new BinaryDeserializer(new ByteArrayReader(out.toByteArray())));
+        assertEquals(Arrays.asList("b", "a", "b"), Arrays.asList(lc.value(0), lc.value(1), lc.value(2)));
+    }
+
+    @Test
+    public void rawDataResponseKeepsBlockInNativeFormat() throws Exception {
+        byte[] bytes = serializedBlock();
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        ByteArrayReader settings = new ByteArrayReader(bytes);
+        BlockSettings.readFrom(new BinaryDeserializer(settings));
+        int nativeOffset = bytes.length - settings.remaining();
+
+        ByteArrayOutputStream packet = new ByteArrayOutputStream();
+        packet.write(1); // data response
+        packet.write(0); // empty name
+        packet.write(bytes);
+        BinaryDeserializer deserializer = new BinaryDeserializer(new ByteArrayReader(packet.toByteArray()));
+        RawDataResponse response = (RawDataResponse) Response.readFrom(deserializer, ctx, Response.DataMode.RAW);
+
+        assertEquals(ROWS, response.rows());
+        ByteArrayReader block = response.block();
+        byte[] raw = new byte[block.remaining()];
+        block.readBinary(raw);
+        assertArrayEquals(Arrays.copyOfRange(bytes, nativeOffset, bytes.length), raw);
+        assertThrows(EOFException.class, deserializer::readByte);
+    }
+
+    private static Block read(final byte[] bytes, final long threshold) throws Exception {
+        ByteHouseConfig cfg = ByteHouseConfig.Builder.builder().parallelDecodeThreshold(threshold).build();
+        return Block.readFrom(
+                new BinaryDeserializer(new ByteArrayReader(bytes)),
+                ServerContextTestUtils.create(cfg)
+        );
+    }
+
+    private static byte[] serializedBlock() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        IColumn[] columns = new IColumn[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columns[i] = ColumnFactoryUtils.createEmptyColumn(COLUMNS[i][0], DataTypeFactory.get(COLUMNS[i][1], ctx));
+        }
+        Block block = new Block(0, columns);
+        block.initWriteBuffer();
+
+        IDataType<?, ?> stringType = DataTypeFactory.get("String", ctx);
+        for (int row = 0; row < ROWS; row++) {
+            Map<String, Long> map = new HashMap<>();
+            for (int i = 0; i < row % 4; i++) {
+                map.put("k" + i, (long) row * i);
+            }
+            block.setObject(0, "row-" + row);
+            block.setObject(1, row % 3 == 0 ? null : "n" + row);
+            block.setObject(2, new ByteHouseArray(stringType, Collections.nCopies(row % 5, "e" + row).toArray()));
+            block.setObject(3, String.format("%03d", row % 1000));
+            block.setObject(4, BigDecimal.valueOf(row * 10001L, 4));
+            block.setObject(5, row - 100);
+            block.setObject(6, new ByteHouseStruct("Tuple", new Object[]{row, "t" + row}));
+            block.setObject(7, map);
+            block.setObject(8, ZonedDateTime.of(2024, 1, 1, 0, 0, row % 60, 0, ZoneId.of("UTC")));
+            block.appendRow();
+        }
+
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        block.writeTo(new BinarySerializer(writer, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] buffer : writer.getBufferList()) {
+            out.write(buffer);
+        }
+        return out.toByteArray();
+    }
+
+    private static String render(final Object value) throws Exception {
+        if (value instanceof Array) {
+            return Arrays.deepToString((Object[]) ((Array) value).getArray());
+        }
+        if (value instanceof Struct) {
+            return Arrays.deepToString(((Struct) value).getAttributes());
+        }
+        return String.valueOf(value);
+    }
+}
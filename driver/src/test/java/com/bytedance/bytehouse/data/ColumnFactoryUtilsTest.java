@@ -0,0 +1,176 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.buffer.ByteArrayWriter;
+import com.bytedance.bytehouse.data.type.DataTypeDate;
+import com.bytedance.bytehouse.data.type.DataTypeFloat32;
+import com.bytedance.bytehouse.data.type.DataTypeFloat64;
+import com.bytedance.bytehouse.data.type.DataTypeInt16;
+import com.bytedance.bytehouse.data.type.DataTypeInt32;
+import com.bytedance.bytehouse.data.type.DataTypeInt64;
+import com.bytedance.bytehouse.data.type.DataTypeInt8;
+import com.bytedance.bytehouse.data.type.DataTypeUInt16;
+import com.bytedance.bytehouse.data.type.DataTypeUInt32;
+import com.bytedance.bytehouse.data.type.DataTypeUInt64;
+import com.bytedance.bytehouse.data.type.DataTypeUInt8;
+import com.bytedance.bytehouse.jdbc.tool.FragmentBuffedReader;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ColumnFactoryUtilsTest {
+
+    @Test
+    public void fixedWidthColumnsAreDecodedIntoPrimitiveColumns() throws Exception {
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        serializer.writeByte((byte) -1);
+        serializer.writeByte((byte) -1);
+        serializer.writeShort((short) -2);
+        serializer.writeInt(-3);
+        serializer.writeInt(-4);
+        serializer.writeLong(-5L);
+        serializer.writeFloat(1.5f);
+
+        List<byte[]> buffers = writer.getBufferList();
+        BinaryDeserializer deserializer = new BinaryDeserializer(
+                new FragmentBuffedReader(buffers.toArray(new byte[0][])), false);
+
+        IColumn int8 = ColumnFactoryUtils.createColumn("a", new DataTypeInt8(), 1, deserializer);
+        IColumn uint8 = ColumnFactoryUtils.createColumn("b", new DataTypeUInt8(), 1, deserializer);
+        IColumn int16 = ColumnFactoryUtils.createColumn("c", new DataTypeInt16(), 1, deserializer);
+        IColumn int32 = ColumnFactoryUtils.createColumn("d", new DataTypeInt32(), 1, deserializer);
+        IColumn uint32 = ColumnFactoryUtils.createColumn("e", new DataTypeUInt32(), 1, deserializer);
+        IColumn uint64 = ColumnFactoryUtils.createColumn("f", new DataTypeUInt64(), 1, deserializer);
+        IColumn float32 = ColumnFactoryUtils.createColumn("g", new DataTypeFloat32(), 1, deserializer);
+
+        assertTrue(int8 instanceof ColumnByte);
+        assertEquals((byte) -1, int8.value(0));
+        assertEquals(-1L, ((ColumnPrimitive) int8).longValue(0));
+
+        assertEquals((short) 255, uint8.value(0));
+        assertEquals(255, ((ColumnPrimitive) uint8).intValue(0));
+
+        assertTrue(int16 instanceof ColumnShort);
+        assertEquals((short) -2, int16.value(0));
+        assertEquals(-3, int32.value(0));
+        assertEquals(-3, ((ColumnPrimitive) int32).intValue(0));
+
+        assertTrue(uint32 instanceof ColumnInt);
+        assertEquals(4294967292L, uint32.value(0));
+        assertEquals(4294967292L, ((ColumnPrimitive) uint32).longValue(0));
+
+        assertEquals(new BigInteger("18446744073709551611"), uint64.value(0));
+        assertEquals(-5L, ((ColumnPrimitive) uint64).longValue(0));
+        assertEquals(new BigInteger("18446744073709551611").doubleValue(),
+                ((ColumnPrimitive) uint64).doubleValue(0));
+
+        assertTrue(float32 instanceof ColumnFloat);
+        assertEquals(1.5f, float32.value(0));
+        assertEquals(1.5d, ((ColumnPrimitive) float32).doubleValue(0));
+    }
+
+    @Test
+    public void isPrimitiveMatchesPrimitiveColumnTypes() {
+        IDataType<?, ?>[] types = new IDataType<?, ?>[] {
+                new DataTypeInt8(), new DataTypeUInt8(), new DataTypeInt16(), new DataTypeUInt16(),
+                new DataTypeInt32(), new DataTypeUInt32(), new DataTypeInt64(), new DataTypeUInt64(),
+                new DataTypeFloat32(), new DataTypeFloat64(), new DataTypeDate()
+        };
+        for (IDataType<?, ?> type : types) {
+            assertEquals(ColumnFactoryUtils.createPrimitiveColumn("a", type) != null,
+                    ColumnFactoryUtils.isPrimitive(type), type.name());
+        }
+        assertFalse(ColumnFactoryUtils.isPrimitive(new DataTypeDate()));
+    }
+
+    @Test
+    public void unsigned64DoubleValueMatchesBigInteger() {
+        long[] raw = {0L, 1L, Long.MAX_VALUE, Long.MIN_VALUE, -1L, -2L, 0x8000_0000_0000_0401L, -1025L};
+        ColumnLong column = new ColumnLong("u", new DataTypeUInt64(), raw);
+        for (int i = 0; i < raw.length; i++) {
+            assertEquals(((BigInteger) column.value(i)).doubleValue(), column.doubleValue(i));
+        }
+    }
+
+    @Test
+    public void primitiveColumnsEncodeWrittenValuesInOnePass() throws Exception {
+        BinaryDeserializer empty = new BinaryDeserializer(new FragmentBuffedReader(new byte[0]), false);
+        IColumn[] columns = new IColumn[] {
+                ColumnFactoryUtils.createColumn("a", new DataTypeUInt8(), 0, empty),
+                ColumnFactoryUtils.createColumn("b", new DataTypeInt16(), 0, empty),
+                ColumnFactoryUtils.createColumn("c", new DataTypeInt32(), 0, empty),
+                ColumnFactoryUtils.createColumn("d", new DataTypeUInt32(), 0, empty),
+                ColumnFactoryUtils.createColumn("e", new DataTypeInt64(), 0, empty),
+                ColumnFactoryUtils.createColumn("f", new DataTypeFloat32(), 0, empty),
+                ColumnFactoryUtils.createColumn("g", new DataTypeFloat64(), 0, empty)
+        };
+        Block block = new Block(0, columns);
+        block.initWriteBuffer();
+
+        int rows = 100;
+        for (int row = 0; row < rows; row++) {
+            block.setObject(0, (short) (row + 150));
+            block.setObject(1, (short) -row);
+            block.setObject(2, row * 1000);
+            block.setObject(3, 4000000000L + row);
+            block.setObject(4, Long.MIN_VALUE + row);
+            block.setObject(5, row + 0.5f);
+            block.setObject(6, row + 0.25d);
+            block.appendRow();
+        }
+
+        ByteArrayWriter writer = new ByteArrayWriter(64);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        for (IColumn column : columns) {
+            ((ColumnPrimitive) column).writeValues(serializer);
+        }
+        BinaryDeserializer deserializer = new BinaryDeserializer(
+                new FragmentBuffedReader(writer.getBufferList().toArray(new byte[0][])), false);
+
+        for (int row = 0; row < rows; row++) {
+            assertEquals(Short.valueOf((short) (row + 150)), new DataTypeUInt8().deserializeBinary(deserializer));
+        }
+        for (int row = 0; row < rows; row++) {
+            assertEquals((short) -row, deserializer.readShort());
+        }
+        for (int row = 0; row < rows; row++) {
+            assertEquals(row * 1000, deserializer.readInt());
+        }
+        for (int row = 0; row < rows; row++) {
+            assertEquals(Long.valueOf(4000000000L + row), new DataTypeUInt32().deserializeBinary(deserializer));
+        }
+        for (int row = 0; row < rows; row++) {
+            assertEquals(Long.MIN_VALUE + row, deserializer.readLong());
+        }
+        for (int row = 0; row < rows; row++) {
+            assertEquals(row + 0.5f, deserializer.readFloat());
+        }
+        for (int row = 0; row < rows; row++) {
+            assertEquals(row + 0.25d, deserializer.readDouble());
+        }
+
+        block.reuseBlock();
+        assertEquals(0, ((ColumnPrimitive) columns[0]).size());
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.buffer.ByteArrayWriter;
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.client.ServerContextTestUtils;
+import com.bytedance.bytehouse.data.type.DataTypeInt32;
+import com.bytedance.bytehouse.data.type.DataTypeUInt8;
+import com.bytedance.bytehouse.data.type.complex.DataTypeNullable;
+import com.bytedance.bytehouse.data.type.complex.DataTypeString;
+import com.bytedance.bytehouse.jdbc.ByteHouseArray;
+import com.bytedance.bytehouse.jdbc.tool.FragmentBuffedReader;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ColumnarWriteUtilsTest {
+
+    private static final DataTypeConverter CONVERTER = new DataTypeConverter(ZoneId.of("UTC"));
+
+    @Test
+    public void writeColumnArraysIntoBlock() throws Exception {
+        IColumn ints = ColumnFactoryUtils.createPrimitiveColumn("a", new DataTypeInt32());
+        IColumn nullableInts = ColumnFactoryUtils.createColumn("b",
+                new DataTypeNullable("Nullable(Int32)", new DataTypeInt32(), new DataTypeUInt8()), null);
+        IColumn strings = ColumnFactoryUtils.createColumn("c",
+                new DataTypeNullable("Nullable(String)", new DataTypeString(StandardCharsets.UTF_8), new DataTypeUInt8()),
+                null);
+        Block block = new Block(0, new IColumn[] {ints, nullableInts, strings});
+        block.initWriteBuffer();
+
+        ColumnarWriteUtils.prepare(ints, new int[] {1, 2, 3, 99}, null, 3, CONVERTER).write(ints, 0, 3);
+        ColumnarWriteUtils.prepare(nullableInts, new int[] {4, 0, 6}, new boolean[] {false, true, false}, 3, CONVERTER)
+                .write(nullableInts, 0, 3);
+        ColumnarWriteUtils.prepare(strings, new String[] {"x", null, "z"}, null, 3, CONVERTER).write(strings, 0, 3);
+        block.appendRows(3);
+        assertEquals(3, block.rowCnt());
+
+        ByteArrayWriter writer = new ByteArrayWriter(64);
+        BinarySerializer serializer = new BinarySerializer(writer, false);
+        for (int i = 0; i < block.columnCnt(); i++) {
+            block.getColumn(i).flushToSerializer(serializer, true);
+        }
+        BinaryDeserializer deserializer = new BinaryDeserializer(
+                new FragmentBuffedReader(writer.getBufferList().toArray(new byte[0][])), false);
+
+        assertEquals("a", deserializer.readUTF8StringBinary());
+        assertEquals("Int32", deserializer.readUTF8StringBinary());
+        assertEquals(1, deserializer.readInt());
+        assertEquals(2, deserializer.readInt());
+        assertEquals(3, deserializer.readInt());
+
+        assertEquals("b", deserializer.readUTF8StringBinary());
+        assertEquals("Nullable(Int32)", deserializer.readUTF8StringBinary());
+        assertEquals(0, deserializer.readByte());
+        assertEquals(1, deserializer.readByte());
+        assertEquals(0, deserializer.readByte());
+        assertEquals(4, deserializer.readInt());
+        deserializer.readInt();
+        assertEquals(6, deserializer.readInt());
+
+        assertEquals("c", deserializer.readUTF8StringBinary());
+        assertEquals("Nullable(String)", deserializer.readUTF8StringBinary());
+        assertEquals(0, deserializer.readByte());
+        assertEquals(1, deserializer.readByte());
+        assertEquals(0, deserializer.readByte());
+        assertEquals("x", deserializer.readUTF8StringBinary());
+        assertEquals("", deserializer.readUTF8StringBinary());
+        assertEquals("z", deserializer.readUTF8StringBinary());
+    }
+
+    @Test
+    public void nullableNumericColumnsRoundTripInsideArrays() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        IDataType<?, ?> nullableInt = DataTypeFactory.get("Nullable(Int32)", ctx);
+        Block block = new Block(0, new IColumn[] {
+                ColumnFactoryUtils.createEmptyColumn("n", DataTypeFactory.get("Nullable(Int16)", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("arr", DataTypeFactory.get("Array(Nullable(Int32))", ctx))
+        });
+        block.initWriteBuffer();
+        int rows = 20;
+        for (int row = 0; row < rows; row++) {
+            block.setObject(0, row % 3 == 0 ? null : (short) -row);
+            Object[] elements = new Object[row % 4];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = i == 1 ? null : row * 10 + i;
+            }
+            block.setObject(1, new ByteHouseArray(nullableInt, elements));
+            block.appendRow();
+        }
+        ColumnarWriteUtils.prepare(block.getColumn(0), new int[] {7, 8}, new boolean[] {true, false}, 2, CONVERTER)
+                .write(block.getColumn(0), 0, 2);
+        block.getColumn(1).write(new ByteHouseArray(nullableInt, new Object[] {1}));
+        block.getColumn(1).write(new ByteHouseArray(nullableInt, new Object[0]));
+        block.appendRows(2);
+
+        ByteArrayWriter writer = new ByteArrayWriter(64);
+        block.writeTo(new BinarySerializer(writer, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] buffer : writer.getBufferList()) {
+            out.write(buffer);
+        }
+        Block read = Block.readFrom(new BinaryDeserializer(new ByteArrayReader(out.toByteArray())), ctx);
+
+        assertEquals(rows + 2, read.rowCnt());
+        for (int row = 0; row < rows; row++) {
+            assertEquals(row % 3 == 0 ? null : (short) -row, read.getColumn(0).value(row));
+            Object[] elements = (Object[]) ((ByteHouseArray) read.getColumn(1).value(row)).getArray();
+            assertEquals(row % 4, elements.length);
+            for (int i = 0; i < elements.length; i++) {
+                assertEquals(i == 1 ? null : row * 10 + i, elements[i]);
+            }
+        }
+        assertEquals(null, read.getColumn(0).value(rows));
+        assertEquals((short) 8, read.getColumn(0).value(rows + 1));
+        assertEquals(Arrays.asList(1),
+                Arrays.asList((Object[]) ((ByteHouseArray) read.getColumn(1).value(rows)).getArray()));
+    }
+
+    @Test
+    public void nullableColumnsOfHeaderReadWithLazyDecodeAreWritable() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(
+                ByteHouseConfig.Builder.builder().lazyColumnDecode(true).build());
+        Block empty = new Block(0, new IColumn[] {
+                ColumnFactoryUtils.createEmptyColumn("i", DataTypeFactory.get("Nullable(Int32)", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("s", DataTypeFactory.get("Nullable(String)", ctx))
+        });
+        empty.initWriteBuffer();
+        Block header = roundTrip(empty, ctx);
+        assertTrue(header.getColumn(0) instanceof ColumnNullable);
+        assertTrue(header.getColumn(1) instanceof ColumnNullable);
+
+        header.initWriteBuffer();
+        ColumnarWriteUtils.prepare(header.getColumn(0), new int[] {1, 2, 3},
+                new boolean[] {false, true, false}, 3, CONVERTER).write(header.getColumn(0), 0, 3);
+        ColumnarWriteUtils.prepare(header.getColumn(1), new Object[] {"a", null, "c"},
+                null, 3, CONVERTER).write(header.getColumn(1), 0, 3);
+        header.appendRows(3);
+
+        Block read = roundTrip(header, ctx);
+        assertTrue(read.getColumn(1) instanceof ColumnLazy);
+        for (int col = 0; col < 2; col++) {
+            IColumn column = read.getColumn(col);
+            assertEquals(Arrays.asList(col == 0 ? 1 : "a", null, col == 0 ? 3 : "c"),
+                    Arrays.asList(column.value(0), column.value(1), column.value(2)));
+        }
+    }
+
+    @Test
+    public void prepareConvertsEverythingBeforeAnyWrite() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        IDataType<?, ?> stringType = DataTypeFactory.get("String", ctx);
+        IColumn ints = ColumnFactoryUtils.createEmptyColumn("i", DataTypeFactory.get("Int32", ctx));
+        IColumn arrays = ColumnFactoryUtils.createEmptyColumn("arr", DataTypeFactory.get("Array(String)", ctx));
+        Block block = new Block(0, new IColumn[] {ints, arrays});
+        block.initWriteBuffer();
+
+        ColumnarWriteUtils.prepare(ints, new int[] {1, 2}, null, 2, CONVERTER);
+        // the second value is not an array
+        assertThrows(SQLException.class, () -> ColumnarWriteUtils.prepare(
+                arrays, new Object[] {new ByteHouseArray(stringType, new Object[0]), "x"}, null, 2, CONVERTER));
+
+        // preparing never writes
+        assertEquals(0, ((ColumnPrimitive) ints).size());
+        assertEquals(serialized(emptyArrays(ctx)), serialized(arrays));
+    }
+
+    @Test
+    public void preparedValuesAreWrittenByRange() throws Exception {
+        ColumnPrimitive ints = ColumnFactoryUtils.createPrimitiveColumn("a", new DataTypeInt32());
+        ColumnarWriteUtils.Prepared prepared = ColumnarWriteUtils.prepare(ints, new int[] {1, 2, 3, 4, 5}, null, 5, CONVERTER);
+        prepared.write(ints, 3, 2);
+        prepared.write(ints, 0, 3);
+        assertEquals(5, ints.size());
+        assertEquals(Arrays.asList(4, 5, 1, 2, 3), Arrays.asList(
+                ints.value(0), ints.value(1), ints.value(2), ints.value(3), ints.value(4)));
+    }
+
+    @Test
+    public void nullMaskOnNonNullableColumnIsRejected() {
+        IColumn ints = ColumnFactoryUtils.createPrimitiveColumn("a", new DataTypeInt32());
+        assertThrows(SQLException.class,
+                () -> ColumnarWriteUtils.prepare(ints, new int[] {1}, new boolean[] {true}, 1, CONVERTER));
+    }
+
+    private static Block roundTrip(final Block block, final ServerContext ctx) throws Exception {
+        ByteArrayWriter writer = new ByteArrayWriter(64);
+        block.writeTo(new BinarySerializer(writer, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] buffer : writer.getBufferList()) {
+            out.write(buffer);
+        }
+        return Block.readFrom(new BinaryDeserializer(new ByteArrayReader(out.toByteArray())), ctx);
+    }
+
+    private static IColumn emptyArrays(final ServerContext ctx) throws Exception {
+        IColumn column = ColumnFactoryUtils.createEmptyColumn("arr", DataTypeFactory.get("Array(String)", ctx));
+        column.setColumnWriterBuffer(new ColumnWriterBuffer());
+        return column;
+    }
+
+    private static List<String> serialized(final IColumn column) throws Exception {
+        ByteArrayWriter writer = new ByteArrayWriter(64);
+        column.flushToSerializer(new BinarySerializer(writer, false), true);
+        List<String> bytes = new ArrayList<>();
+        for (byte[] buffer : writer.getBufferList()) {
+            bytes.add(Arrays.toString(buffer));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.Test;
+
+public class AsyncLaneTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    public void callStartsOnceThePreviousOneReleasedTheConnection() throws Exception {
+        AsyncLane lane = new AsyncLane();
+        List<String> calls = new ArrayList<>();
+        Runnable[] firstRelease = new Runnable[1];
+
+        CompletableFuture<String> first = lane.submit(DIRECT, release -> {
+            calls.add("first");
+            firstRelease[0] = release;
+            return "rows";
+        });
+        CompletableFuture<String> second = lane.submit(DIRECT, release -> {
+            calls.add("second");
+            release.run();
+            return "done";
+        });
+
+        // the result of the first call is still being read
+        assertEquals("rows", first.get());
+        assertFalse(second.isDone());
+        assertEquals(1, calls.size());
+
+        firstRelease[0].run();
+        assertEquals("done", second.get());
+        assertEquals(2, calls.size());
+        assertEquals("second", calls.get(1));
+    }
+
+    @Test
+    public void failedCallReleasesTheConnection() throws Exception {
+        AsyncLane lane = new AsyncLane();
+
+        CompletableFuture<Object> failed = lane.submit(DIRECT, release -> {
+            throw new SQLException("Table default.missing doesn't exist");
+        });
+        CompletableFuture<Integer> next = lane.submit(DIRECT, release -> {
+            release.run();
+            return 1;
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(e.getCause() instanceof SQLException);
+        assertEquals(1, (int) next.get());
+    }
+}
@@ -412,4 +412,39 @@ public class BatchInsertITest extends AbstractITest {
             }
         });
     }
+
+    @Test
+    public void successfullyBatchInsertWithAsyncSend() throws Exception {
+        withStatement(statement -> {
+            String databaseName = getDatabaseName();
+            String tableName = databaseName + "." + getTableName();
+
+            try {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(id Int32, age UInt8, name String)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", tableName));
+
+                withPreparedStatement(String.format("INSERT INTO %s VALUES(?, 1, ?)", tableName), pstmt -> {
+                    int rows = 10_050;
+                    for (int i = 0; i < rows; i++) {
+                        pstmt.setInt(1, i);
+                        pstmt.setString(2, "Zhang San" + i);
+                        pstmt.addBatch();
+                    }
+                    assertBatchInsertResult(pstmt.executeBatch(), rows);
+                }, "insert_async_send", true, "max_block_size", 1000);
+
+                ResultSet rs = statement.executeQuery(
+                        String.format("select count(), sum(id), min(age), max(age) from %s", tableName));
+                assertTrue(rs.next());
+                assertEquals(10_050, rs.getLong(1));
+                assertEquals(50_496_225L, rs.getLong(2));
+                assertEquals(1, rs.getInt(3));
+                assertEquals(1, rs.getInt(4));
+            }
+            finally {
+                statement.execute(String.format("DROP DATABASE %s", databaseName));
+            }
+        });
+    }
 }
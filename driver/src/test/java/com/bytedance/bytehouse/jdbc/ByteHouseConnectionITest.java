@@ -22,12 +22,22 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IColumn;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.Test;
 
 public class ByteHouseConnectionITest extends AbstractITest {
@@ -120,4 +130,104 @@ public class ByteHouseConnectionITest extends AbstractITest {
             }
         });
     }
+
+    @Test
+    public void testAsyncInsertAndQueriesRunInOrder() throws Exception {
+        withNewConnection(connection -> {
+            ByteHouseConnection bhConnection = connection.unwrap(ByteHouseConnection.class);
+            String databaseName = getDatabaseName();
+            String tableName = databaseName + "." + getTableName();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(id Int32, name String)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", tableName));
+
+                ServerContext ctx = bhConnection.serverContext();
+                List<Block> blocks = new ArrayList<>();
+                for (int b = 0; b < 3; b++) {
+                    Block block = new Block(0, new IColumn[]{
+                            ColumnFactoryUtils.createEmptyColumn("id", DataTypeFactory.get("Int32", ctx)),
+                            ColumnFactoryUtils.createEmptyColumn("name", DataTypeFactory.get("String", ctx))
+                    });
+                    block.initWriteBuffer();
+                    for (int i = 0; i < 100; i++) {
+                        block.setObject(0, b * 100 + i);
+                        block.setObject(1, "name" + i);
+                        block.appendRow();
+                    }
+                    blocks.add(block);
+                }
+
+                CompletableFuture<Long> inserted = bhConnection.insertAsync(tableName, blocks);
+                CompletableFuture<ResultSet> count = bhConnection.executeAsync(
+                        String.format("SELECT count(), sum(id) FROM %s", tableName));
+                CompletableFuture<ResultSet> one = bhConnection.executeAsync("SELECT 1");
+
+                assertEquals(300L, (long) inserted.get());
+                try (ResultSet rs = count.get()) {
+                    assertTrue(rs.next());
+                    assertEquals(300, rs.getLong(1));
+                    assertEquals(44850, rs.getLong(2));
+                    // the next query waits for this result set to be closed
+                    assertFalse(one.isDone());
+                }
+                try (ResultSet rs = one.get()) {
+                    assertTrue(rs.next());
+                    assertEquals(1, rs.getInt(1));
+                }
+            }
+            finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(String.format("DROP DATABASE %s", databaseName));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testAsyncInsertOfMismatchedBlockEndsInsert() throws Exception {
+        withNewConnection(connection -> {
+            ByteHouseConnection bhConnection = connection.unwrap(ByteHouseConnection.class);
+            String databaseName = getDatabaseName();
+            String tableName = databaseName + "." + getTableName();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(id Int32, name String)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", tableName));
+
+                ServerContext ctx = bhConnection.serverContext();
+                List<Block> blocks = new ArrayList<>();
+                for (String second : new String[]{"name", "other"}) {
+                    Block block = new Block(0, new IColumn[]{
+                            ColumnFactoryUtils.createEmptyColumn("id", DataTypeFactory.get("Int32", ctx)),
+                            ColumnFactoryUtils.createEmptyColumn(second, DataTypeFactory.get("String", ctx))
+                    });
+                    block.initWriteBuffer();
+                    for (int i = 0; i < 100; i++) {
+                        block.setObject(0, i);
+                        block.setObject(1, "name" + i);
+                        block.appendRow();
+                    }
+                    blocks.add(block);
+                }
+
+                ExecutionException failure = assertThrows(ExecutionException.class,
+                        () -> bhConnection.insertAsync(tableName, blocks).get());
+                assertTrue(failure.getCause() instanceof SQLException);
+
+                // the first block is committed and the connection is free for the next query
+                try (ResultSet rs = statement.executeQuery(String.format("SELECT count() FROM %s", tableName))) {
+                    assertTrue(rs.next());
+                    assertEquals(100, rs.getLong(1));
+                }
+            }
+            finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(String.format("DROP DATABASE %s", databaseName));
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.bytedance.bytehouse.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.Test;
+
+public class ByteHouseConnectionPoolITest extends AbstractITest {
+
+    @Test
+    public void testPooledConnectionIsReused() throws Exception {
+        try (ByteHouseDataSource ds = getDataSource(getUrl(), "pool_enabled", "true")) {
+            final ByteHouseConnection first = ds.getConnection();
+            final Object physical = first.clientContext();
+            first.setSchema("abc");
+            first.close();
+            assertFalse(first.isValid(1));
+
+            try (ByteHouseConnection second = ds.getConnection()) {
+                assertNotSame(first, second);
+                assertSame(physical, second.clientContext());
+                assertEquals("", second.getSchema());
+                try (Statement stmt = second.createStatement()) {
+                    ResultSet rs = stmt.executeQuery("SELECT 1");
+                    rs.next();
+                    assertEquals(1, rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionWithUnreadResultIsNotReused() throws Exception {
+        try (ByteHouseDataSource ds = getDataSource(getUrl(), "pool_enabled", "true")) {
+            final ByteHouseConnection first = ds.getConnection();
+            final Object physical = first.clientContext();
+            final ResultSet unread = first.createStatement()
+                    .executeQuery("SELECT number FROM system.numbers LIMIT 1000000");
+            unread.next();
+            first.close();
+
+            try (ByteHouseConnection second = ds.getConnection()) {
+                assertNotSame(physical, second.clientContext());
+                try (Statement stmt = second.createStatement()) {
+                    ResultSet rs = stmt.executeQuery("SELECT 2");
+                    rs.next();
+                    assertEquals(2, rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBorrowTimeout() throws Exception {
+        try (ByteHouseDataSource ds = getDataSource(getUrl(),
+                "pool_enabled", "true", "pool_max_size", "1", "pool_borrow_timeout", "100")) {
+            try (ByteHouseConnection ignored = ds.getConnection()) {
+                assertThrows(SQLException.class, ds::getConnection);
+            }
+            ds.getConnection().close();
+        }
+    }
+}
@@ -16,9 +16,15 @@
 
 package com.bytedance.bytehouse.jdbc;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Objects;
 
 public class CSVInsertITest extends AbstractITest {
@@ -183,4 +189,93 @@ public class CSVInsertITest extends AbstractITest {
             }
         }, "use_client_time_zone", "true", "insert_infile_local", true);
     }
+
+    @Test
+    public void testSuccessfullyStreamCSVLargerThanOneBlock() throws Exception {
+        insertGeneratedCSV("insert_infile_local", true, "max_block_size", 1000);
+    }
+
+    @Test
+    public void testSuccessfullyParseCSVInParallel() throws Exception {
+        insertGeneratedCSV("insert_infile_local", true, "max_block_size", 1000, "insert_infile_parallelism", 4);
+    }
+
+    @Test
+    public void testBadRowPastFirstBlockEndsInsert() throws Exception {
+        // the first block is committed, the insert is ended and the connection can be used again
+        assert insertCSVWithBadRow("insert_infile_local", true, "max_block_size", 1000) == 1000;
+    }
+
+    @Test
+    public void testBadRowEndsParallelInsert() throws Exception {
+        // the chunk of the bad row is not sent
+        assert insertCSVWithBadRow("insert_infile_local", true, "max_block_size", 1000,
+                "insert_infile_parallelism", 4) < 2500;
+    }
+
+    /**
+     * @return the number of rows in the table after the failed insert.
+     */
+    private long insertCSVWithBadRow(Object... props) throws Exception {
+        File csv = File.createTempFile("infile", ".csv");
+        csv.deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(csv.toPath())) {
+            writer.write("id,name\n");
+            for (int i = 0; i < 2500; i++) {
+                writer.write((i == 1500 ? "bad" : String.valueOf(i)) + ",n\n");
+            }
+        }
+        long[] count = new long[1];
+        withStatement(statement -> {
+            String databaseName = getDatabaseName();
+            String tableName = databaseName + "." + getTableName();
+
+            try {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(id Int32, name String)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", tableName));
+                assertThrows(SQLException.class, () -> statement.executeUpdate(String.format(
+                        "INSERT INTO %s FORMAT csvwithnames INFILE '%s'", tableName, csv.getAbsolutePath())));
+                ResultSet rs = statement.executeQuery(String.format("SELECT count() FROM %s", tableName));
+                rs.next();
+                count[0] = rs.getLong(1);
+            }
+            finally {
+                statement.execute(String.format("DROP DATABASE %s", databaseName));
+            }
+        }, props);
+        return count[0];
+    }
+
+    private void insertGeneratedCSV(Object... props) throws Exception {
+        File csv = File.createTempFile("infile", ".csv");
+        csv.deleteOnExit();
+        int rows = 25_000;
+        try (Writer writer = Files.newBufferedWriter(csv.toPath())) {
+            writer.write("id,name\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(i + ",\"n," + i + "\"\n");
+            }
+        }
+        withStatement(statement -> {
+            String databaseName = getDatabaseName();
+            String tableName = databaseName + "." + getTableName();
+
+            try {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(id Int32, name String)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", tableName));
+                int inserted = statement.executeUpdate(String.format("INSERT INTO %s FORMAT csvwithnames "
+                        + "INFILE '%s'", tableName, csv.getAbsolutePath()));
+                assert inserted == rows;
+                ResultSet rs = statement.executeQuery(String.format("SELECT count(), sum(id) FROM %s", tableName));
+                rs.next();
+                assert rs.getLong(1) == rows;
+                assert rs.getLong(2) == (long) rows * (rows - 1) / 2;
+            }
+            finally {
+                statement.execute(String.format("DROP DATABASE %s", databaseName));
+            }
+        }, props);
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.bytedance.bytehouse.jdbc.statement.ByteHouseStatement;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.junit.jupiter.api.Test;
+
+public class InfileFormatsITest extends AbstractITest {
+
+    @Test
+    public void testSuccessfullyTSVWithNamesInsert() throws Exception {
+        File tsv = write("rank\tid\tname\n1.5\t1\ttab\\there\n2.5\t2\t\\N\n");
+        insertAndCheck("TSVWithNames", tsv, "id Int32, name Nullable(String), rank Float32", rs -> {
+            rs.next();
+            assert rs.getInt(1) == 1;
+            assert rs.getString(2).equals("tab\there");
+            rs.next();
+            assert rs.getString(2) == null;
+            assert !rs.next();
+        });
+    }
+
+    @Test
+    public void testSuccessfullyJSONEachRowInsert() throws Exception {
+        File json = write("{\"id\": 1, \"name\": \"a\", \"tags\": [\"x\", \"y\"]}\n"
+                + "{\"id\": 2, \"tags\": []}\n");
+        insertAndCheck("JSONEachRow", json, "id Int32, name String, tags Array(String)", rs -> {
+            rs.next();
+            assert rs.getInt(1) == 1;
+            assert rs.getString(2).equals("a");
+            assert ((Object[]) rs.getArray(3).getArray()).length == 2;
+            rs.next();
+            assert rs.getString(2).isEmpty();
+            assert !rs.next();
+        });
+    }
+
+    @Test
+    public void testSuccessfullyExportNativeAndInsertItBack() throws Exception {
+        File file = File.createTempFile("export", ".native");
+        file.deleteOnExit();
+        withStatement(statement -> {
+            String databaseName = getDatabaseName();
+            String source = databaseName + "." + getTableName();
+            String target = source + "_copy";
+
+            try {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(id Int32, name String)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", source));
+                statement.execute(String.format("CREATE TABLE %s AS %s", target, source));
+                statement.execute(String.format("INSERT INTO %s SELECT number, toString(number)"
+                        + " FROM system.numbers LIMIT 10000", source));
+
+                try (OutputStream out = new FileOutputStream(file)) {
+                    long rows = statement.unwrap(ByteHouseStatement.class)
+                            .exportNative(String.format("SELECT * FROM %s", source), out);
+                    assert rows == 10000;
+                }
+                statement.execute(String.format("INSERT INTO %s FORMAT Native INFILE '%s'",
+                        target, file.getAbsolutePath()));
+
+                ResultSet rs = statement.executeQuery(String.format("SELECT count(), sum(id) FROM %s", target));
+                rs.next();
+                assert rs.getLong(1) == 10000;
+                assert rs.getLong(2) == 49995000;
+            }
+            finally {
+                statement.execute(String.format("DROP DATABASE %s", databaseName));
+            }
+        }, "insert_infile_local", true);
+    }
+
+    @Test
+    public void testTruncatedNativeFileEndsInsert() throws Exception {
+        File file = File.createTempFile("export", ".native");
+        file.deleteOnExit();
+        withStatement(statement -> {
+            String databaseName = getDatabaseName();
+            String source = databaseName + "." + getTableName();
+            String target = source + "_copy";
+
+            try {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(id Int32, name String)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", source));
+                statement.execute(String.format("CREATE TABLE %s AS %s", target, source));
+                statement.execute(String.format("INSERT INTO %s SELECT number, toString(number)"
+                        + " FROM system.numbers LIMIT 10000", source));
+                try (OutputStream out = new FileOutputStream(file)) {
+                    statement.unwrap(ByteHouseStatement.class)
+                            .exportNative(String.format("SELECT * FROM %s", source), out);
+                }
+                // cut the last block
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(raf.length() - 10);
+                }
+
+                assertThrows(SQLException.class, () -> statement.execute(String.format(
+                        "INSERT INTO %s FORMAT Native INFILE '%s'", target, file.getAbsolutePath())));
+
+                // the blocks before the cut are committed and the connection is usable again
+                ResultSet rs = statement.executeQuery(String.format("SELECT count() FROM %s", target));
+                rs.next();
+                assert rs.getLong(1) > 0 && rs.getLong(1) < 10000;
+            }
+            finally {
+                statement.execute(String.format("DROP DATABASE %s", databaseName));
+            }
+        }, "insert_infile_local", true, "max_block_size", 1000);
+    }
+
+    private void insertAndCheck(String format, File file, String columns, WithResultSet check) throws Exception {
+        withStatement(statement -> {
+            String databaseName = getDatabaseName();
+            String tableName = databaseName + "." + getTableName();
+
+            try {
+                statement.execute(String.format("CREATE DATABASE %s", databaseName));
+                statement.execute(String.format("CREATE TABLE %s(%s)"
+                        + " ENGINE=CnchMergeTree() order by tuple()", tableName, columns));
+                statement.execute(String.format("INSERT INTO %s FORMAT %s INFILE '%s'",
+                        tableName, format, file.getAbsolutePath()));
+                check.apply(statement.executeQuery(String.format("SELECT * FROM %s ORDER BY 1", tableName)));
+            }
+            finally {
+                statement.execute(String.format("DROP DATABASE %s", databaseName));
+            }
+        }, "insert_infile_local", true);
+    }
+
+    private static File write(String content) throws Exception {
+        File file = File.createTempFile("infile", ".data");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private interface WithResultSet {
+
+        void apply(ResultSet rs) throws Exception;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+public class QueryCancelITest extends AbstractITest {
+
+    private static final String ENDLESS_QUERY = "SELECT number FROM system.numbers";
+
+    @Test
+    public void cancelFromAnotherThreadStopsQuery() throws Exception {
+        withNewConnection(connection -> {
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery(ENDLESS_QUERY);
+            assertTrue(rs.next());
+
+            CountDownLatch cancelled = new CountDownLatch(1);
+            new Thread(() -> {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    cancelled.countDown();
+                }
+            }).start();
+            cancelled.await();
+
+            assertThrows(SQLException.class, () -> {
+                while (rs.next()) {
+                    rs.getLong(1);
+                }
+            });
+            rs.close();
+
+            // the connection is usable after the cancelled query is drained
+            ResultSet next = statement.executeQuery("SELECT 1");
+            assertTrue(next.next());
+            assertEquals(1, next.getInt(1));
+        });
+    }
+
+    @Test
+    public void closingUnfinishedResultSetCancelsQuery() throws Exception {
+        withStatement(statement -> {
+            ResultSet rs = statement.executeQuery(ENDLESS_QUERY);
+            assertTrue(rs.next());
+            rs.close();
+
+            ResultSet next = statement.executeQuery("SELECT 2");
+            assertTrue(next.next());
+            assertEquals(2, next.getInt(1));
+        });
+    }
+
+    @Test
+    public void queryTimeoutCancelsQuery() throws Exception {
+        withStatement(statement -> {
+            statement.setQueryTimeout(1);
+            ResultSet rs = statement.executeQuery(ENDLESS_QUERY);
+            assertThrows(SQLTimeoutException.class, () -> {
+                while (rs.next()) {
+                    rs.getLong(1);
+                }
+            });
+        });
+    }
+}
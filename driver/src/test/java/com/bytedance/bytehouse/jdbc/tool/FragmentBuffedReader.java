@@ -34,7 +34,9 @@ public class FragmentBuffedReader implements BuffedReader {
 
     @Override
     public int readBinary() throws IOException {
-        throw new UnsupportedOperationException();
+        byte[] bytes = new byte[1];
+        readBinary(bytes);
+        return bytes[0] & 0xFF;
     }
 
     @Override
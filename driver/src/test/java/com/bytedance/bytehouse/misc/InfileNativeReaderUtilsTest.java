@@ -0,0 +1,95 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.misc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.bytedance.bytehouse.buffer.ByteArrayReader;
+import com.bytedance.bytehouse.buffer.ByteArrayWriter;
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.client.ServerContextTestUtils;
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.BlockSettings;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.jdbc.ByteHouseArray;
+import com.bytedance.bytehouse.serde.BinaryDeserializer;
+import com.bytedance.bytehouse.serde.BinarySerializer;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public class InfileNativeReaderUtilsTest {
+
+    @Test
+    public void successfullyCutNativeStreamIntoBlocks() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        byte[] first = nativeBlock(ctx, 3);
+        byte[] second = nativeBlock(ctx, 10);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(first);
+        file.write(second);
+
+        try (InfileNativeReaderUtils.NativeBlockStream blocks = new InfileNativeReaderUtils.NativeBlockStream(
+                new ByteArrayInputStream(file.toByteArray()), ctx)) {
+            assertArrayEquals(first, drain(blocks.next()));
+            assertEquals(3, blocks.rows());
+            assertArrayEquals(new String[]{"id", "tags", "name"}, blocks.columnNames());
+            assertEquals("Array(String)", blocks.columnTypes()[1].name());
+            assertArrayEquals(second, drain(blocks.next()));
+            assertEquals(10, blocks.rows());
+            assertNull(blocks.next());
+        }
+    }
+
+    // a block as written by FORMAT Native, which has no block settings in front
+    private static byte[] nativeBlock(ServerContext ctx, int rows) throws Exception {
+        Block block = new Block(0, new IColumn[]{
+                ColumnFactoryUtils.createEmptyColumn("id", DataTypeFactory.get("Int64", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("tags", DataTypeFactory.get("Array(String)", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("name", DataTypeFactory.get("Nullable(String)", ctx))
+        });
+        block.initWriteBuffer();
+        for (int row = 0; row < rows; row++) {
+            block.setObject(0, (long) row);
+            block.setObject(1, new ByteHouseArray(
+                    DataTypeFactory.get("String", ctx), new Object[]{"t" + row}));
+            block.setObject(2, row % 2 == 0 ? null : "n" + row);
+            block.appendRow();
+        }
+        ByteArrayWriter writer = new ByteArrayWriter(1024);
+        block.writeTo(new BinarySerializer(writer, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] buffer : writer.getBufferList()) {
+            out.write(buffer);
+        }
+        byte[] withSettings = out.toByteArray();
+        ByteArrayReader reader = new ByteArrayReader(withSettings);
+        BlockSettings.readFrom(new BinaryDeserializer(reader));
+        return Arrays.copyOfRange(withSettings, withSettings.length - reader.remaining(), withSettings.length);
+    }
+
+    private static byte[] drain(ByteArrayReader reader) throws Exception {
+        byte[] bytes = new byte[reader.remaining()];
+        reader.readBinary(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.bytedance.bytehouse.client.ServerContextTestUtils;
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.DataTypeConverter;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import com.bytedance.bytehouse.stream.InfileChunkReader;
+import com.bytedance.bytehouse.stream.ParallelInfileInserter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class InfileTSVReaderUtilsTest {
+
+    @Test
+    public void successfullyParseEscapesAndNulls() {
+        List<String> record = InfileTSVReaderUtils.parseRecord(bytes("a\\tb\t\\N\t\\\\N\tline\\nbreak\t\n2\t3\n"));
+        assertEquals(Arrays.asList("a\tb", null, "\\N", "line\nbreak", ""), record);
+    }
+
+    @Test
+    public void successfullyParseLastRowWithoutLineBreak() {
+        assertEquals(Arrays.asList("x", "y"), InfileTSVReaderUtils.parseRecord(bytes("x\ty")));
+        assertThrows(IllegalArgumentException.class, () -> InfileTSVReaderUtils.parseRecord(null));
+    }
+
+    @Test
+    public void successfullyFillBlocksFromChunks() throws Exception {
+        StringBuilder tsv = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            tsv.append("name\\t").append(i).append('\t').append(i).append('\n');
+        }
+        Path file = Files.createTempFile("infile", ".tsv");
+        file.toFile().deleteOnExit();
+        Files.write(file, tsv.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Object> lastNames = new ArrayList<>();
+        long rows;
+        try (InfileChunkReader chunks = new InfileChunkReader(file, 256, InfileChunkReader.NO_QUOTE)) {
+            rows = new ParallelInfileInserter(3, 100, new DataTypeConverter(ZoneId.of("UTC"))).insert(
+                    chunks,
+                    header(),
+                    // the file has the columns in reverse order
+                    InfileTSVReaderUtils.tsvChunkParser(new int[]{1, 0}),
+                    block -> {
+                        lastNames.add(block.getObject(1));
+                        return block.rowCnt();
+                    }
+            );
+        }
+        assertEquals(500L, rows);
+        assertEquals("name\t499", lastNames.get(lastNames.size() - 1));
+    }
+
+    @Test
+    public void failToParseRowWithWrongColumnCount() throws Exception {
+        Path file = Files.createTempFile("infile", ".tsv");
+        file.toFile().deleteOnExit();
+        Files.write(file, "1\ta\n2\n".getBytes(StandardCharsets.UTF_8));
+        try (InfileChunkReader chunks = new InfileChunkReader(file, 256, InfileChunkReader.NO_QUOTE)) {
+            ParallelInfileInserter inserter = new ParallelInfileInserter(1, 100, new DataTypeConverter(ZoneId.of("UTC")));
+            assertThrows(SQLException.class, () -> inserter.insert(
+                    chunks, header(), InfileTSVReaderUtils.tsvChunkParser(new int[]{0, 1}), Block::rowCnt));
+        }
+    }
+
+    private static Block header() throws Exception {
+        return new Block(0, new IColumn[]{
+                ColumnFactoryUtils.createEmptyColumn("id", DataTypeFactory.get("Int32",
+                        ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build()))),
+                ColumnFactoryUtils.createEmptyColumn("name", DataTypeFactory.get("String",
+                        ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build())))
+        });
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
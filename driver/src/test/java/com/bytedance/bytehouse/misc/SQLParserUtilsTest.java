@@ -15,10 +15,13 @@
  */
 package com.bytedance.bytehouse.misc;
 
+import static com.bytedance.bytehouse.misc.SQLParserUtils.extractInsertColumns;
 import static com.bytedance.bytehouse.misc.SQLParserUtils.splitInsertInfileQuery;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -33,6 +36,27 @@ import org.junit.jupiter.params.provider.ArgumentsSource;
 
 class SQLParserUtilsTest {
 
+    @Test
+    public void testExtractInsertColumns() throws Exception {
+        SQLParserUtils.InsertColumns insertColumns = extractInsertColumns("INSERT INTO db.t (id, `na,me`, \"n.x\", n.y)");
+        assertEquals(Arrays.asList("id", "na,me", "n.x", "n.y"), insertColumns.columns);
+
+        String query = "INSERT INTO FUNCTION remote('host', db, t, 'user', '(pwd)') (a, b) SETTINGS max_threads = (2)";
+        insertColumns = extractInsertColumns(query);
+        assertEquals(Arrays.asList("a", "b"), insertColumns.columns);
+        assertEquals(" SETTINGS max_threads = (2)", query.substring(insertColumns.end - 1));
+
+        query = "INSERT INTO TABLE `t(x)` SETTINGS insert_deduplicate = 0";
+        insertColumns = extractInsertColumns(query);
+        assertEquals(Collections.emptyList(), insertColumns.columns);
+        assertEquals("SETTINGS insert_deduplicate = 0", query.substring(insertColumns.end));
+
+        query = "insert into t";
+        insertColumns = extractInsertColumns(query);
+        assertEquals(Collections.emptyList(), insertColumns.columns);
+        assertEquals(query.length(), insertColumns.end);
+    }
+
     @Test
     public void testSplitInfileInsertQuery() {
         SQLParserUtils.InsertInfileQueryParts parts = splitInsertInfileQuery("INSERT INTO db.table   FORMAT csvwithnames "
@@ -58,11 +82,18 @@ class SQLParserUtilsTest {
         assertEquals(parts.formatPart, "csvwithnames");
         assertEquals(parts.fileLocationPart, "test2.csv");
 
+        for (String format : new String[]{"TSV", "TabSeparatedWithNames", "JSONEachRow", "Native"}) {
+            parts = splitInsertInfileQuery("INSERT INTO db.table FORMAT " + format + " INFILE test2.data");
+            assertEquals(parts.queryPart, "INSERT INTO db.table");
+            assertEquals(parts.formatPart, format);
+        }
+
         assertThrows(IllegalArgumentException.class, () -> splitInsertInfileQuery("INSERT INTO db.table format csvwithnames INFILE test2.csv"));
         assertThrows(IllegalArgumentException.class, () -> splitInsertInfileQuery("INSERT INTO db.table formatcsvwithnames INFILE test2.csv"));
         assertThrows(IllegalArgumentException.class, () -> splitInsertInfileQuery("INSERT INTO db.table format csvwithnames INFILE"));
         assertThrows(IllegalArgumentException.class, () -> splitInsertInfileQuery("INSERT INTO db.table format INFILE test2.csv"));
         assertThrows(IllegalArgumentException.class, () -> splitInsertInfileQuery("INSERT INTO db.table FORMAT CSVWITHNAMS INFILE test2.csv"));
+        assertThrows(IllegalArgumentException.class, () -> splitInsertInfileQuery("INSERT INTO db.table FORMAT Parquet INFILE test2.parquet"));
     }
 
     @Nested
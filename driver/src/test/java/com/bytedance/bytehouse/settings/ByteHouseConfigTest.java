@@ -16,6 +16,7 @@
 
 package com.bytedance.bytehouse.settings;
 
+import com.bytedance.bytehouse.exception.InvalidValueException;
 import com.bytedance.bytehouse.serde.SettingType;
 import org.junit.jupiter.api.Test;
 
@@ -178,4 +179,41 @@ class ByteHouseConfigTest {
         assertEquals(volcanoConfig.host(), "bytehouse-cn-beijing.volces.com");
         assertEquals(volcanoConfig.port(), 19000);
     }
+
+    @Test
+    void testHealthCheckPolicy() {
+        ByteHouseConfig cfg = ByteHouseConfig.Builder.builder().build();
+        assertEquals(HealthCheckPolicy.IDLE, HealthCheckPolicy.fromString(cfg.healthCheckPolicy()));
+        assertEquals(Duration.ofSeconds(30), cfg.healthCheckIdleTime());
+
+        Properties props = new Properties();
+        props.setProperty("health_check_policy", "ALWAYS");
+        props.setProperty("health_check_idle_time", "500");
+        cfg = ByteHouseConfig.Builder.builder().withProperties(props).build();
+        assertEquals(HealthCheckPolicy.ALWAYS, HealthCheckPolicy.fromString(cfg.healthCheckPolicy()));
+        assertEquals(Duration.ofMillis(500), cfg.healthCheckIdleTime());
+
+        assertThrows(InvalidValueException.class, () -> ByteHouseConfig.Builder.builder()
+                .healthCheckPolicy("sometimes")
+                .build());
+    }
+
+    @Test
+    void testCompressionMethodIsNegotiated() {
+        ByteHouseConfig cfg = ByteHouseConfig.Builder.builder().build();
+        assertEquals(CompressionMethod.LZ4, CompressionMethod.fromString(cfg.compressionMethod()));
+        assertFalse(cfg.settings().containsKey(SettingKey.network_compression_method));
+
+        cfg = ByteHouseConfig.Builder.builder()
+                .compressionMethod("ZSTD")
+                .compressionLevel(5)
+                .build();
+        assertEquals(CompressionMethod.ZSTD, CompressionMethod.fromString(cfg.compressionMethod()));
+        assertEquals("zstd", cfg.settings().get(SettingKey.network_compression_method));
+        assertEquals(5L, cfg.settings().get(SettingKey.network_zstd_compression_level));
+
+        assertThrows(InvalidValueException.class, () -> ByteHouseConfig.Builder.builder()
+                .compressionMethod("gzip")
+                .build());
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.client.ServerContextTestUtils;
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import org.junit.jupiter.api.Test;
+
+public class AsyncBlockSenderTest {
+
+    @Test
+    public void successfullyFillOneBlockWhileTheOtherIsSent() throws Exception {
+        Semaphore release = new Semaphore(0);
+        List<String> sentThreads = new ArrayList<>();
+        AsyncBlockSender sender = new AsyncBlockSender(block -> {
+            release.acquireUninterruptibly();
+            sentThreads.add(Thread.currentThread().getName());
+            return block.rowCnt();
+        });
+
+        Block first = block(3);
+        Block second = sender.send(first);
+        assertNotSame(first, second);
+        assertEquals(0, second.rowCnt());
+        assertEquals("constant", second.getObject(1));
+
+        // the producer keeps writing while the first block is blocked in the sender
+        second.setObject(0, 7);
+        second.appendRow();
+        release.release(2);
+
+        Block third = sender.send(second);
+        assertSame(first, third);
+        assertEquals(0, third.rowCnt());
+        sender.await();
+        assertEquals(4, sender.takeSentRows());
+        assertEquals(0, sender.takeSentRows());
+        assertEquals(2, sentThreads.size());
+        assertTrue(sentThreads.get(0).startsWith("bytehouse-insert-send-"));
+    }
+
+    @Test
+    public void failedSendIsThrownOnceByTheNextCall() throws Exception {
+        AsyncBlockSender sender = new AsyncBlockSender(block -> {
+            throw new SQLException("broken pipe");
+        });
+
+        Block next = sender.send(block(1));
+        SQLException e = assertThrows(SQLException.class, () -> sender.send(next));
+        assertEquals("broken pipe", e.getMessage());
+        sender.await();
+        sender.throwIfFailed();
+    }
+
+    private static Block block(final int rows) throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        Block block = new Block(0, new IColumn[]{
+                ColumnFactoryUtils.createEmptyColumn("id", DataTypeFactory.get("Int32", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("name", DataTypeFactory.get("String", ctx))
+        });
+        block.initWriteBuffer();
+        block.setObject(1, "constant");
+        for (int i = 0; i < rows; i++) {
+            block.setObject(0, i);
+            block.appendRow();
+        }
+        return block;
+    }
+}
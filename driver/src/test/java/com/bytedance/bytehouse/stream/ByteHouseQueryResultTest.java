@@ -0,0 +1,110 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.misc.CheckedIterator;
+import com.bytedance.bytehouse.protocol.DataResponse;
+import com.bytedance.bytehouse.protocol.EOFStreamResponse;
+import com.bytedance.bytehouse.protocol.Response;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ByteHouseQueryResultTest {
+
+    @Test
+    public void cancelDiscardsRemainingDataAndThrowsReason() throws Exception {
+        FakeSource source = new FakeSource(5);
+        ByteHouseQueryResult result = new ByteHouseQueryResult(source);
+        CheckedIterator<DataResponse, SQLException> data = result.data();
+
+        assertEquals(0, result.header().rowCnt());
+        assertEquals(10, data.next().block().rowCnt());
+
+        SQLTimeoutException reason = new SQLTimeoutException("too slow");
+        assertTrue(result.cancel(reason));
+        assertTrue(result.cancel(new SQLException("again")));
+        assertEquals(1, source.cancels);
+
+        assertSame(reason, assertThrows(SQLException.class, data::hasNext));
+        // every response after the cancel is read in discard mode, up to end of stream
+        assertEquals(6, source.discardFlags.size() - 1);
+        assertFalse(source.discardFlags.get(1));
+        for (int i = 2; i < source.discardFlags.size(); i++) {
+            assertTrue(source.discardFlags.get(i));
+        }
+    }
+
+    @Test
+    public void cancelAfterEndIsNoop() throws Exception {
+        FakeSource source = new FakeSource(2);
+        ByteHouseQueryResult result = new ByteHouseQueryResult(source);
+        CheckedIterator<DataResponse, SQLException> data = result.data();
+        int blocks = 0;
+        while (data.hasNext()) {
+            assertFalse(result.isComplete());
+            data.next();
+            blocks++;
+        }
+        assertEquals(2, blocks);
+        assertTrue(result.isComplete());
+        assertFalse(result.cancel(new SQLException("late")));
+        assertEquals(0, source.cancels);
+        assertFalse(data.hasNext());
+    }
+
+    private static class FakeSource implements ByteHouseQueryResult.ResponseSource {
+
+        final List<Boolean> discardFlags = new ArrayList<>();
+
+        int cancels;
+
+        private final int blocks;
+
+        FakeSource(final int blocks) {
+            this.blocks = blocks;
+        }
+
+        @Override
+        public Response receive(final Response.DataMode mode) {
+            final boolean discardData = mode == Response.DataMode.DISCARD;
+            discardFlags.add(discardData);
+            int idx = discardFlags.size() - 1;
+            if (idx == 0) {
+                return new DataResponse("", Block.empty());
+            }
+            if (idx <= blocks) {
+                return new DataResponse("", discardData ? Block.empty() : new Block(10, new IColumn[0]));
+            }
+            return EOFStreamResponse.INSTANCE;
+        }
+
+        @Override
+        public void cancel() {
+            cancels++;
+        }
+    }
+}
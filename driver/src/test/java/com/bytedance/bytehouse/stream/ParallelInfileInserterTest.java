@@ -0,0 +1,156 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.client.ServerContextTestUtils;
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.DataTypeConverter;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ParallelInfileInserterTest {
+
+    @Test
+    public void successfullyCutChunksOnUnquotedLineBreaks() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            csv.append(i).append(",\"multi\nline, \"\"quoted\"\"\"\n");
+        }
+        Path file = write(csv.toString());
+
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        try (InfileChunkReader chunks = new InfileChunkReader(file, 64, '"')) {
+            ByteBuffer chunk;
+            while ((chunk = chunks.nextChunk()) != null) {
+                byte[] bytes = new byte[chunk.remaining()];
+                chunk.get(bytes);
+                String text = new String(bytes, StandardCharsets.UTF_8);
+                assertTrue(text.endsWith("\"\n"));
+                assertEquals(0, text.chars().filter(c -> c == '"').count() % 2);
+                joined.write(bytes);
+            }
+        }
+        assertArrayEquals(Files.readAllBytes(file), joined.toByteArray());
+    }
+
+    @Test
+    public void successfullyPeekAndReadSingleRecords() throws Exception {
+        Path file = write("a,\"b\nc\"\n1,2");
+        try (InfileChunkReader chunks = new InfileChunkReader(file, 4, '"')) {
+            assertEquals("a,\"b\nc\"\n", text(chunks.peekRecord()));
+            assertEquals("a,\"b\nc\"\n", text(chunks.nextRecord()));
+            assertEquals("1,2", text(chunks.nextRecord()));
+            assertNull(chunks.nextRecord());
+            assertNull(chunks.nextChunk());
+        }
+    }
+
+    @Test
+    public void successfullySendBlocksInFileOrder() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            lines.append(i).append(",s").append(i).append('\n');
+        }
+        Path file = write(lines.toString());
+
+        List<Integer> lastIds = new ArrayList<>();
+        long rows;
+        try (InfileChunkReader chunks = new InfileChunkReader(file, 128, InfileChunkReader.NO_QUOTE)) {
+            rows = new ParallelInfileInserter(4, 64, new DataTypeConverter(ZoneId.of("UTC"))).insert(
+                    chunks,
+                    header(),
+                    ParallelInfileInserterTest::parseLines,
+                    block -> {
+                        assertTrue(block.rowCnt() <= 64);
+                        lastIds.add((Integer) block.getObject(0));
+                        return block.rowCnt();
+                    }
+            );
+        }
+        assertEquals(1000L, rows);
+        for (int i = 1; i < lastIds.size(); i++) {
+            assertTrue(lastIds.get(i - 1) < lastIds.get(i));
+        }
+        assertEquals(999, (int) lastIds.get(lastIds.size() - 1));
+    }
+
+    @Test
+    public void failToInsertWhenAChunkCannotBeParsed() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            lines.append(i == 500 ? "broken" : i + ",s").append('\n');
+        }
+        Path file = write(lines.toString());
+
+        try (InfileChunkReader chunks = new InfileChunkReader(file, 128, InfileChunkReader.NO_QUOTE)) {
+            ParallelInfileInserter inserter = new ParallelInfileInserter(2, 64, new DataTypeConverter(ZoneId.of("UTC")));
+            assertThrows(SQLException.class, () -> inserter.insert(
+                    chunks, header(), ParallelInfileInserterTest::parseLines, Block::rowCnt));
+        }
+    }
+
+    private static void parseLines(ByteBuffer chunk, ParallelInfileInserter.BlockBuilder builder) throws Exception {
+        for (String line : text(chunk).split("\n")) {
+            String[] values = line.split(",");
+            if (values.length != 2) {
+                throw new IllegalArgumentException("invalid line: " + line);
+            }
+            builder.setObject(0, Integer.parseInt(values[0]));
+            builder.setObject(1, values[1]);
+            builder.appendRow();
+        }
+    }
+
+    private static Block header() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        return new Block(0, new IColumn[]{
+                ColumnFactoryUtils.createEmptyColumn("id", DataTypeFactory.get("Int32", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("s", DataTypeFactory.get("String", ctx))
+        });
+    }
+
+    private static String text(ByteBuffer bytes) {
+        byte[] copy = new byte[bytes.remaining()];
+        bytes.duplicate().get(copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+
+    private static Path write(String content) throws Exception {
+        Path file = Files.createTempFile("infile", ".csv");
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.misc.CheckedIterator;
+import com.bytedance.bytehouse.protocol.DataResponse;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class PrefetchingDataIteratorTest {
+
+    @Test
+    public void successfullyReadAheadUpToFetchSize() throws Exception {
+        CountingIterator source = new CountingIterator(10, 100, -1);
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(source, 300);
+
+        // 3 blocks of 100 rows are queued, the reader holds a 4th until there is room
+        waitUntil(() -> source.produced.get() >= 4);
+        Thread.sleep(100);
+        assertEquals(4, source.produced.get());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(iterator.hasNext());
+            assertEquals(i, Integer.parseInt(iterator.next().name()));
+            assertTrue(source.produced.get() <= i + 5);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void successfullyReadOneBlockAheadWithoutFetchSize() throws Exception {
+        CountingIterator source = new CountingIterator(5, 100, -1);
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(source, 0);
+
+        waitUntil(() -> source.produced.get() >= 1);
+        Thread.sleep(100);
+        // one block queued, one more read and waiting for room
+        assertTrue(source.produced.get() <= 2);
+
+        iterator.setFetchSize(1000);
+        waitUntil(() -> source.produced.get() == 5);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, Integer.parseInt(iterator.next().name()));
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void rethrowSourceErrorAfterEarlierBlocks() throws Exception {
+        CountingIterator source = new CountingIterator(10, 100, 2);
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(source, 1000);
+
+        assertEquals("0", iterator.next().name());
+        assertEquals("1", iterator.next().name());
+        SQLException ex = assertThrows(SQLException.class, iterator::hasNext);
+        assertSame(CountingIterator.FAILURE, ex);
+        assertThrows(SQLException.class, iterator::next);
+    }
+
+    @Test
+    public void closeStopsParkedReader() throws Exception {
+        CountingIterator source = new CountingIterator(10, 100, -1);
+        PrefetchingDataIterator iterator = new PrefetchingDataIterator(source, 100);
+
+        // one block queued, the reader holds a 2nd until there is room
+        waitUntil(() -> source.produced.get() == 2);
+        waitUntil(() -> source.reader.getState() == Thread.State.WAITING);
+
+        iterator.close();
+        // the reader goes back to the pool, where idle threads wait with a keep alive timeout
+        waitUntil(() -> source.reader.getState() == Thread.State.TIMED_WAITING);
+        assertEquals(2, source.produced.get());
+        assertFalse(iterator.hasNext());
+        assertNull(iterator.next());
+    }
+
+    private static void waitUntil(final Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.met()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+
+        boolean met();
+    }
+
+    private static class CountingIterator implements CheckedIterator<DataResponse, SQLException> {
+
+        static final SQLException FAILURE = new SQLException("broken");
+
+        final AtomicInteger produced = new AtomicInteger();
+
+        volatile Thread reader;
+
+        private final int blocks;
+
+        private final int rowsPerBlock;
+
+        private final int failAt;
+
+        CountingIterator(final int blocks, final int rowsPerBlock, final int failAt) {
+            this.blocks = blocks;
+            this.rowsPerBlock = rowsPerBlock;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return produced.get() < blocks;
+        }
+
+        @Override
+        public DataResponse next() throws SQLException {
+            reader = Thread.currentThread();
+            int idx = produced.get();
+            if (idx == failAt) {
+                throw FAILURE;
+            }
+            DataResponse response = new DataResponse(String.valueOf(idx), new Block(rowsPerBlock, new IColumn[0]));
+            produced.incrementAndGet();
+            return response;
+        }
+    }
+}
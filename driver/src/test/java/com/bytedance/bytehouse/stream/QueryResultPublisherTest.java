@@ -0,0 +1,173 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.protocol.DataResponse;
+import com.bytedance.bytehouse.protocol.EOFStreamResponse;
+import com.bytedance.bytehouse.protocol.Response;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class QueryResultPublisherTest {
+
+    @Test
+    public void successfullyReadBlocksOnlyAsTheyAreRequested() {
+        CountingSource source = new CountingSource(5);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new QueryResultPublisher(() -> new ByteHouseQueryResult(source), Runnable::run).subscribe(subscriber);
+
+        // nothing is sent or read before the first request
+        assertEquals(0, source.received);
+
+        subscriber.subscription.request(2);
+        assertEquals(2, subscriber.blocks.size());
+        // header and two blocks
+        assertEquals(3, source.received);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(5, subscriber.blocks.size());
+        assertTrue(subscriber.completed);
+        assertEquals(0, subscriber.errors.size());
+    }
+
+    @Test
+    public void cancelDiscardsTheRemainingBlocks() {
+        CountingSource source = new CountingSource(5);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new QueryResultPublisher(() -> new ByteHouseQueryResult(source), Runnable::run).subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        assertEquals(1, subscriber.blocks.size());
+        assertEquals(1, source.cancels);
+        assertTrue(source.discarded > 0);
+        assertFalse(subscriber.completed);
+        assertEquals(0, subscriber.errors.size());
+    }
+
+    @Test
+    public void nonPositiveRequestFailsTheSubscription() {
+        CountingSource source = new CountingSource(5);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new QueryResultPublisher(() -> new ByteHouseQueryResult(source), Runnable::run).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertEquals(1, subscriber.errors.size());
+        assertTrue(subscriber.errors.get(0) instanceof IllegalArgumentException);
+        assertEquals(0, source.received);
+    }
+
+    @Test
+    public void failingOnNextFailsTheSubscriptionAndDiscardsTheRemainingBlocks() {
+        CountingSource source = new CountingSource(5);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.onNextFailure = new IllegalStateException("subscriber bug");
+        new QueryResultPublisher(() -> new ByteHouseQueryResult(source), Runnable::run).subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+
+        assertEquals(1, subscriber.errors.size());
+        assertSame(subscriber.onNextFailure, subscriber.errors.get(0));
+        assertEquals(1, source.cancels);
+        assertTrue(source.discarded > 0);
+
+        // the subscription is done, later signals are ignored
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.errors.size());
+        assertFalse(subscriber.completed);
+    }
+
+    private static final class CountingSource implements ByteHouseQueryResult.ResponseSource {
+
+        private final int blocks;
+
+        int received;
+
+        int discarded;
+
+        int cancels;
+
+        CountingSource(final int blocks) {
+            this.blocks = blocks;
+        }
+
+        @Override
+        public Response receive(final Response.DataMode mode) {
+            int idx = received++;
+            if (mode == Response.DataMode.DISCARD) {
+                discarded++;
+            }
+            if (idx == 0) {
+                return new DataResponse("", Block.empty());
+            }
+            if (idx <= blocks) {
+                return new DataResponse("", new Block(10, new IColumn[0]));
+            }
+            return EOFStreamResponse.INSTANCE;
+        }
+
+        @Override
+        public void cancel() {
+            cancels++;
+        }
+    }
+
+    private static final class RecordingSubscriber implements ReactiveFlow.Subscriber<Block> {
+
+        ReactiveFlow.Subscription subscription;
+
+        final List<Block> blocks = new ArrayList<>();
+
+        final List<Throwable> errors = new ArrayList<>();
+
+        boolean completed;
+
+        RuntimeException onNextFailure;
+
+        @Override
+        public void onSubscribe(final ReactiveFlow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final Block item) {
+            if (onNextFailure != null) {
+                throw onNextFailure;
+            }
+            blocks.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            errors.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
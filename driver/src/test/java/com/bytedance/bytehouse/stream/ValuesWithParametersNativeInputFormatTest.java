@@ -0,0 +1,55 @@
+/*
+ * This file may have been modified by ByteDance Ltd. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bytedance.bytehouse.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bytedance.bytehouse.client.ServerContext;
+import com.bytedance.bytehouse.client.ServerContextTestUtils;
+import com.bytedance.bytehouse.data.Block;
+import com.bytedance.bytehouse.data.ColumnFactoryUtils;
+import com.bytedance.bytehouse.data.DataTypeFactory;
+import com.bytedance.bytehouse.data.IColumn;
+import com.bytedance.bytehouse.settings.ByteHouseConfig;
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+
+public class ValuesWithParametersNativeInputFormatTest {
+
+    @Test
+    public void successfullyTellNullConstantFromPlaceholder() throws Exception {
+        ServerContext ctx = ServerContextTestUtils.create(ByteHouseConfig.Builder.builder().build());
+        Block block = new Block(0, new IColumn[]{
+                ColumnFactoryUtils.createEmptyColumn("id", DataTypeFactory.get("Int32", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("name", DataTypeFactory.get("Nullable(String)", ctx)),
+                ColumnFactoryUtils.createEmptyColumn("score", DataTypeFactory.get("Int32", ctx))
+        });
+
+        ValuesWithParametersNativeInputFormat format = new ValuesWithParametersNativeInputFormat(0, "(?, NULL, ?)");
+        format.fill(block);
+
+        BitSet constants = format.constIdxFlags();
+        assertFalse(constants.get(0));
+        assertTrue(constants.get(1));
+        assertFalse(constants.get(2));
+        assertNull(block.getObject(1));
+        assertEquals(0, block.paramIdx2ColumnIdx(0));
+        assertEquals(2, block.paramIdx2ColumnIdx(1));
+    }
+}